@@ -0,0 +1,16 @@
+package code.with.vanilson.studentmanagement.common.dto;
+
+/**
+ * Projection returned by the person search queries, best match first.
+ */
+public interface SearchHit {
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getEmail();
+
+    Double getRank();
+}
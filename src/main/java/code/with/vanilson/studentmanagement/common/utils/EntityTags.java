@@ -0,0 +1,144 @@
+package code.with.vanilson.studentmanagement.common.utils;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Strong ETags for entity and list resources. Entity tags derive from id and last modification time;
+ * list tags combine a random version, bumped on every write to the collection, with the query of the list.
+ * Tags and versions are kept in the {@value #CACHE} cache so a matching {@code If-None-Match} can be
+ * answered without a database read. Inside a transaction, changes are invalidated at once and again after
+ * commit, so a read racing the commit cannot leave a tag cached for data that is about to change.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityTags {
+
+    public static final String CACHE = "entity-tags";
+
+    private static final String LIST_KEY = "list";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Returns the tag last issued for the entity, or {@code null} when it has to be read from the database.
+     */
+    public String cachedEntityTag(String type, Long id) {
+        Cache.ValueWrapper cached = cache().get(entityKey(type, id));
+        return cached == null ? null : (String) cached.get();
+    }
+
+    public String entityTag(String type, Long id, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        // updated_at stays null until the first update
+        LocalDateTime version = updatedAt != null ? updatedAt : createdAt;
+        String tag = quote(DigestUtils.md5DigestAsHex(
+                (type + ":" + id + ":" + version).getBytes(StandardCharsets.UTF_8)));
+        cache().put(entityKey(type, id), tag);
+        return tag;
+    }
+
+    /**
+     * Current tag of the view of the collection selected by {@code query}, the normalized filter, cursor and
+     * page size in a fixed order, so a tag issued for one page or filter never matches another. Read it
+     * before loading the list so a concurrent write can only make the response look older than it is,
+     * never newer.
+     */
+    public String collectionTag(String type, Object... query) {
+        String version = cache().get(entityKey(type, LIST_KEY), () -> UUID.randomUUID().toString());
+        StringBuilder key = new StringBuilder(type).append(':').append(version);
+        for (Object value : query) {
+            // Length-prefixed so values containing the separator cannot make two queries collide
+            String text = value == null ? null : value.toString();
+            key.append('|').append(text == null ? "-" : text.length() + ":" + text);
+        }
+        return quote(DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public void entityChanged(String type, Long id) {
+        invalidate(() -> {
+            cache().evict(entityKey(type, id));
+            cache().evict(entityKey(type, LIST_KEY));
+        });
+    }
+
+    /**
+     * Evicts the entity's cached representation from {@code valueCache} before forgetting its tag, so a read
+     * in between cannot tag a stale cached value with a freshly issued tag.
+     */
+    public void entityChanged(String type, Long id, String valueCache) {
+        invalidate(() -> {
+            Cache values = cacheManager.getCache(valueCache);
+            if (values != null) {
+                values.evict(id);
+            }
+            cache().evict(entityKey(type, id));
+            cache().evict(entityKey(type, LIST_KEY));
+        });
+    }
+
+    public void collectionChanged(String type) {
+        invalidate(() -> cache().evict(entityKey(type, LIST_KEY)));
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}.
+     */
+    public static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || tag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> notModified(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+    }
+
+    private static void invalidate(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE);
+        if (cache == null) {
+            throw new IllegalStateException("Cache " + CACHE + " is not configured");
+        }
+        return cache;
+    }
+
+    private static String entityKey(String type, Object id) {
+        return type + ":" + id;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
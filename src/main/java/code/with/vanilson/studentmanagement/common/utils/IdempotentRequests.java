@@ -0,0 +1,139 @@
+package code.with.vanilson.studentmanagement.common.utils;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * {@value #HEADER} support for retried requests. The first request with a key runs the action and its
+ * successful response is kept in Redis for {@code ttl}; retries with the same key get that response replayed,
+ * marked with {@value #REPLAYED_HEADER}, and never run the action again. A retry arriving while the first
+ * request is still running is rejected with a conflict. Failed requests are not stored, so a retry runs again.
+ * <p>
+ * When Redis is unavailable requests run unprotected; callers must still be safe against duplicates on their
+ * own, this only spares retries the work and the error.
+ */
+@Component
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final String IN_PROGRESS_MESSAGE = "A request with this idempotency key is still being processed.";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_PROGRESS = "";
+
+    private final Logger log = LoggerFactory.getLogger(IdempotentRequests.class);
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lockTtl;
+
+    public IdempotentRequests(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                              @Value("${application.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${application.idempotency.lock-ttl:1m}") Duration lockTtl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lockTtl = lockTtl;
+    }
+
+    /**
+     * Runs {@code action} once per {@code scope} and {@code key}; a {@code null} key runs it unconditionally.
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, TypeReference<T> type,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResourceBadRequestException("idempotency.invalid_key", MAX_KEY_LENGTH);
+        }
+        String redisKey = KEY_PREFIX + scope + ":" + key;
+        String stored;
+        try {
+            stored = claim(redisKey);
+        } catch (RuntimeException e) {
+            log.warn("Idempotency store unavailable, running request {} without replay", scope, e);
+            return action.get();
+        }
+        if (stored != null) {
+            if (IN_PROGRESS.equals(stored)) {
+                throw new IllegalStateException(IN_PROGRESS_MESSAGE);
+            }
+            return replay(stored, type);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(redisKey);
+            throw e;
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            store(redisKey, response);
+        } else {
+            release(redisKey);
+        }
+        return response;
+    }
+
+    /**
+     * Returns {@code null} when this request claimed the key, otherwise what is stored under it.
+     */
+    private String claim(String redisKey) {
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(redisKey, IN_PROGRESS, lockTtl))) {
+            return null;
+        }
+        String stored = redisTemplate.opsForValue().get(redisKey);
+        // Released between the two calls: the first request failed and its retry is racing this one
+        return stored != null ? stored : IN_PROGRESS;
+    }
+
+    private <T> ResponseEntity<T> replay(String stored, TypeReference<T> type) {
+        try {
+            JsonNode node = objectMapper.readTree(stored);
+            return ResponseEntity.status(node.get("status").asInt())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.convertValue(node.get("body"), type));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalStateException("Stored response for idempotency key is unreadable", e);
+        }
+    }
+
+    private void store(String redisKey, ResponseEntity<?> response) {
+        try {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("status", response.getStatusCode().value());
+            node.set("body", objectMapper.valueToTree(response.getBody()));
+            redisTemplate.opsForValue().set(redisKey, objectMapper.writeValueAsString(node), ttl);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The action succeeded; a retry will run it again and get the duplicate answer instead of a replay
+            log.warn("Failed to store response for idempotency key {}", redisKey, e);
+            release(redisKey);
+        }
+    }
+
+    private void release(String redisKey) {
+        try {
+            redisTemplate.delete(redisKey);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release idempotency key {}, it expires in {}", redisKey, lockTtl, e);
+        }
+    }
+}
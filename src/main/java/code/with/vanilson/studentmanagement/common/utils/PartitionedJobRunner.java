@@ -0,0 +1,144 @@
+package code.with.vanilson.studentmanagement.common.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Runs a batch job split into partitions that the nodes of the cluster claim in the {@code job_partition}
+ * table, so every node may trigger the same job and each partition is still processed by one node at a time.
+ * <p>
+ * A run is identified by a run key (e.g. the business date); a partition completed for that key is not run
+ * again. A claim is a lease renewed with every chunk, in the chunk's transaction together with the processed
+ * count; a partition under a live lease is never claimed, whatever run key it holds. When a node dies its lease
+ * runs out and the next trigger on any node resumes the partition; if a node finds its lease taken over, the
+ * chunk is rolled back and the partition left to the new owner.
+ */
+@Component
+public class PartitionedJobRunner {
+
+    @FunctionalInterface
+    public interface Chunk {
+
+        /**
+         * Returned when nothing could be processed because the partition's remaining rows are locked by other
+         * transactions. The partition is released without being completed, so a later trigger resumes it.
+         */
+        int LOCKED = -1;
+
+        /**
+         * Processes the next chunk of {@code partition} in the current transaction and returns the number of
+         * rows processed; {@code 0} means the partition is done, {@link #LOCKED} that it is not done yet.
+         */
+        int process(int partition, int partitions);
+    }
+
+    private static final String SEED_SQL = "INSERT INTO job_partition (job_name, partition_no, run_key, processed) "
+            + "SELECT :job, p, '', 0 FROM generate_series(0, :partitions - 1) p ON CONFLICT DO NOTHING";
+
+    private static final String CLAIM_SQL = "UPDATE job_partition SET owner = :owner, lease_until = :leaseUntil, "
+            + "processed = CASE WHEN run_key = :runKey THEN processed ELSE 0 END, "
+            + "completed_at = NULL, run_key = :runKey "
+            + "WHERE job_name = :job AND partition_no = :partition AND (lease_until IS NULL OR lease_until < :now) "
+            + "AND (run_key <> :runKey OR completed_at IS NULL)";
+
+    // A finished or released partition drops its lease so the next run key can claim it at once
+    private static final String CHECKPOINT_SQL = "UPDATE job_partition SET processed = processed + :processed, "
+            + "lease_until = CASE WHEN :open THEN :leaseUntil END, "
+            + "completed_at = CASE WHEN :done THEN :now END "
+            + "WHERE job_name = :job AND partition_no = :partition AND run_key = :runKey AND owner = :owner";
+
+    private final Logger log = LoggerFactory.getLogger(PartitionedJobRunner.class);
+    private final String nodeId = UUID.randomUUID().toString();
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lease;
+
+    public PartitionedJobRunner(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                @Value("${application.jobs.lease:5m}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.lease = lease;
+    }
+
+    /**
+     * Processes every partition of {@code runKey} this node can claim and returns the number of rows it
+     * processed. Partitions completed or held by another node are skipped.
+     */
+    public long run(String job, String runKey, int partitions, Chunk chunk) {
+        jdbcTemplate.update(SEED_SQL, new MapSqlParameterSource()
+                .addValue("job", job)
+                .addValue("partitions", partitions));
+        long total = 0;
+        for (int partition = 0; partition < partitions; partition++) {
+            try {
+                if (claim(job, runKey, partition)) {
+                    total += runPartition(job, runKey, partition, partitions, chunk);
+                }
+            } catch (DataAccessException e) {
+                // The lease runs out and the partition is resumed by a later trigger
+                log.warn("Partition {} of job {} ({}) failed", partition, job, runKey, e);
+            }
+        }
+        return total;
+    }
+
+    private boolean claim(String job, String runKey, int partition) {
+        LocalDateTime now = LocalDateTime.now();
+        // Runs outside any transaction so the claim is visible to other nodes at once
+        return jdbcTemplate.update(CLAIM_SQL, params(job, runKey, partition, now)) == 1;
+    }
+
+    private long runPartition(String job, String runKey, int partition, int partitions, Chunk chunk) {
+        long total = 0;
+        while (true) {
+            Integer processed = transactionTemplate.execute(status -> {
+                int count = chunk.process(partition, partitions);
+                MapSqlParameterSource params = params(job, runKey, partition, LocalDateTime.now())
+                        .addValue("processed", Math.max(count, 0))
+                        .addValue("open", count > 0, Types.BOOLEAN)
+                        .addValue("done", count == 0, Types.BOOLEAN);
+                if (jdbcTemplate.update(CHECKPOINT_SQL, params) == 0) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return count;
+            });
+            if (processed == null) {
+                log.warn("Lost the lease on partition {} of job {} ({}), leaving it to its new owner",
+                        partition, job, runKey);
+                return total;
+            }
+            if (processed == 0) {
+                log.debug("Completed partition {} of job {} ({}) with {} rows", partition, job, runKey, total);
+                return total;
+            }
+            if (processed == Chunk.LOCKED) {
+                log.debug("Partition {} of job {} ({}) has rows locked elsewhere, leaving it to a later trigger",
+                        partition, job, runKey);
+                return total;
+            }
+            total += processed;
+        }
+    }
+
+    private MapSqlParameterSource params(String job, String runKey, int partition, LocalDateTime now) {
+        return new MapSqlParameterSource()
+                .addValue("job", job)
+                .addValue("runKey", runKey)
+                .addValue("partition", partition)
+                .addValue("owner", nodeId)
+                .addValue("now", now, Types.TIMESTAMP)
+                .addValue("leaseUntil", now.plus(lease), Types.TIMESTAMP);
+    }
+}
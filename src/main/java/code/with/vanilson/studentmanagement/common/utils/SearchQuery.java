@@ -0,0 +1,47 @@
+package code.with.vanilson.studentmanagement.common.utils;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Normalised search input: the lower-cased term for trigram matching and a prefix {@code tsquery}
+ * built from its words, so user input never reaches the query parser unescaped.
+ */
+@Getter
+public final class SearchQuery {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final String term;
+    private final String prefixQuery;
+
+    private SearchQuery(String term, String prefixQuery) {
+        this.term = term;
+        this.prefixQuery = prefixQuery;
+    }
+
+    public static SearchQuery of(String input) {
+        String term = input == null ? "" : input.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        String prefixQuery = Arrays.stream(term.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+        if (term.length() < MIN_TERM_LENGTH || prefixQuery.isEmpty()) {
+            throw new ResourceBadRequestException("search.invalid_query", MIN_TERM_LENGTH);
+        }
+        return new SearchQuery(term, prefixQuery);
+    }
+
+    public static Pageable page(Integer page, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return PageRequest.of(page == null ? 0 : Math.max(0, page), pageSize);
+    }
+}
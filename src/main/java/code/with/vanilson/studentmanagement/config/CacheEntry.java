@@ -0,0 +1,18 @@
+package code.with.vanilson.studentmanagement.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envelope stored in both cache tiers. Keeps the absolute expiry and how long the value took to load,
+ * which is what probabilistic early refresh needs to decide when to recompute.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheEntry {
+    private Object value;
+    private long expiresAt;
+    private long loadMillis;
+}
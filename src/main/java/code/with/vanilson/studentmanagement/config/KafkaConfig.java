@@ -1,6 +1,9 @@
 package code.with.vanilson.studentmanagement.config;
 
+import code.with.vanilson.studentmanagement.modules.appointment.AppointmentEvent;
+import code.with.vanilson.studentmanagement.modules.billing.BillingEvent;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -12,19 +15,25 @@ import org.springframework.kafka.config.TopicBuilder;
 @Profile("!test")
 public class KafkaConfig {
 
+    @Value("${application.kafka.replicas:1}")
+    private int replicas;
+
+    /**
+     * Events are keyed by student, so the partition count bounds how many consumers share a topic.
+     */
     @Bean
-    public NewTopic billingTopic() {
-        return TopicBuilder.name("billing-events")
-                .partitions(1)
-                .replicas(1)
+    public NewTopic billingTopic(@Value("${application.kafka.billing-events.partitions:6}") int partitions) {
+        return TopicBuilder.name(BillingEvent.TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
                 .build();
     }
 
     @Bean
-    public NewTopic notificationTopic() {
-        return TopicBuilder.name("notification-events")
-                .partitions(1)
-                .replicas(1)
+    public NewTopic notificationTopic(@Value("${application.kafka.notification-events.partitions:6}") int partitions) {
+        return TopicBuilder.name(AppointmentEvent.TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
                 .build();
     }
 }
@@ -0,0 +1,69 @@
+package code.with.vanilson.studentmanagement.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Polls the replica's replay lag. The replica only takes reads while it answers and its lag is within
+ * {@code maxLag}; until the first successful check reads stay on the primary.
+ */
+public class ReplicaLagMonitor {
+
+    private static final String LAG_SQL = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean available;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(2);
+        this.maxLag = maxLag;
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagSeconds)
+                .description("Replica replay lag, NaN while the replica is unreachable")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, m -> m.available ? 1 : 0)
+                .description("Whether read-only transactions are currently routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean wasAvailable = available;
+        try {
+            Double lag = replica.queryForObject(LAG_SQL, Double.class);
+            lagSeconds = lag == null ? 0 : lag;
+            available = lagSeconds <= maxLag.toMillis() / 1000.0;
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            available = false;
+            if (wasAvailable) {
+                log.warn("Replica unreachable, routing reads to primary", e);
+            }
+            return;
+        }
+        if (wasAvailable != available) {
+            log.info("Replica lag {}s (max {}s), reads routed to {}", lagSeconds, maxLag.toSeconds(),
+                    available ? "replica" : "primary");
+        }
+    }
+}
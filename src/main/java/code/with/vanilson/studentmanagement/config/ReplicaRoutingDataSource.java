@@ -0,0 +1,62 @@
+package code.with.vanilson.studentmanagement.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to the primary.
+ * Reads fall back to the primary while the replica is unreachable or lagging. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the read-only flag is only
+ * bound after the transaction manager has begun the transaction.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final BooleanSupplier replicaAvailable;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaAvailable,
+                                    MeterRegistry meterRegistry) {
+        this.replicaAvailable = replicaAvailable;
+        this.primaryRoutes = counter(meterRegistry, "primary", "write");
+        this.replicaRoutes = counter(meterRegistry, "replica", "read");
+        this.fallbackRoutes = counter(meterRegistry, "primary", "replica_unavailable");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    private static Counter counter(MeterRegistry registry, String route, String reason) {
+        return Counter.builder("datasource.route.connections")
+                .description("Connections handed out per datasource route")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoutes.increment();
+            return Route.PRIMARY;
+        }
+        if (!replicaAvailable.getAsBoolean()) {
+            fallbackRoutes.increment();
+            return Route.PRIMARY;
+        }
+        replicaRoutes.increment();
+        return Route.REPLICA;
+    }
+}
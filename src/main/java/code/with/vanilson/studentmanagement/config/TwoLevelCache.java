@@ -0,0 +1,245 @@
+package code.with.vanilson.studentmanagement.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache backed by a bounded in-process Caffeine tier (L1) in front of the shared Redis tier (L2).
+ * Evictions are applied to both tiers and broadcast so that other nodes drop their L1 copy.
+ * <p>
+ * Synchronized reads ({@code @Cacheable(sync = true)}) are single-flight per key on this node, and a
+ * hot entry may be recomputed shortly before it expires (XFetch) so its expiry does not turn into a
+ * stampede on the database.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final TwoLevelCacheManager manager;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter loads;
+    private final Counter coalescedLoads;
+    private final Counter earlyRefreshes;
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local, Cache remote,
+                         TwoLevelCacheManager manager, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+        this.localHits = tierCounter(meterRegistry, "l1", "hit");
+        this.localMisses = tierCounter(meterRegistry, "l1", "miss");
+        this.remoteHits = tierCounter(meterRegistry, "l2", "hit");
+        this.remoteMisses = tierCounter(meterRegistry, "l2", "miss");
+        this.loads = loadCounter(meterRegistry, "load");
+        this.coalescedLoads = loadCounter(meterRegistry, "coalesced");
+        this.earlyRefreshes = loadCounter(meterRegistry, "early_refresh");
+    }
+
+    private Counter tierCounter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("cache.tier.requests")
+                .description("Cache lookups per tier")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Counter loadCounter(MeterRegistry registry, String type) {
+        return Counter.builder("cache.loads")
+                .description("Value loads through the cache, including callers that joined an in-flight load")
+                .tag("cache", name)
+                .tag("type", type)
+                .register(registry);
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(@NonNull Object key) {
+        CacheEntry entry = lookup(key);
+        return entry == null ? null : new SimpleValueWrapper(entry.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        CacheEntry entry = lookup(key);
+        if (entry != null) {
+            if (!shouldRefreshEarly(entry)) {
+                return (T) entry.getValue();
+            }
+            earlyRefreshes.increment();
+        }
+        return (T) load(key, valueLoader, entry);
+    }
+
+    /**
+     * Loads the value unless another caller on this node already is. Followers wait for that load,
+     * except during an early refresh where they keep serving the still-valid current value.
+     */
+    private Object load(Object key, Callable<?> valueLoader, CacheEntry current) {
+        String localKey = localKey(key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, flight);
+        if (existing != null) {
+            if (current != null) {
+                return current.getValue();
+            }
+            coalescedLoads.increment();
+            return await(key, valueLoader, existing);
+        }
+        try {
+            // A load that finished between our lookup and registering the flight has already filled L1
+            Object stored = current == null ? local.getIfPresent(localKey) : null;
+            if (stored instanceof CacheEntry entry) {
+                flight.complete(entry.getValue());
+                return entry.getValue();
+            }
+            loads.increment();
+            long start = System.nanoTime();
+            Object value = valueLoader.call();
+            long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            store(key, newEntry(value, loadMillis));
+            flight.complete(value);
+            return value;
+        } catch (Exception e) {
+            flight.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(localKey, flight);
+        }
+    }
+
+    private static Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    /**
+     * XFetch: recompute when {@code now - loadMillis * beta * ln(rand) >= expiresAt}. Slow-to-load
+     * entries start refreshing earlier, and the random factor spreads refreshes across callers.
+     */
+    private boolean shouldRefreshEarly(CacheEntry entry) {
+        double jitter = Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() - entry.getLoadMillis() * manager.getEarlyRefreshBeta() * jitter
+                >= entry.getExpiresAt();
+    }
+
+    @Override
+    public void put(@NonNull Object key, Object value) {
+        store(key, newEntry(value, 0));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NonNull Object key, Object value) {
+        CacheEntry entry = newEntry(value, 0);
+        ValueWrapper existing = remote.putIfAbsent(key, entry);
+        CacheEntry winner = existing == null ? entry : toEntry(existing.get());
+        local.put(localKey(key), winner);
+        return existing == null ? null : new SimpleValueWrapper(winner.getValue());
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        remote.evict(key);
+        evictLocal(localKey(key));
+        manager.publishEviction(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        manager.publishClear(name);
+    }
+
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    private CacheEntry lookup(Object key) {
+        String localKey = localKey(key);
+        Object cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            localHits.increment();
+            return (CacheEntry) cached;
+        }
+        localMisses.increment();
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        CacheEntry entry = toEntry(wrapper.get());
+        local.put(localKey, entry);
+        return entry;
+    }
+
+    private void store(Object key, CacheEntry entry) {
+        remote.put(key, entry);
+        local.put(localKey(key), entry);
+    }
+
+    private CacheEntry newEntry(Object value, long loadMillis) {
+        return new CacheEntry(value, System.currentTimeMillis() + manager.getRemoteTtl().toMillis(), loadMillis);
+    }
+
+    // Values written before entries were wrapped carry no expiry and are left to the Redis TTL
+    private static CacheEntry toEntry(Object stored) {
+        return stored instanceof CacheEntry entry ? entry : new CacheEntry(stored, Long.MAX_VALUE, 0);
+    }
+
+    // Redis keys are derived from key.toString(), so remote invalidation messages can address L1 the same way
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -1,14 +1,18 @@
 package code.with.vanilson.studentmanagement.modules.appointment;
 
 import code.with.vanilson.studentmanagement.common.dto.ApiResponse;
+import code.with.vanilson.studentmanagement.common.dto.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -38,6 +42,27 @@ public class AppointmentController {
                 "Appointment scheduled successfully"));
     }
 
+    @PostMapping("/series")
+    @Operation(summary = "Schedule appointment series", description = "Books a weekly or biweekly series of appointments up to an end date in one transaction. Conflicting occurrences are reported; with allowPartial the free ones are still booked.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Appointment series scheduled")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid series")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Some occurrences conflict and nothing was booked")
+    public ResponseEntity<ApiResponse<AppointmentSeriesResult>> scheduleSeries(
+            @jakarta.validation.Valid @RequestBody AppointmentSeriesRequest request) {
+        AppointmentSeriesResult result = service.scheduleSeries(request);
+        if (result.getBooked().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.<AppointmentSeriesResult>builder()
+                    .success(false)
+                    .message("Appointment series conflicts with existing appointments")
+                    .data(result)
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+        return ResponseEntity.ok(ApiResponse.success(result, result.getConflicts().isEmpty()
+                ? "Appointment series scheduled successfully"
+                : "Appointment series partially scheduled"));
+    }
+
     @PutMapping("/{id}/cancel")
     @Operation(summary = "Cancel appointment", description = "Cancels an existing appointment.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Appointment cancelled successfully")
@@ -49,11 +74,33 @@ public class AppointmentController {
     }
 
     @GetMapping("/students/{studentId}")
-    @Operation(summary = "Get student appointments", description = "Retrieves all appointments for a specific student.")
+    @Operation(summary = "Get student appointments", description = "Retrieves a page of a student's appointments ordered by start time, optionally filtered by a start time window and status. Pass the returned nextCursor to fetch the following page.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Appointments retrieved successfully")
-    public ResponseEntity<ApiResponse<List<Appointment>>> getStudentAppointments(@PathVariable Long studentId) {
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or time window")
+    public ResponseEntity<ApiResponse<CursorPage<AppointmentView>>> getStudentAppointments(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Appointment.AppointmentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         return ResponseEntity.ok(
-                ApiResponse.success(service.getStudentAppointments(studentId),
+                ApiResponse.success(service.getStudentAppointments(studentId, from, to, status, cursor, size),
                         "Appointments retrieved successfully"));
     }
+
+    @GetMapping("/free-slots")
+    @Operation(summary = "Find free slots", description = "Lists bookable slots of the requested duration for one or more teachers between from and to, at most limit per teacher; nextFrom is set where a teacher's list was cut short.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Free slots retrieved successfully")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid teachers, range or duration")
+    public ResponseEntity<ApiResponse<List<TeacherFreeSlots>>> findFreeSlots(
+            @RequestParam List<Long> teacherId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam int durationMinutes,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(
+                ApiResponse.success(service.findFreeSlots(teacherId, from, to, durationMinutes, limit),
+                        "Free slots retrieved successfully"));
+    }
 }
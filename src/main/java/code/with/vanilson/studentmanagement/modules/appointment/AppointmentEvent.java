@@ -0,0 +1,62 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import code.with.vanilson.studentmanagement.modules.outbox.DomainEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payload of the {@value #TOPIC} topic. A series event has no {@code appointmentId}; its {@code startTime} is
+ * the start of the first booked occurrence.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AppointmentEvent(Type type, Long appointmentId, Long studentId, Long teacherId,
+                               LocalDateTime startTime, Integer occurrences, String reminderLead)
+        implements DomainEvent {
+
+    public static final String TOPIC = "notification-events";
+
+    public enum Type {
+        SCHEDULED, SERIES_SCHEDULED, CANCELLED, REMINDER
+    }
+
+    public static AppointmentEvent scheduled(Appointment appointment) {
+        return of(Type.SCHEDULED, appointment);
+    }
+
+    public static AppointmentEvent cancelled(Appointment appointment) {
+        return of(Type.CANCELLED, appointment);
+    }
+
+    public static AppointmentEvent seriesScheduled(Long studentId, Long teacherId, LocalDateTime from,
+                                                   int occurrences) {
+        return new AppointmentEvent(Type.SERIES_SCHEDULED, null, studentId, teacherId, from, occurrences, null);
+    }
+
+    public static AppointmentEvent reminder(Long appointmentId, Long studentId, Long teacherId,
+                                            LocalDateTime startTime, String lead) {
+        return new AppointmentEvent(Type.REMINDER, appointmentId, studentId, teacherId, startTime, null, lead);
+    }
+
+    private static AppointmentEvent of(Type type, Appointment appointment) {
+        return new AppointmentEvent(type, appointment.getId(), appointment.getStudentId(),
+                appointment.getTeacherId(), appointment.getStartTime(), null, null);
+    }
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String describe() {
+        return switch (type) {
+            case SCHEDULED -> "Appointment scheduled for student: " + studentId + " with teacher: " + teacherId;
+            case SERIES_SCHEDULED -> "Appointment series scheduled for student: " + studentId + " with teacher: "
+                    + teacherId + " (" + occurrences + " occurrences from " + startTime + ")";
+            case CANCELLED -> "Appointment cancelled: " + appointmentId;
+            case REMINDER -> "Reminder: appointment for student: " + studentId + " with teacher: " + teacherId
+                    + " starts at " + startTime + " (in " + reminderLead + ")";
+        };
+    }
+}
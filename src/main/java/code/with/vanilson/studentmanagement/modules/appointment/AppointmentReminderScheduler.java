@@ -0,0 +1,215 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends "appointment in 24h / 1h" reminders for {@code SCHEDULED} appointments.
+ * <p>
+ * Only reminders due within {@code horizon} are held in memory, on a {@link TimingWheel}; they are loaded in
+ * keyset chunks on every load run, so appointments booked late are picked up on the next run. Due reminders are
+ * sent in batches: one statement records them in {@code appointment_reminder} and returns only the rows it
+ * actually inserted, and the notification events go through the outbox in the same transaction. A reminder
+ * already recorded, by an earlier run before a restart or by another node, is therefore never sent twice,
+ * and one for an appointment cancelled since loading is dropped.
+ */
+@Component
+@Profile("!test")
+public class AppointmentReminderScheduler {
+
+    enum Kind {
+        DAY_BEFORE(Duration.ofHours(24), "24 hours"),
+        HOUR_BEFORE(Duration.ofHours(1), "1 hour");
+
+        private final Duration lead;
+        private final String label;
+
+        Kind(Duration lead, String label) {
+            this.lead = lead;
+            this.label = label;
+        }
+    }
+
+    record Reminder(Long appointmentId, Kind kind) {
+    }
+
+    private record Upcoming(Long id, LocalDateTime startTime) {
+    }
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 60;
+
+    private static final String LOAD_SQL = "SELECT a.id, a.start_time FROM appointment a "
+            + "WHERE a.status = 'SCHEDULED' AND a.start_time >= :from AND a.start_time < :to "
+            + "AND (a.start_time > :afterStart OR (a.start_time = :afterStart AND a.id > :afterId)) "
+            + "AND NOT EXISTS (SELECT 1 FROM appointment_reminder r WHERE r.appointment_id = a.id AND r.kind = :kind) "
+            + "ORDER BY a.start_time, a.id LIMIT :limit";
+
+    private static final String SEND_SQL = "WITH sent AS ("
+            + "INSERT INTO appointment_reminder (appointment_id, kind, sent_at) "
+            + "SELECT a.id, :kind, :now FROM appointment a WHERE a.id IN (:ids) AND a.status = 'SCHEDULED' "
+            + "ON CONFLICT DO NOTHING RETURNING appointment_id) "
+            + "SELECT a.id, a.student_id, a.teacher_id, a.start_time FROM appointment a "
+            + "JOIN sent ON sent.appointment_id = a.id ORDER BY a.start_time, a.id";
+
+    private final Logger log = LoggerFactory.getLogger(AppointmentReminderScheduler.class);
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outbox;
+    private final MeterRegistry meterRegistry;
+    private final Duration horizon;
+    private final Duration grace;
+    private final int chunkSize;
+    private final int batchSize;
+
+    private final TimingWheel<Reminder> wheel;
+    // Reminders on the wheel or waiting to be sent, so reloading the same window does not add them twice
+    private final Set<Reminder> scheduled = ConcurrentHashMap.newKeySet();
+    private final List<Reminder> due = new ArrayList<>();
+
+    public AppointmentReminderScheduler(NamedParameterJdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate, OutboxService outbox,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${application.reminders.horizon:10m}") Duration horizon,
+                                        @Value("${application.reminders.grace:15m}") Duration grace,
+                                        @Value("${application.reminders.chunk-size:1000}") int chunkSize,
+                                        @Value("${application.reminders.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outbox = outbox;
+        this.meterRegistry = meterRegistry;
+        this.horizon = horizon;
+        this.grace = grace;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+        Gauge.builder("appointment.reminders.scheduled", scheduled, Set::size)
+                .description("Reminders loaded and waiting to be sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads reminders due before {@code now + horizon}. Reminders up to {@code grace} overdue are still
+     * loaded so a restart or a late booking does not lose them; older ones are skipped.
+     */
+    @Scheduled(fixedDelayString = "${application.reminders.load-interval-ms:60000}")
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Kind kind : Kind.values()) {
+            try {
+                loadWindow(kind, now.plus(kind.lead).minus(grace), now.plus(kind.lead).plus(horizon));
+            } catch (DataAccessException e) {
+                log.warn("Failed to load {} reminders, retrying on the next run", kind, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        List<Reminder> batch;
+        synchronized (this) {
+            due.addAll(wheel.advance(System.currentTimeMillis()));
+            if (due.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(due);
+            due.clear();
+        }
+        Map<Kind, List<Long>> byKind = new EnumMap<>(Kind.class);
+        for (Reminder reminder : batch) {
+            byKind.computeIfAbsent(reminder.kind(), k -> new ArrayList<>()).add(reminder.appointmentId());
+        }
+        byKind.forEach((kind, ids) -> {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                try {
+                    send(kind, chunk);
+                } catch (DataAccessException e) {
+                    // Left unrecorded, so the next load puts them back on the wheel
+                    log.warn("Failed to send {} {} reminders", chunk.size(), kind, e);
+                }
+                chunk.forEach(id -> scheduled.remove(new Reminder(id, kind)));
+            }
+        });
+    }
+
+    void loadWindow(Kind kind, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime afterStart = from;
+        long afterId = 0L;
+        int loaded = 0;
+        while (true) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("from", from, Types.TIMESTAMP)
+                    .addValue("to", to, Types.TIMESTAMP)
+                    .addValue("afterStart", afterStart, Types.TIMESTAMP)
+                    .addValue("afterId", afterId)
+                    .addValue("kind", kind.name())
+                    .addValue("limit", chunkSize);
+            List<Upcoming> rows = jdbcTemplate.query(LOAD_SQL, params,
+                    (rs, i) -> new Upcoming(rs.getLong("id"), rs.getTimestamp("start_time").toLocalDateTime()));
+            synchronized (this) {
+                for (Upcoming row : rows) {
+                    Reminder reminder = new Reminder(row.id(), kind);
+                    if (scheduled.add(reminder)) {
+                        LocalDateTime fireAt = row.startTime().minus(kind.lead);
+                        if (!wheel.add(toMillis(fireAt), reminder)) {
+                            due.add(reminder);
+                        }
+                        loaded++;
+                    }
+                }
+            }
+            if (rows.size() < chunkSize) {
+                break;
+            }
+            Upcoming last = rows.get(rows.size() - 1);
+            afterStart = last.startTime();
+            afterId = last.id();
+        }
+        if (loaded > 0) {
+            log.debug("Loaded {} {} reminders", loaded, kind);
+        }
+    }
+
+    void send(Kind kind, List<Long> appointmentIds) {
+        Integer sent = transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("kind", kind.name())
+                    .addValue("now", LocalDateTime.now(), Types.TIMESTAMP)
+                    .addValue("ids", appointmentIds);
+            List<AppointmentEvent> events = jdbcTemplate.query(SEND_SQL, params, (rs, i) ->
+                    AppointmentEvent.reminder(rs.getLong("id"), rs.getLong("student_id"), rs.getLong("teacher_id"),
+                            rs.getTimestamp("start_time").toLocalDateTime(), kind.label));
+            outbox.publishAll(events);
+            return events.size();
+        });
+        meterRegistry.counter("appointment.reminders.sent", "kind", kind.name())
+                .increment(sent == null ? 0 : sent);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
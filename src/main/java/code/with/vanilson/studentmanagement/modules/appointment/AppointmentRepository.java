@@ -9,6 +9,29 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     List<Appointment> findByTeacherId(Long teacherId);
 
+    // Keyset page over (start_time, id) after (afterStart, afterId) and before :to. Both bounds are always
+    // bound so the range stays usable on idx_appointment_student_start_time under generic plans.
+    @org.springframework.data.jpa.repository.Query("SELECT a.id AS id, a.studentId AS studentId, "
+            + "a.teacherId AS teacherId, a.startTime AS startTime, a.endTime AS endTime, a.status AS status "
+            + "FROM Appointment a WHERE a.studentId = :studentId "
+            + "AND (a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId)) "
+            + "AND a.startTime < :to "
+            + "AND (:status IS NULL OR a.status = :status) "
+            + "ORDER BY a.startTime, a.id")
+    List<AppointmentView> findStudentHistory(
+            @org.springframework.data.repository.query.Param("studentId") Long studentId,
+            @org.springframework.data.repository.query.Param("afterStart") java.time.LocalDateTime afterStart,
+            @org.springframework.data.repository.query.Param("afterId") Long afterId,
+            @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to,
+            @org.springframework.data.repository.query.Param("status") Appointment.AppointmentStatus status,
+            org.springframework.data.domain.Pageable pageable);
+
+    List<Appointment> findByStatusAndEndTimeAfter(Appointment.AppointmentStatus status,
+                                                  java.time.LocalDateTime endTime);
+
+    List<Appointment> findByTeacherIdAndStatusAndEndTimeAfter(Long teacherId, Appointment.AppointmentStatus status,
+                                                              java.time.LocalDateTime endTime);
+
     @org.springframework.data.jpa.repository.Query("SELECT a FROM Appointment a WHERE a.teacherId = :teacherId " +
             "AND ((a.startTime < :endTime AND a.endTime > :startTime)) " +
             "AND a.status = 'SCHEDULED'")
@@ -16,4 +39,14 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @org.springframework.data.repository.query.Param("teacherId") Long teacherId,
             @org.springframework.data.repository.query.Param("startTime") java.time.LocalDateTime startTime,
             @org.springframework.data.repository.query.Param("endTime") java.time.LocalDateTime endTime);
+
+    // Range overlap on tsrange so the partial GiST index behind the no-overlap constraint serves the lookup
+    @org.springframework.data.jpa.repository.Query(value = "SELECT * FROM appointment "
+            + "WHERE teacher_id IN (:teacherIds) AND status = 'SCHEDULED' "
+            + "AND tsrange(start_time, end_time) && tsrange(:from, :to) "
+            + "ORDER BY teacher_id, start_time", nativeQuery = true)
+    List<Appointment> findScheduledInRange(
+            @org.springframework.data.repository.query.Param("teacherIds") java.util.Collection<Long> teacherIds,
+            @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+            @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
 }
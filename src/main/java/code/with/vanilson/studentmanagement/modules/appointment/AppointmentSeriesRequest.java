@@ -0,0 +1,37 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentSeriesRequest {
+    @jakarta.validation.constraints.NotNull(message = "Student is required")
+    private Long studentId;
+
+    @jakarta.validation.constraints.NotNull(message = "Teacher is required")
+    private Long teacherId;
+
+    @jakarta.validation.constraints.NotNull(message = "First start time is required")
+    private LocalDateTime firstStart;
+
+    @jakarta.validation.constraints.NotNull(message = "Duration is required")
+    @jakarta.validation.constraints.Positive(message = "Duration must be positive")
+    private Integer durationMinutes;
+
+    @jakarta.validation.constraints.NotNull(message = "Frequency is required")
+    private Recurrence frequency;
+
+    @jakarta.validation.constraints.NotNull(message = "End date is required")
+    private LocalDate until;
+
+    // Book the free occurrences even when some of them conflict; otherwise any conflict books nothing
+    private boolean allowPartial;
+}
@@ -0,0 +1,23 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentSeriesResult {
+    private int occurrences;
+
+    @Builder.Default
+    private List<Appointment> booked = new ArrayList<>();
+
+    @Builder.Default
+    private List<TimeSlot> conflicts = new ArrayList<>();
+}
@@ -1,32 +1,77 @@
 package code.with.vanilson.studentmanagement.modules.appointment;
 
-import code.with.vanilson.studentmanagement.common.exception.NotificationException;
+import code.with.vanilson.studentmanagement.common.dto.CursorPage;
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.KeysetCursor;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.kafka.KafkaException;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class AppointmentService {
-    private final Logger log = LoggerFactory.getLogger(AppointmentService.class);
+
+    static final String NO_OVERLAP_CONSTRAINT = "appointment_teacher_no_overlap";
+    static final int MAX_FREE_SLOT_TEACHERS = 20;
+    static final Duration MAX_FREE_SLOT_RANGE = Duration.ofDays(31);
+    static final int MIN_SLOT_MINUTES = 15;
+    static final int DEFAULT_FREE_SLOT_LIMIT = 100;
+    static final int MAX_FREE_SLOT_LIMIT = 500;
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    // Open ends of the history window, kept inside the range of a Postgres timestamp
+    static final LocalDateTime HISTORY_START = LocalDateTime.of(1900, 1, 1, 0, 0);
+    static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+    static final int MAX_SERIES_OCCURRENCES = 52;
+    static final int MAX_SERIES_DURATION_MINUTES = 24 * 60;
+    static final String OVERLAP_MESSAGE = "Teacher already has an appointment during this time.";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    // Occurrences taken by a concurrent booking are skipped by the constraint instead of failing the batch
+    private static final String INSERT_SQL = "INSERT INTO appointment "
+            + "(student_id, teacher_id, start_time, end_time, status, created_at) "
+            + "VALUES (:studentId, :teacherId, :startTime, :endTime, :status, :createdAt) "
+            + "ON CONFLICT ON CONSTRAINT " + NO_OVERLAP_CONSTRAINT + " DO NOTHING";
+
     private final AppointmentRepository repository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxService outbox;
+    private final TeacherScheduleIndex scheduleIndex;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
 
     @Transactional
     public Appointment scheduleAppointment(Long studentId, Long teacherId, LocalDateTime startTime,
                                            LocalDateTime endTime) {
-
-        List<Appointment> overlapping = repository.findOverlappingAppointments(teacherId, startTime, endTime);
-        if (!overlapping.isEmpty()) {
-            throw new IllegalStateException("Teacher already has an appointment during this time.");
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new ResourceBadRequestException("appointment.invalid_time_range", startTime, endTime);
+        }
+        // An index hit is only a hint; a stale entry must not turn away a free slot
+        if (scheduleIndex.hasConflict(teacherId, startTime, endTime)) {
+            if (!repository.findOverlappingAppointments(teacherId, startTime, endTime).isEmpty()) {
+                throw new IllegalStateException(OVERLAP_MESSAGE);
+            }
+            scheduleIndex.reload(teacherId);
         }
 
         Appointment appointment = Appointment.builder()
@@ -37,19 +82,80 @@ public class AppointmentService {
                 .status(Appointment.AppointmentStatus.SCHEDULED)
                 .build();
 
-        Appointment saved = repository.save(appointment);
-
+        Appointment saved;
         try {
-            kafkaTemplate.send("notification-events",
-                    "Appointment scheduled for student: " + studentId + " with teacher: " + teacherId);
-        } catch (KafkaException e) {
-            log.error("Failed to make appointment notification event", e);
-            throw new NotificationException("Failed to send appointment notification", e);
+            // Flush so an overlap rejected by the exclusion constraint surfaces here, not at commit
+            saved = repository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                scheduleIndex.stale(teacherId);
+                throw new IllegalStateException(OVERLAP_MESSAGE);
+            }
+            throw e;
         }
+        scheduleIndex.booked(saved);
+
+        outbox.publish(AppointmentEvent.scheduled(saved));
 
         return saved;
     }
 
+    /**
+     * Books every occurrence of a weekly series in one transaction: one range query finds the conflicts,
+     * the free occurrences go in as a single JDBC batch and one notification covers the whole series.
+     * Unless {@code allowPartial} is set, any conflict books nothing and the conflicts are reported back.
+     */
+    @Transactional
+    public AppointmentSeriesResult scheduleSeries(AppointmentSeriesRequest request) {
+        if (request.getDurationMinutes() > MAX_SERIES_DURATION_MINUTES) {
+            throw new ResourceBadRequestException("appointment.invalid_series_duration", MAX_SERIES_DURATION_MINUTES);
+        }
+        List<TimeSlot> occurrences = request.getFrequency().occurrences(request.getFirstStart(),
+                Duration.ofMinutes(request.getDurationMinutes()), request.getUntil(), MAX_SERIES_OCCURRENCES);
+        if (occurrences.isEmpty() || occurrences.size() > MAX_SERIES_OCCURRENCES) {
+            throw new ResourceBadRequestException("appointment.invalid_series_range", MAX_SERIES_OCCURRENCES);
+        }
+
+        Long teacherId = request.getTeacherId();
+        LocalDateTime from = occurrences.get(0).getStart();
+        LocalDateTime to = occurrences.get(occurrences.size() - 1).getEnd();
+        boolean indexed = scheduleIndex.covers(from);
+        List<TimeSlot> conflicts = overlapping(occurrences,
+                indexed ? scheduleIndex.busy(teacherId, from, to) : scheduledInRange(teacherId, from, to));
+        // Index hits are only hints: a stale entry must not turn away free occurrences
+        if (indexed && !conflicts.isEmpty()) {
+            List<TimeSlot> confirmed = overlapping(occurrences, scheduledInRange(teacherId, from, to));
+            if (!confirmed.equals(conflicts)) {
+                scheduleIndex.reload(teacherId);
+            }
+            conflicts = confirmed;
+        }
+        AppointmentSeriesResult result = AppointmentSeriesResult.builder()
+                .occurrences(occurrences.size())
+                .conflicts(conflicts)
+                .build();
+        if (!conflicts.isEmpty() && !request.isAllowPartial()) {
+            return result;
+        }
+
+        List<TimeSlot> free = new ArrayList<>(occurrences);
+        free.removeAll(conflicts);
+        List<Appointment> booked = insertAll(request, free, conflicts);
+        if (booked.size() < free.size() && !request.isAllowPartial()) {
+            // Lost a race for some occurrences after the check; roll the rest back
+            throw new IllegalStateException(OVERLAP_MESSAGE);
+        }
+        result.setBooked(booked);
+        if (booked.isEmpty()) {
+            return result;
+        }
+        scheduleIndex.booked(booked);
+
+        outbox.publish(AppointmentEvent.seriesScheduled(request.getStudentId(), teacherId, from, booked.size()));
+
+        return result;
+    }
+
     @Transactional
     public Appointment cancelAppointment(Long id) {
         Appointment appointment = repository.findById(id)
@@ -57,18 +163,171 @@ public class AppointmentService {
 
         appointment.setStatus(Appointment.AppointmentStatus.CANCELLED);
         Appointment updated = repository.save(appointment);
+        scheduleIndex.cancelled(updated);
 
-        try {
-            kafkaTemplate.send("notification-events", "Appointment cancelled: " + id);
-        } catch (KafkaException e) {
-            log.error("Failed to make appointment notification event", e);
-            throw new NotificationException("Failed to send appointment notification", e);
-        }
+        outbox.publish(AppointmentEvent.cancelled(updated));
 
         return updated;
     }
 
-    public List<Appointment> getStudentAppointments(Long studentId) {
-        return repository.findByStudentId(studentId);
+    /**
+     * A student's appointments ordered by start time, optionally limited to {@code [from, to)} and a status.
+     * Pages are keyset based: pass the returned cursor to continue after the last appointment.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentView> getStudentAppointments(Long studentId, LocalDateTime from, LocalDateTime to,
+                                                             Appointment.AppointmentStatus status, String cursor,
+                                                             Integer size) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ResourceBadRequestException("appointment.invalid_history_range", from, to);
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // The first page starts at from itself: ids are positive, so (from, 0) is just before it
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after == null) {
+            after = new KeysetCursor(from != null ? from : HISTORY_START, 0L);
+        }
+
+        // Fetch one extra row to know whether another page exists without a count query
+        List<AppointmentView> rows = repository.findStudentHistory(studentId, after.getPosition(), after.getId(),
+                to != null ? to : HISTORY_END, status, PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<AppointmentView> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            AppointmentView last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getStartTime(), last.getId()).encode();
+        }
+        return CursorPage.of(page, nextCursor);
+    }
+
+    /**
+     * Free slots of {@code durationMinutes} per teacher in {@code [from, to)}, at most {@code limit} per
+     * teacher. When a teacher's slots are cut short, {@link TeacherFreeSlots#getNextFrom()} is where the
+     * next page starts. Served from the in-memory schedule index when it covers the range, otherwise from a
+     * single range query over the teachers' scheduled appointments.
+     */
+    @Transactional(readOnly = true)
+    public List<TeacherFreeSlots> findFreeSlots(Collection<Long> teacherIds, LocalDateTime from, LocalDateTime to,
+                                                int durationMinutes, Integer limit) {
+        Set<Long> teachers = new LinkedHashSet<>(teacherIds);
+        if (teachers.isEmpty() || teachers.size() > MAX_FREE_SLOT_TEACHERS) {
+            throw new ResourceBadRequestException("availability.invalid_teachers", MAX_FREE_SLOT_TEACHERS);
+        }
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(MAX_FREE_SLOT_RANGE) > 0) {
+            throw new ResourceBadRequestException("availability.invalid_range", MAX_FREE_SLOT_RANGE.toDays());
+        }
+        if (durationMinutes < MIN_SLOT_MINUTES || durationMinutes > MAX_SERIES_DURATION_MINUTES) {
+            throw new ResourceBadRequestException("availability.invalid_duration", MIN_SLOT_MINUTES,
+                    MAX_SERIES_DURATION_MINUTES, durationMinutes);
+        }
+        int max = limit == null ? DEFAULT_FREE_SLOT_LIMIT : Math.max(1, Math.min(limit, MAX_FREE_SLOT_LIMIT));
+
+        Map<Long, List<TimeSlot>> busy = new LinkedHashMap<>();
+        if (scheduleIndex.covers(from)) {
+            teachers.forEach(id -> busy.put(id, scheduleIndex.busy(id, from, to)));
+        } else {
+            teachers.forEach(id -> busy.put(id, new ArrayList<>()));
+            for (Appointment appointment : repository.findScheduledInRange(teachers, from, to)) {
+                busy.get(appointment.getTeacherId())
+                        .add(new TimeSlot(appointment.getStartTime(), appointment.getEndTime()));
+            }
+        }
+
+        Duration length = Duration.ofMinutes(durationMinutes);
+        return busy.entrySet().stream()
+                .map(entry -> freeSlotPage(entry.getKey(),
+                        FreeSlotCalculator.freeSlots(entry.getValue(), from, to, length, max + 1), max))
+                .toList();
+    }
+
+    private List<TimeSlot> scheduledInRange(Long teacherId, LocalDateTime from, LocalDateTime to) {
+        return repository.findScheduledInRange(Set.of(teacherId), from, to).stream()
+                .map(appointment -> new TimeSlot(appointment.getStartTime(), appointment.getEndTime()))
+                .toList();
+    }
+
+    private static TeacherFreeSlots freeSlotPage(Long teacherId, List<TimeSlot> slots, int max) {
+        if (slots.size() <= max) {
+            return new TeacherFreeSlots(teacherId, slots, null);
+        }
+        List<TimeSlot> page = slots.subList(0, max);
+        return new TeacherFreeSlots(teacherId, new ArrayList<>(page), page.get(max - 1).getEnd());
+    }
+
+    private List<Appointment> insertAll(AppointmentSeriesRequest request, List<TimeSlot> slots,
+                                        List<TimeSlot> conflicts) {
+        if (slots.isEmpty()) {
+            return new ArrayList<>();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = slots.stream()
+                .map(slot -> new MapSqlParameterSource()
+                        .addValue("studentId", request.getStudentId())
+                        .addValue("teacherId", request.getTeacherId())
+                        .addValue("startTime", slot.getStart(), Types.TIMESTAMP)
+                        .addValue("endTime", slot.getEnd(), Types.TIMESTAMP)
+                        .addValue("status", Appointment.AppointmentStatus.SCHEDULED.name())
+                        .addValue("createdAt", now, Types.TIMESTAMP))
+                .toArray(SqlParameterSource[]::new);
+        KeyHolder keys = new GeneratedKeyHolder();
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, batch, keys, new String[]{"id"});
+
+        // Keys are only returned for inserted rows, in batch order
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<Appointment> booked = new ArrayList<>(slots.size());
+        int key = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            if (counts[i] == 0) {
+                conflicts.add(slots.get(i));
+                continue;
+            }
+            Appointment appointment = Appointment.builder()
+                    .studentId(request.getStudentId())
+                    .teacherId(request.getTeacherId())
+                    .startTime(slots.get(i).getStart())
+                    .endTime(slots.get(i).getEnd())
+                    .status(Appointment.AppointmentStatus.SCHEDULED)
+                    .build();
+            appointment.setId(((Number) generated.get(key++).get("id")).longValue());
+            appointment.setCreatedAt(now);
+            booked.add(appointment);
+        }
+        return booked;
+    }
+
+    /**
+     * Candidates overlapping any busy interval. Both lists are swept once in start order.
+     */
+    private static List<TimeSlot> overlapping(List<TimeSlot> candidates, List<TimeSlot> busy) {
+        List<TimeSlot> sorted = new ArrayList<>(busy);
+        sorted.sort(Comparator.comparing(TimeSlot::getStart));
+        List<TimeSlot> overlapping = new ArrayList<>();
+        int next = 0;
+        LocalDateTime busyUntil = null;
+        for (TimeSlot candidate : candidates) {
+            // Fold in every busy interval starting before the candidate ends
+            while (next < sorted.size() && sorted.get(next).getStart().isBefore(candidate.getEnd())) {
+                LocalDateTime end = sorted.get(next++).getEnd();
+                if (busyUntil == null || end.isAfter(busyUntil)) {
+                    busyUntil = end;
+                }
+            }
+            if (busyUntil != null && busyUntil.isAfter(candidate.getStart())) {
+                overlapping.add(candidate);
+            }
+        }
+        return overlapping;
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())
+                    && String.valueOf(sql.getMessage()).contains(NO_OVERLAP_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
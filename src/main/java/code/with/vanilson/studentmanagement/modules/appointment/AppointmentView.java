@@ -0,0 +1,20 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection returned by the appointment history query, limited to the columns its index covers.
+ */
+public interface AppointmentView {
+    Long getId();
+
+    Long getStudentId();
+
+    Long getTeacherId();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+    Appointment.AppointmentStatus getStatus();
+}
@@ -0,0 +1,52 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Turns a teacher's busy intervals into bookable slots of a fixed length. Intervals may overlap and
+ * arrive in any order; they are sorted and swept once, so the cost is O(n log n) in the bookings. The
+ * sweep stops as soon as {@code max} slots are found, so a short duration over a long range stays bounded.
+ */
+final class FreeSlotCalculator {
+
+    private FreeSlotCalculator() {
+    }
+
+    static List<TimeSlot> freeSlots(List<TimeSlot> busy, LocalDateTime from, LocalDateTime to, Duration length,
+                                    int max) {
+        List<TimeSlot> sorted = new ArrayList<>(busy);
+        sorted.sort(Comparator.comparing(TimeSlot::getStart));
+
+        List<TimeSlot> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (TimeSlot interval : sorted) {
+            if (interval.getStart().isAfter(cursor)) {
+                addSlots(slots, cursor, min(interval.getStart(), to), length, max);
+            }
+            if (interval.getEnd().isAfter(cursor)) {
+                cursor = interval.getEnd();
+            }
+            if (!cursor.isBefore(to) || slots.size() >= max) {
+                return slots;
+            }
+        }
+        addSlots(slots, cursor, to, length, max);
+        return slots;
+    }
+
+    private static void addSlots(List<TimeSlot> slots, LocalDateTime gapStart, LocalDateTime gapEnd, Duration length,
+                                 int max) {
+        for (LocalDateTime start = gapStart; slots.size() < max && !start.plus(length).isAfter(gapEnd);
+             start = start.plus(length)) {
+            slots.add(new TimeSlot(start, start.plus(length)));
+        }
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
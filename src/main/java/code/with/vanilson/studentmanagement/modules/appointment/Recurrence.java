@@ -0,0 +1,34 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weekly recurrence rules for appointment series, the {@code FREQ=WEEKLY;INTERVAL=n;UNTIL=...} subset of RRULE.
+ */
+public enum Recurrence {
+    WEEKLY(1),
+    BIWEEKLY(2);
+
+    private final int intervalWeeks;
+
+    Recurrence(int intervalWeeks) {
+        this.intervalWeeks = intervalWeeks;
+    }
+
+    /**
+     * Occurrences starting at {@code firstStart} and every interval after it whose start date is on or
+     * before {@code until}, stopping early once {@code limit} is exceeded so callers can reject the series.
+     */
+    List<TimeSlot> occurrences(LocalDateTime firstStart, Duration length, LocalDate until, int limit) {
+        List<TimeSlot> occurrences = new ArrayList<>();
+        for (LocalDateTime start = firstStart; !start.toLocalDate().isAfter(until) && occurrences.size() <= limit;
+             start = start.plusWeeks(intervalWeeks)) {
+            occurrences.add(new TimeSlot(start, start.plus(length)));
+        }
+        return occurrences;
+    }
+}
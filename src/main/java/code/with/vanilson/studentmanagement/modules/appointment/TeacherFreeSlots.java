@@ -0,0 +1,24 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeacherFreeSlots {
+    private Long teacherId;
+
+    @Builder.Default
+    private List<TimeSlot> slots = new ArrayList<>();
+
+    // Where to resume the search when the slot limit cut the result short, null when it is complete
+    private LocalDateTime nextFrom;
+}
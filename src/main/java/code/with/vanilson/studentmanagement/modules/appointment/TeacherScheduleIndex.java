@@ -0,0 +1,293 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process index of upcoming {@code SCHEDULED} appointments, one start-ordered map per teacher. It answers
+ * availability reads without a database round trip and screens conflict checks: a clear answer lets the
+ * booking go to the database, where the exclusion constraint on the appointment table is the final arbiter,
+ * and a conflict is only advisory, so callers confirm it against the database before rejecting a slot.
+ * <p>
+ * Local writes are applied after commit. Other nodes are told to reload the teacher through the
+ * {@value #CHANNEL} Redis channel, and the whole index is rebuilt periodically to bound drift should a
+ * message be lost. Teachers changed while a rebuild was loading its snapshot are reloaded on their own,
+ * since the snapshot may predate the change.
+ */
+@Component
+class TeacherScheduleIndex implements MessageListener {
+
+    static final String CHANNEL = "appointment:schedule";
+
+    private static final String RELOAD = "R";
+    private static final String SEPARATOR = "|";
+
+    private final Logger log = LoggerFactory.getLogger(TeacherScheduleIndex.class);
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AppointmentRepository repository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private volatile ConcurrentMap<Long, NavigableMap<LocalDateTime, TimeSlot>> schedules = new ConcurrentHashMap<>();
+    // Appointments ending after this instant are indexed; null until the first rebuild succeeds
+    private volatile LocalDateTime indexedSince;
+    // Sequence of the latest change per teacher, recorded before the change reads the live index
+    private final AtomicLong changes = new AtomicLong();
+    private final ConcurrentMap<Long, Long> changedAt = new ConcurrentHashMap<>();
+
+    TeacherScheduleIndex(AppointmentRepository repository, StringRedisTemplate redisTemplate,
+                         RedisMessageListenerContainer listenerContainer, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("appointment.index.size", this, TeacherScheduleIndex::size)
+                .description("Scheduled appointments held in the in-memory teacher schedule index")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${application.appointment.index.rebuild-interval-ms:600000}",
+            initialDelayString = "${application.appointment.index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long snapshotStart = changes.get();
+        LocalDateTime since = LocalDateTime.now();
+        List<Appointment> upcoming;
+        try {
+            upcoming = repository.findByStatusAndEndTimeAfter(Appointment.AppointmentStatus.SCHEDULED, since);
+        } catch (DataAccessException e) {
+            log.warn("Failed to rebuild teacher schedule index, conflict checks fall back to the database", e);
+            return;
+        }
+        ConcurrentMap<Long, NavigableMap<LocalDateTime, TimeSlot>> rebuilt = new ConcurrentHashMap<>();
+        for (Appointment appointment : upcoming) {
+            rebuilt.computeIfAbsent(appointment.getTeacherId(), id -> new TreeMap<>())
+                    .put(appointment.getStartTime(), slot(appointment));
+        }
+        schedules = rebuilt;
+        indexedSince = since;
+
+        // Checked after the swap: a change recorded later has read the rebuilt index and landed in it
+        List<Long> changed = new ArrayList<>();
+        changedAt.forEach((teacherId, change) -> {
+            if (change > snapshotStart) {
+                changed.add(teacherId);
+            }
+        });
+        changedAt.values().removeIf(change -> change <= snapshotStart);
+        changed.forEach(teacherId -> {
+            rebuilt.remove(teacherId);
+            reload(teacherId);
+        });
+        log.debug("Teacher schedule index rebuilt with {} appointments, {} teachers reloaded", upcoming.size(),
+                changed.size());
+    }
+
+    /**
+     * Whether the index can answer for {@code [from, ...)}: it has been built and holds every appointment
+     * that could still overlap {@code from}.
+     */
+    boolean covers(LocalDateTime from) {
+        LocalDateTime since = indexedSince;
+        return since != null && !from.isBefore(since);
+    }
+
+    /**
+     * {@code true} only when the index already holds an overlapping appointment; {@code false} means the
+     * database still has to decide.
+     */
+    boolean hasConflict(Long teacherId, LocalDateTime start, LocalDateTime end) {
+        if (!covers(start)) {
+            count("skipped");
+            return false;
+        }
+        NavigableMap<LocalDateTime, TimeSlot> schedule = schedules.get(teacherId);
+        boolean conflict = false;
+        if (schedule != null) {
+            synchronized (schedule) {
+                // Indexed intervals are disjoint, so the latest one starting before end is the only candidate
+                Map.Entry<LocalDateTime, TimeSlot> candidate = schedule.lowerEntry(end);
+                conflict = candidate != null && candidate.getValue().getEnd().isAfter(start);
+            }
+        }
+        count(conflict ? "conflict" : "clear");
+        return conflict;
+    }
+
+    /**
+     * Indexed appointments of the teacher overlapping {@code [from, to)}. Callers check {@link #covers} first.
+     */
+    List<TimeSlot> busy(Long teacherId, LocalDateTime from, LocalDateTime to) {
+        NavigableMap<LocalDateTime, TimeSlot> schedule = schedules.get(teacherId);
+        List<TimeSlot> busy = new ArrayList<>();
+        if (schedule == null) {
+            return busy;
+        }
+        synchronized (schedule) {
+            LocalDateTime first = schedule.floorKey(from);
+            for (TimeSlot slot : schedule.subMap(first != null ? first : from, true, to, false).values()) {
+                if (slot.getEnd().isAfter(from)) {
+                    busy.add(slot);
+                }
+            }
+        }
+        return busy;
+    }
+
+    void booked(Appointment appointment) {
+        booked(List.of(appointment));
+    }
+
+    void booked(List<Appointment> appointments) {
+        afterCommit(() -> {
+            appointments.forEach(appointment -> apply(appointment, true));
+            appointments.stream().map(Appointment::getTeacherId).distinct().forEach(this::publishReload);
+        });
+    }
+
+    void cancelled(Appointment appointment) {
+        afterCommit(() -> {
+            apply(appointment, false);
+            publishReload(appointment.getTeacherId());
+        });
+    }
+
+    /**
+     * The database rejected a booking the index let through, so the teacher's entry is stale. It is dropped
+     * rather than reloaded here, inside the failed transaction; the writer's reload broadcast or the next
+     * rebuild brings it back.
+     */
+    void stale(Long teacherId) {
+        changed(teacherId);
+        schedules.remove(teacherId);
+    }
+
+    void reload(Long teacherId) {
+        LocalDateTime since = indexedSince;
+        if (since == null) {
+            return;
+        }
+        changed(teacherId);
+        NavigableMap<LocalDateTime, TimeSlot> reloaded = new TreeMap<>();
+        try {
+            for (Appointment appointment : repository.findByTeacherIdAndStatusAndEndTimeAfter(teacherId,
+                    Appointment.AppointmentStatus.SCHEDULED, since)) {
+                reloaded.put(appointment.getStartTime(), slot(appointment));
+            }
+        } catch (DataAccessException e) {
+            // An empty entry can only miss conflicts, a stale one could reject a free slot
+            log.warn("Failed to reload schedule of teacher {}, dropping it from the index", teacherId, e);
+            reloaded.clear();
+        }
+        schedules.put(teacherId, reloaded);
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[1]) || !RELOAD.equals(parts[0])) {
+            return;
+        }
+        try {
+            reload(Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed schedule index message {}", parts[2]);
+        }
+    }
+
+    private void apply(Appointment appointment, boolean scheduled) {
+        if (!covers(appointment.getEndTime())) {
+            return;
+        }
+        changed(appointment.getTeacherId());
+        NavigableMap<LocalDateTime, TimeSlot> schedule =
+                schedules.computeIfAbsent(appointment.getTeacherId(), id -> new TreeMap<>());
+        synchronized (schedule) {
+            if (scheduled) {
+                schedule.put(appointment.getStartTime(), slot(appointment));
+            } else {
+                schedule.remove(appointment.getStartTime());
+            }
+        }
+    }
+
+    private void changed(Long teacherId) {
+        changedAt.put(teacherId, changes.incrementAndGet());
+    }
+
+    private void publishReload(Long teacherId) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, String.join(SEPARATOR, RELOAD, nodeId, String.valueOf(teacherId)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish schedule change for teacher {}", teacherId, e);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("appointment.index.checks", "result", result).increment();
+    }
+
+    private int size() {
+        int size = 0;
+        for (NavigableMap<LocalDateTime, TimeSlot> schedule : schedules.values()) {
+            size += schedule.size();
+        }
+        return size;
+    }
+
+    private static TimeSlot slot(Appointment appointment) {
+        return new TimeSlot(appointment.getStartTime(), appointment.getEndTime());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
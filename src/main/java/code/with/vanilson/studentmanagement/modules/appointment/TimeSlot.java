@@ -0,0 +1,17 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimeSlot {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
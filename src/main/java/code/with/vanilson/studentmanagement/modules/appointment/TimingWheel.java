@@ -0,0 +1,103 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Each level is a ring of {@code wheelSize} buckets of {@code tickMillis}; deadlines
+ * beyond a level's span go to a coarser overflow level created on demand and cascade down as time approaches
+ * them. Adding and expiring an entry is O(1) whatever the number of pending entries, which is what makes it
+ * cheaper than a priority queue or one scheduled task per entry.
+ * <p>
+ * Entries expire when the wheel reaches the start of their tick, so at most one tick early. Not thread-safe.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long intervalMillis;
+    private final List<List<Entry<T>>> buckets;
+    private long currentTime;
+    private int size;
+    private TimingWheel<T> overflow;
+
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.intervalMillis = tickMillis * wheelSize;
+        this.currentTime = startMillis - (startMillis % tickMillis);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules {@code item} for {@code deadlineMillis}. Returns {@code false} without keeping it when the
+     * deadline falls within the current tick, i.e. the item is already due.
+     */
+    boolean add(long deadlineMillis, T item) {
+        return add(new Entry<>(deadlineMillis, item));
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and returns everything that expired on the way, in deadline order
+     * per tick.
+     */
+    List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        for (Entry<T> entry : advanceEntries(nowMillis)) {
+            expired.add(entry.item());
+        }
+        return expired;
+    }
+
+    int size() {
+        return size + (overflow == null ? 0 : overflow.size());
+    }
+
+    private boolean add(Entry<T> entry) {
+        if (entry.deadline() < currentTime + tickMillis) {
+            return false;
+        }
+        if (entry.deadline() < currentTime + intervalMillis) {
+            buckets.get(bucketIndex(entry.deadline())).add(entry);
+            size++;
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(intervalMillis, wheelSize, currentTime);
+        }
+        return overflow.add(entry);
+    }
+
+    private List<Entry<T>> advanceEntries(long nowMillis) {
+        List<Entry<T>> expired = new ArrayList<>();
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+            if (overflow != null) {
+                // Entries whose coarse bucket started now fit into this level's span
+                for (Entry<T> entry : overflow.advanceEntries(currentTime)) {
+                    if (!add(entry)) {
+                        expired.add(entry);
+                    }
+                }
+            }
+            List<Entry<T>> bucket = buckets.get(bucketIndex(currentTime));
+            if (!bucket.isEmpty()) {
+                bucket.sort((a, b) -> Long.compare(a.deadline(), b.deadline()));
+                expired.addAll(bucket);
+                size -= bucket.size();
+                bucket.clear();
+            }
+        }
+        return expired;
+    }
+
+    private int bucketIndex(long timeMillis) {
+        return (int) ((timeMillis / tickMillis) % wheelSize);
+    }
+
+    private record Entry<T>(long deadline, T item) {
+    }
+}
@@ -0,0 +1,71 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open receivables by days past due as of {@code asOf}, in total, per department and per degree. Receivables of
+ * students without a degree are reported with a {@code null} degree and department.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AgingReport {
+    private LocalDate asOf;
+    private Buckets total;
+
+    @Builder.Default
+    private List<DepartmentAging> departments = new ArrayList<>();
+
+    @Builder.Default
+    private List<DegreeAging> degrees = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Buckets {
+        private BigDecimal current = BigDecimal.ZERO;
+        private BigDecimal days1To30 = BigDecimal.ZERO;
+        private BigDecimal days31To60 = BigDecimal.ZERO;
+        private BigDecimal days61To90 = BigDecimal.ZERO;
+        private BigDecimal over90 = BigDecimal.ZERO;
+
+        public BigDecimal getTotal() {
+            return current.add(days1To30).add(days31To60).add(days61To90).add(over90);
+        }
+
+        void add(Buckets other) {
+            current = current.add(other.current);
+            days1To30 = days1To30.add(other.days1To30);
+            days31To60 = days31To60.add(other.days31To60);
+            days61To90 = days61To90.add(other.days61To90);
+            over90 = over90.add(other.over90);
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DepartmentAging {
+        private String department;
+        private Buckets buckets;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DegreeAging {
+        private Long degreeId;
+        private String degreeName;
+        private String department;
+        private Buckets buckets;
+    }
+}
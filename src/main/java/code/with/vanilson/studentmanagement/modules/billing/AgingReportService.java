@@ -0,0 +1,67 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accounts-receivable aging read from {@code receivable_aging}, which holds one row per degree and due date
+ * rather than one per invoice; the invoices themselves are never scanned.
+ */
+@Service
+@RequiredArgsConstructor
+public class AgingReportService {
+
+    // Days past due are counted from the due date, so an invoice due today is current
+    private static final String AGING_SQL = "SELECT a.degree_id, d.name, d.department, "
+            + "COALESCE(SUM(a.outstanding) FILTER (WHERE a.due_date >= :today), 0) AS current_due, "
+            + "COALESCE(SUM(a.outstanding) FILTER (WHERE a.due_date < :today AND a.due_date >= :days30), 0) AS days_1_30, "
+            + "COALESCE(SUM(a.outstanding) FILTER (WHERE a.due_date < :days30 AND a.due_date >= :days60), 0) AS days_31_60, "
+            + "COALESCE(SUM(a.outstanding) FILTER (WHERE a.due_date < :days60 AND a.due_date >= :days90), 0) AS days_61_90, "
+            + "COALESCE(SUM(a.outstanding) FILTER (WHERE a.due_date < :days90), 0) AS over_90 "
+            + "FROM receivable_aging a LEFT JOIN degree d ON d.id = a.degree_id "
+            + "WHERE a.invoices > 0 "
+            + "GROUP BY a.degree_id, d.name, d.department "
+            + "ORDER BY d.department, d.name, a.degree_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public AgingReport getAgingReport() {
+        LocalDate today = LocalDate.now();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("today", today, Types.DATE)
+                .addValue("days30", today.minusDays(30), Types.DATE)
+                .addValue("days60", today.minusDays(60), Types.DATE)
+                .addValue("days90", today.minusDays(90), Types.DATE);
+        List<AgingReport.DegreeAging> degrees = jdbcTemplate.query(AGING_SQL, params, (rs, i) ->
+                new AgingReport.DegreeAging(rs.getObject("degree_id", Long.class), rs.getString("name"),
+                        rs.getString("department"), new AgingReport.Buckets(rs.getBigDecimal("current_due"),
+                        rs.getBigDecimal("days_1_30"), rs.getBigDecimal("days_31_60"),
+                        rs.getBigDecimal("days_61_90"), rs.getBigDecimal("over_90"))));
+
+        AgingReport.Buckets total = new AgingReport.Buckets();
+        Map<String, AgingReport.Buckets> departments = new LinkedHashMap<>();
+        for (AgingReport.DegreeAging degree : degrees) {
+            total.add(degree.getBuckets());
+            departments.computeIfAbsent(degree.getDepartment(), d -> new AgingReport.Buckets())
+                    .add(degree.getBuckets());
+        }
+        return AgingReport.builder()
+                .asOf(today)
+                .total(total)
+                .departments(departments.entrySet().stream()
+                        .map(e -> new AgingReport.DepartmentAging(e.getKey(), e.getValue()))
+                        .toList())
+                .degrees(degrees)
+                .build();
+    }
+}
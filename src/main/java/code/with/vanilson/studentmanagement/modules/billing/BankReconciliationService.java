@@ -0,0 +1,297 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Pays invoices from bank statement files. Lines are parsed from the memory-mapped file and reconciled
+ * {@value #CHUNK_SIZE} at a time: one query loads the referenced invoices into a map, the lines paying an open
+ * invoice in full are applied as batched updates, and every other line goes to the mismatch report. Each chunk
+ * is one transaction with its balance and receivable updates and payment events.
+ * <p>
+ * Payments are checked against the invoice version read with the chunk, like a single payment, so an invoice
+ * changed concurrently is reported rather than overwritten. Reconciling the same statement twice reports its
+ * invoices as not payable.
+ */
+@Service
+@RequiredArgsConstructor
+public class BankReconciliationService {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_MISMATCHES = 1000;
+
+    private static final String LOAD_SQL = "SELECT id, student_id, degree_id, amount, "
+            + "COALESCE(penalty_amount, 0) AS penalty, due_date, status, version FROM invoice WHERE id IN (:ids)";
+
+    private static final String PAY_SQL = "UPDATE invoice SET status = 'PAID', version = version + 1, "
+            + "updated_at = :now WHERE id = :id AND version = :version";
+
+    private static final String BALANCE_SQL = "INSERT INTO student_balance "
+            + "(student_id, outstanding, overdue, paid_to_date, penalties, updated_at) "
+            + "VALUES (:studentId, :outstanding, :overdue, :paid, 0, :now) "
+            + "ON CONFLICT (student_id) DO UPDATE SET "
+            + "outstanding = student_balance.outstanding + EXCLUDED.outstanding, "
+            + "overdue = student_balance.overdue + EXCLUDED.overdue, "
+            + "paid_to_date = student_balance.paid_to_date + EXCLUDED.paid_to_date, "
+            + "updated_at = EXCLUDED.updated_at";
+
+    private static final String AGING_SQL = "INSERT INTO receivable_aging "
+            + "(degree_id, due_date, outstanding, invoices, updated_at) "
+            + "VALUES (:degreeId, :dueDate, :outstanding, :invoices, :now) "
+            + "ON CONFLICT ((COALESCE(degree_id, 0)), due_date) DO UPDATE SET "
+            + "outstanding = receivable_aging.outstanding + EXCLUDED.outstanding, "
+            + "invoices = receivable_aging.invoices + EXCLUDED.invoices, "
+            + "updated_at = EXCLUDED.updated_at";
+
+    private final Logger log = LoggerFactory.getLogger(BankReconciliationService.class);
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outbox;
+
+    public enum StatementFormat {
+        // value_date,reference,amount[,...] with an optional header line
+        CSV,
+        // Fixed-width lines: value date in columns 1-8, reference in 9-28, amount in 29-43
+        FIXED;
+
+        public static StatementFormat from(String value) {
+            try {
+                return StatementFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new ResourceBadRequestException("billing.invalid_statement_format", value);
+            }
+        }
+    }
+
+    record StatementLine(long lineNo, long invoiceId, long amountCents) {
+    }
+
+    private record OpenInvoice(long id, Long studentId, Long degreeId, LocalDate dueDate, long dueCents,
+                               BigDecimal due, Invoice.InvoiceStatus status, long version) {
+    }
+
+    private record AgingKey(Long degreeId, LocalDate dueDate) {
+    }
+
+    public ReconciliationResult reconcile(Path statement, StatementFormat format) {
+        Run run = new Run();
+        try {
+            new StatementParser(format, run).parse(statement);
+        } catch (IOException e) {
+            throw new ResourceBadRequestException("billing.statement_unreadable", e.getMessage());
+        }
+        run.flush();
+        log.info("Reconciled statement: {} lines, {} paid, {} mismatched",
+                run.result.getLines(), run.result.getPaid(), run.result.getMismatched());
+        return run.result;
+    }
+
+    private final class Run implements StatementParser.LineHandler {
+
+        private final ReconciliationResult result = new ReconciliationResult();
+        private final List<StatementLine> chunk = new ArrayList<>(CHUNK_SIZE);
+        // Invoices paid earlier in this statement, to report a repeated line as a duplicate
+        private final Set<Long> paidInvoices = new HashSet<>();
+
+        @Override
+        public void line(long lineNo, long invoiceId, long amountCents) {
+            result.setLines(result.getLines() + 1);
+            chunk.add(new StatementLine(lineNo, invoiceId, amountCents));
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void invalid(long lineNo, String text) {
+            result.setLines(result.getLines() + 1);
+            mismatch(lineNo, null, null, ReconciliationResult.Reason.INVALID_LINE, text);
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<StatementLine> lines = new ArrayList<>(chunk);
+            chunk.clear();
+            List<ReconciliationResult.Mismatch> chunkMismatches = new ArrayList<>();
+            List<OpenInvoice> paid = transactionTemplate.execute(status -> reconcileChunk(lines, chunkMismatches));
+            chunkMismatches.forEach(m -> mismatch(m.getLine(), m.getInvoiceId(), m.getAmount(), m.getReason(),
+                    m.getDetail()));
+            if (paid != null) {
+                for (OpenInvoice invoice : paid) {
+                    paidInvoices.add(invoice.id());
+                    result.setPaidAmount(result.getPaidAmount().add(invoice.due()));
+                }
+                result.setPaid(result.getPaid() + paid.size());
+            }
+        }
+
+        private List<OpenInvoice> reconcileChunk(List<StatementLine> lines, List<ReconciliationResult.Mismatch> mismatches) {
+            Map<Long, OpenInvoice> invoices = load(lines);
+            List<OpenInvoice> matched = new ArrayList<>();
+            Map<Long, StatementLine> matchedLines = new HashMap<>();
+            for (StatementLine line : lines) {
+                OpenInvoice invoice = invoices.get(line.invoiceId());
+                ReconciliationResult.Reason reason = null;
+                if (invoice == null) {
+                    reason = ReconciliationResult.Reason.UNKNOWN_INVOICE;
+                } else if (paidInvoices.contains(invoice.id()) || matchedLines.containsKey(invoice.id())) {
+                    reason = ReconciliationResult.Reason.DUPLICATE;
+                } else if (invoice.status() != Invoice.InvoiceStatus.PENDING
+                        && invoice.status() != Invoice.InvoiceStatus.OVERDUE) {
+                    reason = ReconciliationResult.Reason.NOT_PAYABLE;
+                } else if (invoice.dueCents() != line.amountCents()) {
+                    reason = ReconciliationResult.Reason.AMOUNT_MISMATCH;
+                }
+                if (reason != null) {
+                    mismatches.add(mismatchOf(line, reason, reason == ReconciliationResult.Reason.AMOUNT_MISMATCH
+                            ? "Invoice due " + invoice.due() : null));
+                } else {
+                    matched.add(invoice);
+                    matchedLines.put(invoice.id(), line);
+                }
+            }
+            if (matched.isEmpty()) {
+                return List.of();
+            }
+            // Updated in id order so concurrent writers lock the invoices in the same order
+            matched.sort(Comparator.comparingLong(OpenInvoice::id));
+            List<OpenInvoice> paid = pay(matched, mismatches, matchedLines);
+            applyTotals(paid);
+            outbox.publishAll(paid.stream()
+                    .map(invoice -> BillingEvent.invoicePaid(invoice.id(), invoice.studentId(), invoice.due()))
+                    .toList());
+            return paid;
+        }
+
+        private Map<Long, OpenInvoice> load(List<StatementLine> lines) {
+            Set<Long> ids = new HashSet<>();
+            lines.forEach(line -> ids.add(line.invoiceId()));
+            Map<Long, OpenInvoice> invoices = new HashMap<>(ids.size() * 2);
+            jdbcTemplate.query(LOAD_SQL, new MapSqlParameterSource("ids", ids), rs -> {
+                BigDecimal due = rs.getBigDecimal("amount").add(rs.getBigDecimal("penalty"));
+                long studentId = rs.getLong("student_id");
+                Long student = rs.wasNull() ? null : studentId;
+                long degreeId = rs.getLong("degree_id");
+                Long degree = rs.wasNull() ? null : degreeId;
+                invoices.put(rs.getLong("id"), new OpenInvoice(rs.getLong("id"), student, degree,
+                        rs.getDate("due_date").toLocalDate(), toCents(due), due,
+                        Invoice.InvoiceStatus.valueOf(rs.getString("status")), rs.getLong("version")));
+            });
+            return invoices;
+        }
+
+        private List<OpenInvoice> pay(List<OpenInvoice> matched, List<ReconciliationResult.Mismatch> mismatches,
+                                      Map<Long, StatementLine> matchedLines) {
+            LocalDateTime now = LocalDateTime.now();
+            SqlParameterSource[] batch = matched.stream()
+                    .map(invoice -> new MapSqlParameterSource()
+                            .addValue("id", invoice.id())
+                            .addValue("version", invoice.version())
+                            .addValue("now", now, Types.TIMESTAMP))
+                    .toArray(SqlParameterSource[]::new);
+            int[] updated = jdbcTemplate.batchUpdate(PAY_SQL, batch);
+            List<OpenInvoice> paid = new ArrayList<>(matched.size());
+            for (int i = 0; i < matched.size(); i++) {
+                OpenInvoice invoice = matched.get(i);
+                if (updated[i] == 0) {
+                    mismatches.add(mismatchOf(matchedLines.get(invoice.id()),
+                            ReconciliationResult.Reason.CONCURRENT_UPDATE, null));
+                } else {
+                    paid.add(invoice);
+                }
+            }
+            return paid;
+        }
+
+        /**
+         * Applies the payments to the student balances and receivables, one batched upsert per table in key
+         * order so concurrent chunks lock the rows in the same order.
+         */
+        private void applyTotals(List<OpenInvoice> paid) {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, BigDecimal[]> balances = new TreeMap<>();
+            Map<AgingKey, BigDecimal> aging = new TreeMap<>(Comparator
+                    .comparing(AgingKey::degreeId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(AgingKey::dueDate));
+            Map<AgingKey, Integer> agingCounts = new HashMap<>();
+            for (OpenInvoice invoice : paid) {
+                if (invoice.studentId() != null) {
+                    BigDecimal[] totals = balances.computeIfAbsent(invoice.studentId(),
+                            id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                    totals[0] = totals[0].add(invoice.due());
+                    if (invoice.status() == Invoice.InvoiceStatus.OVERDUE) {
+                        totals[1] = totals[1].add(invoice.due());
+                    }
+                }
+                AgingKey key = new AgingKey(invoice.degreeId(), invoice.dueDate());
+                aging.merge(key, invoice.due(), BigDecimal::add);
+                agingCounts.merge(key, 1, Integer::sum);
+            }
+            if (!balances.isEmpty()) {
+                jdbcTemplate.batchUpdate(BALANCE_SQL, balances.entrySet().stream()
+                        .map(e -> new MapSqlParameterSource()
+                                .addValue("studentId", e.getKey())
+                                .addValue("outstanding", e.getValue()[0].negate())
+                                .addValue("overdue", e.getValue()[1].negate())
+                                .addValue("paid", e.getValue()[0])
+                                .addValue("now", now, Types.TIMESTAMP))
+                        .toArray(SqlParameterSource[]::new));
+            }
+            if (!aging.isEmpty()) {
+                jdbcTemplate.batchUpdate(AGING_SQL, aging.entrySet().stream()
+                        .map(e -> new MapSqlParameterSource()
+                                .addValue("degreeId", e.getKey().degreeId(), Types.BIGINT)
+                                .addValue("dueDate", e.getKey().dueDate(), Types.DATE)
+                                .addValue("outstanding", e.getValue().negate())
+                                .addValue("invoices", -agingCounts.get(e.getKey()))
+                                .addValue("now", now, Types.TIMESTAMP))
+                        .toArray(SqlParameterSource[]::new));
+            }
+        }
+
+        private void mismatch(long lineNo, Long invoiceId, BigDecimal amount, ReconciliationResult.Reason reason,
+                              String detail) {
+            result.setMismatched(result.getMismatched() + 1);
+            if (result.getMismatches().size() < MAX_REPORTED_MISMATCHES) {
+                result.getMismatches().add(new ReconciliationResult.Mismatch(lineNo, invoiceId, amount, reason, detail));
+            }
+        }
+
+        private ReconciliationResult.Mismatch mismatchOf(StatementLine line, ReconciliationResult.Reason reason,
+                                                         String detail) {
+            return new ReconciliationResult.Mismatch(line.lineNo(), line.invoiceId(),
+                    BigDecimal.valueOf(line.amountCents(), 2), reason, detail);
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -1,12 +1,24 @@
 package code.with.vanilson.studentmanagement.modules.billing;
 
 import code.with.vanilson.studentmanagement.common.dto.ApiResponse;
+import code.with.vanilson.studentmanagement.common.utils.ExportFormat;
+import code.with.vanilson.studentmanagement.common.utils.IdempotentRequests;
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -17,6 +29,11 @@ import java.util.List;
 public class BillingController {
 
     private final BillingService service;
+    private final InvoiceRunService invoiceRunService;
+    private final AgingReportService agingReportService;
+    private final InvoiceExportService exportService;
+    private final BankReconciliationService reconciliationService;
+    private final IdempotentRequests idempotentRequests;
 
     @PostMapping("/invoices")
     @PreAuthorize("hasRole('ADMIN')")
@@ -33,11 +50,15 @@ public class BillingController {
     }
 
     @PostMapping("/invoices/{id}/pay")
-    @io.swagger.v3.oas.annotations.Operation(summary = "Pay invoice", description = "Marks an invoice as paid.")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Pay invoice", description = "Marks an invoice as paid. Retries with the same Idempotency-Key get the first successful response replayed.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Invoice paid successfully")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Invoice not found")
-    public ResponseEntity<ApiResponse<Invoice>> payInvoice(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.success(service.payInvoice(id), "Invoice paid successfully"));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed")
+    public ResponseEntity<ApiResponse<Invoice>> payInvoice(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return idempotentRequests.execute("invoice-pay:" + id, idempotencyKey, new TypeReference<>() {
+        }, () -> ResponseEntity.ok(ApiResponse.success(service.payInvoice(id), "Invoice paid successfully")));
     }
 
     @GetMapping("/students/{studentId}/invoices")
@@ -47,4 +68,95 @@ public class BillingController {
         return ResponseEntity
                 .ok(ApiResponse.success(service.getStudentInvoices(studentId), "Invoices retrieved successfully"));
     }
+
+    @GetMapping("/students/{studentId}/balance")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Get student balance", description = "Retrieves the student's outstanding, overdue, paid-to-date and penalty totals.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Balance retrieved successfully")
+    public ResponseEntity<ApiResponse<StudentBalance>> getStudentBalance(@PathVariable Long studentId) {
+        return ResponseEntity
+                .ok(ApiResponse.success(service.getStudentBalance(studentId), "Balance retrieved successfully"));
+    }
+
+    @PostMapping("/invoice-runs")
+    @PreAuthorize("hasRole('ADMIN')")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Start bulk invoicing", description = "Invoices every student of a degree for a term in the background. Starting the same degree and term again returns the existing run and resumes it if it stalled. Requires ADMIN role.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Invoice run started")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Degree not found")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "A run for the degree and term exists with a different amount or due date")
+    public ResponseEntity<ApiResponse<InvoiceRun>> startInvoiceRun(
+            @jakarta.validation.Valid @RequestBody InvoiceRunRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(invoiceRunService.start(request), "Invoice run started"));
+    }
+
+    @GetMapping("/invoice-runs/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Get invoice run", description = "Reports the status and progress of a bulk invoice run. Requires ADMIN role.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Invoice run retrieved successfully")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Invoice run not found")
+    public ResponseEntity<ApiResponse<InvoiceRun>> getInvoiceRun(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(invoiceRunService.getRun(id), "Invoice run retrieved successfully"));
+    }
+
+    @GetMapping("/reports/aging")
+    @PreAuthorize("hasRole('ADMIN')")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Get receivables aging", description = "Reports open receivables by days past due (current, 1-30, 31-60, 61-90, 90+) in total, per department and per degree. Requires ADMIN role.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Aging report retrieved successfully")
+    public ResponseEntity<ApiResponse<AgingReport>> getAgingReport() {
+        return ResponseEntity.ok(ApiResponse.success(agingReportService.getAgingReport(), "Aging report retrieved successfully"));
+    }
+
+    @GetMapping("/invoices/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Export invoices", description = "Streams all matching invoices as NDJSON or CSV, gzip-compressed when the client accepts it. Requires ADMIN role.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Export stream started")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported export format or invoice status")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden - Requires ADMIN role")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false) Long degreeId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        InvoiceFilter filter = InvoiceFilter.builder()
+                .status(status == null ? null : Invoice.InvoiceStatus.from(status))
+                .dueFrom(dueFrom)
+                .dueTo(dueTo)
+                .degreeId(degreeId)
+                .build();
+        boolean gzip = ExportFormat.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> exportService.export(filter, exportFormat, gzip, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"invoices." + exportFormat.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @PostMapping(value = "/reconciliations", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Reconcile bank statement", description = "Pays the invoices referenced by an uploaded csv or fixed-width bank statement and reports the lines that could not be matched. Requires ADMIN role.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Statement reconciled")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported or unreadable statement")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden - Requires ADMIN role")
+    public ResponseEntity<ApiResponse<ReconciliationResult>> reconcileStatement(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "csv") String format) throws IOException {
+        BankReconciliationService.StatementFormat statementFormat = BankReconciliationService.StatementFormat.from(format);
+        // Mapped from disk rather than read into memory
+        Path statement = Files.createTempFile("statement-", ".txt");
+        try {
+            file.transferTo(statement);
+            return ResponseEntity.ok(ApiResponse.success(reconciliationService.reconcile(statement, statementFormat),
+                    "Statement reconciled"));
+        } finally {
+            Files.deleteIfExists(statement);
+        }
+    }
 }
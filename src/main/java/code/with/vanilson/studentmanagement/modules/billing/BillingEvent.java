@@ -0,0 +1,44 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import code.with.vanilson.studentmanagement.modules.outbox.DomainEvent;
+
+import java.math.BigDecimal;
+
+/**
+ * Payload of the {@value #TOPIC} topic. {@code amount} is the invoiced amount for a created invoice, the amount
+ * settled for a paid one and the total penalty for an applied penalty.
+ */
+public record BillingEvent(Type type, Long invoiceId, Long studentId, BigDecimal amount) implements DomainEvent {
+
+    public static final String TOPIC = "billing-events";
+
+    public enum Type {
+        INVOICE_CREATED, INVOICE_PAID, PENALTY_APPLIED
+    }
+
+    public static BillingEvent invoiceCreated(Long invoiceId, Long studentId, BigDecimal amount) {
+        return new BillingEvent(Type.INVOICE_CREATED, invoiceId, studentId, amount);
+    }
+
+    public static BillingEvent invoicePaid(Long invoiceId, Long studentId, BigDecimal amount) {
+        return new BillingEvent(Type.INVOICE_PAID, invoiceId, studentId, amount);
+    }
+
+    public static BillingEvent penaltyApplied(Long invoiceId, Long studentId, BigDecimal penalty) {
+        return new BillingEvent(Type.PENALTY_APPLIED, invoiceId, studentId, penalty);
+    }
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String describe() {
+        return switch (type) {
+            case INVOICE_CREATED -> "Invoice created for student: " + studentId + ", Amount: " + amount;
+            case INVOICE_PAID -> "Invoice paid: " + invoiceId;
+            case PENALTY_APPLIED -> "Penalty applied to invoice: " + invoiceId;
+        };
+    }
+}
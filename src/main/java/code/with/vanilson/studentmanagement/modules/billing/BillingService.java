@@ -2,46 +2,123 @@ package code.with.vanilson.studentmanagement.modules.billing;
 
 import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.PartitionedJobRunner;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
+import code.with.vanilson.studentmanagement.modules.student.StudentRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Types;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class BillingService {
 
+    static final String LATE_PENALTIES_JOB = "late-penalties";
+    static final int PENALTY_PARTITIONS = 8;
+    static final int PENALTY_CHUNK_SIZE = 1000;
+    static final int MAX_PAYMENT_ATTEMPTS = 3;
+    static final String CONCURRENT_PAYMENT_MESSAGE = "Invoice was modified concurrently, please retry.";
+
+    // Penalty: +10% of the amount per full week past the due date, fixed when the invoice becomes overdue.
+    // Each chunk skips invoices locked by a concurrent payment; a partition left with only such invoices is not
+    // completed, so the next trigger picks them up. Balances and receivables are upserted in key order so
+    // concurrent chunks lock them in the same order.
+    private static final String MARK_OVERDUE_SQL = "WITH due AS ("
+            + "SELECT id, COALESCE(penalty_amount, 0) AS old_penalty FROM invoice "
+            + "WHERE status = 'PENDING' AND due_date < :today AND mod(id, :partitions) = :partition "
+            + "ORDER BY due_date, id LIMIT :limit FOR UPDATE SKIP LOCKED), "
+            + "overdue AS (UPDATE invoice i SET status = 'OVERDUE', "
+            + "penalty_amount = CASE WHEN :today - i.due_date >= 7 "
+            + "THEN i.amount * 0.10 * ((:today - i.due_date) / 7) ELSE i.penalty_amount END, "
+            + "updated_at = :now, version = i.version + 1 "
+            + "FROM due WHERE i.id = due.id "
+            + "RETURNING i.id, i.student_id, i.degree_id, i.due_date, i.amount, "
+            + "COALESCE(i.penalty_amount, 0) AS penalty, due.old_penalty), "
+            + "balance AS (INSERT INTO student_balance "
+            + "(student_id, outstanding, overdue, paid_to_date, penalties, updated_at) "
+            + "SELECT student_id, SUM(penalty - old_penalty), SUM(amount + penalty), 0, SUM(penalty - old_penalty), :now "
+            + "FROM overdue WHERE student_id IS NOT NULL GROUP BY student_id ORDER BY student_id "
+            + "ON CONFLICT (student_id) DO UPDATE SET "
+            + "outstanding = student_balance.outstanding + EXCLUDED.outstanding, "
+            + "overdue = student_balance.overdue + EXCLUDED.overdue, "
+            + "penalties = student_balance.penalties + EXCLUDED.penalties, "
+            + "updated_at = EXCLUDED.updated_at), "
+            + "aging AS (INSERT INTO receivable_aging (degree_id, due_date, outstanding, invoices, updated_at) "
+            + "SELECT degree_id, due_date, SUM(penalty - old_penalty), 0, :now FROM overdue "
+            + "GROUP BY degree_id, due_date HAVING SUM(penalty - old_penalty) <> 0 ORDER BY degree_id, due_date "
+            + "ON CONFLICT ((COALESCE(degree_id, 0)), due_date) DO UPDATE SET "
+            + "outstanding = receivable_aging.outstanding + EXCLUDED.outstanding, "
+            + "updated_at = EXCLUDED.updated_at) "
+            + "SELECT id, student_id, penalty FROM overdue";
+
+    // Reads without locking, so it also sees the invoices the chunk skipped
+    private static final String PENDING_OVERDUE_SQL = "SELECT EXISTS (SELECT 1 FROM invoice "
+            + "WHERE status = 'PENDING' AND due_date < :today AND mod(id, :partitions) = :partition)";
+
+    private final Logger log = LoggerFactory.getLogger(BillingService.class);
     private final InvoiceRepository invoiceRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final StudentBalanceRepository balanceRepository;
+    private final ReceivableAgingRepository agingRepository;
+    private final StudentRepository studentRepository;
+    private final OutboxService outbox;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PartitionedJobRunner jobRunner;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public Invoice createInvoice(Long studentId, BigDecimal amount, LocalDate dueDate) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new ResourceBadRequestException("billing.invalid_amount", amount);
         }
+        Long degreeId = studentId == null ? null : studentRepository.findDegreeIdById(studentId).orElse(null);
         Invoice invoice = Invoice.builder()
                 .studentId(studentId)
+                .degreeId(degreeId)
                 .amount(amount)
                 .dueDate(dueDate)
                 .status(Invoice.InvoiceStatus.PENDING)
                 .build();
 
         Invoice savedInvoice = invoiceRepository.save(invoice);
+        updateBalance(studentId, amount, BigDecimal.ZERO, BigDecimal.ZERO);
+        agingRepository.addToAging(degreeId, dueDate, amount, 1);
 
-        // Publish event
-        kafkaTemplate.send("billing-events", "Invoice created for student: " + studentId + ", Amount: " + amount);
+        outbox.publish(BillingEvent.invoiceCreated(savedInvoice.getId(), studentId, amount));
 
         return savedInvoice;
     }
 
-    @Transactional
+    /**
+     * Pays the invoice without holding a row lock: the version check rejects the update if the invoice changed
+     * since it was read, e.g. a concurrent payment or the penalty job, and the payment is retried on fresh
+     * state, up to {@value #MAX_PAYMENT_ATTEMPTS} attempts.
+     */
     public Invoice payInvoice(Long invoiceId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> pay(invoiceId));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_PAYMENT_ATTEMPTS) {
+                    throw new IllegalStateException(CONCURRENT_PAYMENT_MESSAGE, e);
+                }
+                log.debug("Invoice {} changed during payment, retrying (attempt {})", invoiceId, attempt);
+            }
+        }
+    }
+
+    private Invoice pay(Long invoiceId) {
         Invoice invoice = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new ResourceNotFoundException("billing.invoice_not_found", invoiceId));
 
@@ -49,40 +126,76 @@ public class BillingService {
             throw new ResourceBadRequestException("billing.invoice_already_paid", invoiceId);
         }
 
+        Invoice.InvoiceStatus previousStatus = invoice.getStatus();
         invoice.setStatus(Invoice.InvoiceStatus.PAID);
         Invoice updatedInvoice = invoiceRepository.save(invoice);
 
-        // Publish event
-        kafkaTemplate.send("billing-events", "Invoice paid: " + invoiceId);
+        BigDecimal due = invoice.getAmount().add(
+                invoice.getPenaltyAmount() == null ? BigDecimal.ZERO : invoice.getPenaltyAmount());
+        switch (previousStatus) {
+            case PENDING -> updateBalance(invoice.getStudentId(), due.negate(), BigDecimal.ZERO, due);
+            case OVERDUE -> updateBalance(invoice.getStudentId(), due.negate(), due.negate(), due);
+            default -> updateBalance(invoice.getStudentId(), BigDecimal.ZERO, BigDecimal.ZERO, due);
+        }
+        if (previousStatus == Invoice.InvoiceStatus.PENDING || previousStatus == Invoice.InvoiceStatus.OVERDUE) {
+            agingRepository.addToAging(invoice.getDegreeId(), invoice.getDueDate(), due.negate(), -1);
+        }
+
+        outbox.publish(BillingEvent.invoicePaid(invoiceId, invoice.getStudentId(), due));
 
         return updatedInvoice;
     }
 
+    @Transactional(readOnly = true)
     public List<Invoice> getStudentInvoices(Long studentId) {
         return invoiceRepository.findByStudentId(studentId);
     }
 
-    @Scheduled(cron = "0 0 0 * * *") // Run every day at midnight
-    @Transactional
-    public void applyLatePenalties() {
-        List<Invoice> allInvoices = invoiceRepository.findAll();
-        LocalDate today = LocalDate.now();
+    /**
+     * Single-row read of the student's running totals; a student without invoices owes nothing.
+     */
+    @Transactional(readOnly = true)
+    public StudentBalance getStudentBalance(Long studentId) {
+        return balanceRepository.findById(studentId).orElseGet(() -> StudentBalance.empty(studentId));
+    }
 
-        for (Invoice invoice : allInvoices) {
-            if (invoice.getStatus() == Invoice.InvoiceStatus.PENDING && today.isAfter(invoice.getDueDate())) {
-                invoice.setStatus(Invoice.InvoiceStatus.OVERDUE);
+    /**
+     * Marks pending invoices past their due date as overdue and applies the late penalty in the database.
+     * The invoices are split by id into {@value #PENALTY_PARTITIONS} partitions that the nodes claim for the
+     * day, each processed {@value #PENALTY_CHUNK_SIZE} at a time in its own transaction together with its
+     * events, so row locks are held only for one chunk and a crashed run resumes where it stopped.
+     */
+    public long applyLatePenalties() {
+        LocalDate today = LocalDate.now();
+        long total = jobRunner.run(LATE_PENALTIES_JOB, today.toString(), PENALTY_PARTITIONS,
+                (partition, partitions) -> applyLatePenaltiesChunk(today, partition, partitions));
+        if (total > 0) {
+            log.info("Applied late penalties to {} invoices", total);
+        }
+        return total;
+    }
 
-                // Penalty: +10% per week after the 10th (or after due date)
-                long weeksLate = ChronoUnit.WEEKS.between(invoice.getDueDate(), today);
-                if (weeksLate > 0) {
-                    BigDecimal penalty = invoice.getAmount().multiply(new BigDecimal("0.10"))
-                            .multiply(new BigDecimal(weeksLate));
-                    invoice.setPenaltyAmount(penalty);
-                }
+    private int applyLatePenaltiesChunk(LocalDate today, int partition, int partitions) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("today", today, Types.DATE)
+                .addValue("now", LocalDateTime.now(), Types.TIMESTAMP)
+                .addValue("partition", partition)
+                .addValue("partitions", partitions)
+                .addValue("limit", PENALTY_CHUNK_SIZE);
+        List<BillingEvent> events = jdbcTemplate.query(MARK_OVERDUE_SQL, params,
+                (rs, i) -> BillingEvent.penaltyApplied(rs.getLong("id"), rs.getObject("student_id", Long.class),
+                        rs.getBigDecimal("penalty")));
+        if (events.isEmpty()) {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(PENDING_OVERDUE_SQL, params, Boolean.class))
+                    ? PartitionedJobRunner.Chunk.LOCKED : 0;
+        }
+        outbox.publishAll(events);
+        return events.size();
+    }
 
-                invoiceRepository.save(invoice);
-                kafkaTemplate.send("billing-events", "Penalty applied to invoice: " + invoice.getId());
-            }
+    private void updateBalance(Long studentId, BigDecimal outstanding, BigDecimal overdue, BigDecimal paid) {
+        if (studentId != null) {
+            balanceRepository.addToBalance(studentId, outstanding, overdue, paid, BigDecimal.ZERO);
         }
     }
 }
@@ -1,10 +1,12 @@
 package code.with.vanilson.studentmanagement.modules.billing;
 
 import code.with.vanilson.studentmanagement.common.BaseEntity;
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +14,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Data
 @Builder
@@ -27,13 +30,31 @@ public class Invoice extends BaseEntity {
     private LocalDate dueDate;
     private BigDecimal penaltyAmount;
 
+    // The student's degree when invoiced; receivables stay counted under it
+    private Long degreeId;
+
+    // Set for invoices created by a bulk invoice run
+    private Long runId;
+
     @Enumerated(EnumType.STRING)
     private InvoiceStatus status;
 
+    // Bumped by every update, including the set-based penalty job, so a payment never overwrites a change
+    @Version
+    private Long version;
+
     public enum InvoiceStatus {
         PENDING,
         PAID,
         OVERDUE,
-        CANCELLED
+        CANCELLED;
+
+        public static InvoiceStatus from(String value) {
+            try {
+                return InvoiceStatus.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new ResourceBadRequestException("billing.invalid_status", value);
+            }
+        }
     }
 }
@@ -0,0 +1,177 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import code.with.vanilson.studentmanagement.common.utils.ExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Invoice export for finance reconciliation. Rows go from a forward-only cursor straight to the response, one
+ * fetch of {@value #FETCH_SIZE} rows at a time, so memory use does not grow with the number of invoices.
+ */
+@Service
+public class InvoiceExportService {
+
+    static final int FETCH_SIZE = 1000;
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private static final String[] COLUMNS = {
+            "id", "student_id", "degree_id", "amount", "penalty_amount", "due_date", "status", "run_id",
+            "created_at", "updated_at"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public InvoiceExportService(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Streams every invoice matching the filter to {@code out} in id order, gzip-compressed if {@code gzip}.
+     * Postgres only opens a server-side cursor when auto-commit is off, hence the read-only transaction around
+     * the query.
+     */
+    public void export(InvoiceFilter filter, ExportFormat format, boolean gzip, OutputStream out) {
+        List<Object> args = new ArrayList<>();
+        String sql = buildQuery(filter, args);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : null;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(
+                        compressed != null ? compressed : out, StandardCharsets.UTF_8));
+                if (format == ExportFormat.CSV) {
+                    writeCsv(sql, args, writer);
+                } else {
+                    writeNdjson(sql, args, writer);
+                }
+                writer.flush();
+                if (compressed != null) {
+                    compressed.finish();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeCsv(String sql, List<Object> args, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\n");
+        query(sql, args, rs -> {
+            try {
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    ExportFormat.writeCsvValue(writer, ExportFormat.columnText(rs, i + 1));
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(String sql, List<Object> args, Writer writer) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        query(sql, args, rs -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong(1));
+                writeLongField(generator, "studentId", rs, 2);
+                writeLongField(generator, "degreeId", rs, 3);
+                generator.writeNumberField("amount", rs.getBigDecimal(4));
+                generator.writeNumberField("penaltyAmount", rs.getBigDecimal(5));
+                generator.writeStringField("dueDate", ExportFormat.columnText(rs, 6));
+                generator.writeStringField("status", rs.getString(7));
+                writeLongField(generator, "runId", rs, 8);
+                generator.writeStringField("createdAt", ExportFormat.columnText(rs, 9));
+                generator.writeStringField("updatedAt", ExportFormat.columnText(rs, 10));
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
+        writer.write('\n');
+    }
+
+    private static void writeLongField(JsonGenerator generator, String name, ResultSet rs, int index)
+            throws IOException, SQLException {
+        generator.writeFieldName(name);
+        long value = rs.getLong(index);
+        if (rs.wasNull()) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    private void query(String sql, List<Object> args, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    // Ordered by id so the cursor walks the primary key and the first rows go out without a sort
+    private String buildQuery(InvoiceFilter filter, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(String.join(", ", COLUMNS))
+                .append(" FROM invoice WHERE 1 = 1");
+        if (filter != null) {
+            if (filter.getStatus() != null) {
+                sql.append(" AND status = ?");
+                args.add(filter.getStatus().name());
+            }
+            if (filter.getDueFrom() != null) {
+                sql.append(" AND due_date >= ?");
+                args.add(Date.valueOf(filter.getDueFrom()));
+            }
+            if (filter.getDueTo() != null) {
+                sql.append(" AND due_date <= ?");
+                args.add(Date.valueOf(filter.getDueTo()));
+            }
+            if (filter.getDegreeId() != null) {
+                sql.append(" AND degree_id = ?");
+                args.add(filter.getDegreeId());
+            }
+        }
+        return sql.append(" ORDER BY id").toString();
+    }
+}
@@ -0,0 +1,19 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InvoiceFilter {
+    private Invoice.InvoiceStatus status;
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+    private Long degreeId;
+}
@@ -0,0 +1,49 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import code.with.vanilson.studentmanagement.common.BaseEntity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "invoice_run")
+@lombok.EqualsAndHashCode(callSuper = true)
+public class InvoiceRun extends BaseEntity {
+
+    private Long degreeId;
+    private String term;
+    private BigDecimal amount;
+    private LocalDate dueDate;
+
+    @Enumerated(EnumType.STRING)
+    private RunStatus status;
+
+    private int totalStudents;
+    private int invoiced;
+    private long lastStudentId;
+
+    @JsonIgnore
+    private String owner;
+
+    @JsonIgnore
+    private LocalDateTime leaseUntil;
+
+    public enum RunStatus {
+        RUNNING,
+        COMPLETED
+    }
+}
@@ -0,0 +1,15 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface InvoiceRunRepository extends JpaRepository<InvoiceRun, Long> {
+    Optional<InvoiceRun> findByDegreeIdAndTerm(Long degreeId, String term);
+
+    @org.springframework.data.jpa.repository.Query("SELECT r.id FROM InvoiceRun r WHERE r.status = 'RUNNING' "
+            + "AND (r.leaseUntil IS NULL OR r.leaseUntil < :now)")
+    List<Long> findStalledRunIds(@org.springframework.data.repository.query.Param("now") LocalDateTime now);
+}
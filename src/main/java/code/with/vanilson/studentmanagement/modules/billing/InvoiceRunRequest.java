@@ -0,0 +1,30 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InvoiceRunRequest {
+    @jakarta.validation.constraints.NotNull(message = "Degree is required")
+    private Long degreeId;
+
+    // Identifies the run: invoicing the same degree and term again resumes or returns the existing run
+    @jakarta.validation.constraints.NotBlank(message = "Term is required")
+    @jakarta.validation.constraints.Size(max = 50, message = "Term must be at most 50 characters")
+    private String term;
+
+    @jakarta.validation.constraints.NotNull(message = "Amount is required")
+    @jakarta.validation.constraints.Positive(message = "Amount must be positive")
+    private BigDecimal amount;
+
+    @jakarta.validation.constraints.NotNull(message = "Due date is required")
+    private LocalDate dueDate;
+}
@@ -0,0 +1,30 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks up invoice runs left unfinished by a node that stopped, e.g. after a crash or a deployment.
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+public class InvoiceRunResumer {
+
+    private final Logger log = LoggerFactory.getLogger(InvoiceRunResumer.class);
+    private final InvoiceRunService invoiceRunService;
+
+    @Scheduled(fixedDelayString = "${application.billing.invoice-runs.resume-interval-ms:60000}")
+    public void resumeStalled() {
+        try {
+            invoiceRunService.resumeStalled();
+        } catch (DataAccessException e) {
+            log.warn("Failed to look for stalled invoice runs", e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.modules.course.DegreeRepository;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Term-wide bulk invoicing: one invoice per student of a degree, created in the background.
+ * <p>
+ * A run walks the degree's students in id order, {@value #RUN_CHUNK_SIZE} at a time. Each chunk is one
+ * transaction: a set-based insert of the invoices, the matching balance and receivable updates, one outbox
+ * batch for the events and the checkpoint of the run. The node processing a run holds a lease on it that every
+ * chunk renews; a run whose lease ran out, because its node died, is resumed from its checkpoint by any node.
+ */
+@Service
+public class InvoiceRunService {
+
+    static final int RUN_CHUNK_SIZE = 1000;
+    static final String RUN_MISMATCH_MESSAGE =
+            "An invoice run for this degree and term already exists with a different amount or due date.";
+
+    private static final String CREATE_SQL = "INSERT INTO invoice_run "
+            + "(degree_id, term, amount, due_date, status, total_students, created_at) "
+            + "SELECT :degreeId, :term, :amount, :dueDate, 'RUNNING', count(*), :now FROM student "
+            + "WHERE degree_id = :degreeId "
+            + "ON CONFLICT ON CONSTRAINT uk_invoice_run_degree_term DO NOTHING";
+
+    private static final String CLAIM_SQL = "UPDATE invoice_run SET owner = :owner, lease_until = :leaseUntil "
+            + "WHERE id = :runId AND status = 'RUNNING' AND (lease_until IS NULL OR lease_until < :now) "
+            + "RETURNING degree_id, amount, due_date, last_student_id";
+
+    private static final String NEXT_CHUNK_SQL = "SELECT id FROM student WHERE degree_id = :degreeId AND id > :afterId "
+            + "ORDER BY id LIMIT :limit";
+
+    // Balances are upserted in student order so concurrent writers lock them in the same order
+    private static final String INSERT_SQL = "WITH created AS ("
+            + "INSERT INTO invoice "
+            + "(student_id, degree_id, amount, due_date, status, penalty_amount, version, run_id, created_at) "
+            + "SELECT id, :degreeId, :amount, :dueDate, 'PENDING', 0, 0, :runId, :now FROM student "
+            + "WHERE degree_id = :degreeId AND id > :afterId AND id <= :lastId ORDER BY id "
+            + "ON CONFLICT (run_id, student_id) WHERE run_id IS NOT NULL DO NOTHING "
+            + "RETURNING id, student_id), "
+            + "balance AS (INSERT INTO student_balance "
+            + "(student_id, outstanding, overdue, paid_to_date, penalties, updated_at) "
+            + "SELECT student_id, :amount, 0, 0, 0, :now FROM created ORDER BY student_id "
+            + "ON CONFLICT (student_id) DO UPDATE SET "
+            + "outstanding = student_balance.outstanding + EXCLUDED.outstanding, "
+            + "updated_at = EXCLUDED.updated_at), "
+            + "aging AS (INSERT INTO receivable_aging (degree_id, due_date, outstanding, invoices, updated_at) "
+            + "SELECT :degreeId, :dueDate, :amount * count(*), count(*), :now FROM created HAVING count(*) > 0 "
+            + "ON CONFLICT ((COALESCE(degree_id, 0)), due_date) DO UPDATE SET "
+            + "outstanding = receivable_aging.outstanding + EXCLUDED.outstanding, "
+            + "invoices = receivable_aging.invoices + EXCLUDED.invoices, "
+            + "updated_at = EXCLUDED.updated_at) "
+            + "SELECT id, student_id FROM created ORDER BY student_id";
+
+    private static final String CHECKPOINT_SQL = "UPDATE invoice_run SET last_student_id = :lastId, "
+            + "invoiced = invoiced + :invoiced, lease_until = :leaseUntil, updated_at = :now "
+            + "WHERE id = :runId AND owner = :owner";
+
+    private static final String COMPLETE_SQL = "UPDATE invoice_run SET status = 'COMPLETED', owner = NULL, "
+            + "lease_until = NULL, updated_at = :now WHERE id = :runId AND owner = :owner";
+
+    private final Logger log = LoggerFactory.getLogger(InvoiceRunService.class);
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvoiceRunRepository runRepository;
+    private final DegreeRepository degreeRepository;
+    private final OutboxService outbox;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final Duration lease;
+
+    public InvoiceRunService(InvoiceRunRepository runRepository, DegreeRepository degreeRepository,
+                             OutboxService outbox, NamedParameterJdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                             @Value("${application.jobs.lease:5m}") Duration lease) {
+        this.runRepository = runRepository;
+        this.degreeRepository = degreeRepository;
+        this.outbox = outbox;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.lease = lease;
+    }
+
+    /**
+     * Creates the run for the degree and term and starts it in the background. Starting an existing run
+     * again returns it, resuming it if no node is processing it.
+     */
+    public InvoiceRun start(InvoiceRunRequest request) {
+        if (!degreeRepository.existsById(request.getDegreeId())) {
+            throw new ResourceNotFoundException("degree.not_found", request.getDegreeId());
+        }
+        jdbcTemplate.update(CREATE_SQL, new MapSqlParameterSource()
+                .addValue("degreeId", request.getDegreeId())
+                .addValue("term", request.getTerm())
+                .addValue("amount", request.getAmount())
+                .addValue("dueDate", request.getDueDate(), Types.DATE)
+                .addValue("now", LocalDateTime.now(), Types.TIMESTAMP));
+        InvoiceRun run = runRepository.findByDegreeIdAndTerm(request.getDegreeId(), request.getTerm())
+                .orElseThrow(() -> new IllegalStateException("Invoice run was not created"));
+        if (run.getAmount().compareTo(request.getAmount()) != 0 || !run.getDueDate().equals(request.getDueDate())) {
+            throw new IllegalStateException(RUN_MISMATCH_MESSAGE);
+        }
+        if (run.getStatus() == InvoiceRun.RunStatus.RUNNING) {
+            submit(run.getId());
+        }
+        return run;
+    }
+
+    @Transactional(readOnly = true)
+    public InvoiceRun getRun(Long runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new ResourceNotFoundException("billing.invoice_run_not_found", runId));
+    }
+
+    /**
+     * Resumes running invoice runs no node holds a lease on.
+     */
+    public void resumeStalled() {
+        runRepository.findStalledRunIds(LocalDateTime.now()).forEach(this::submit);
+    }
+
+    private void submit(Long runId) {
+        taskExecutor.execute(() -> {
+            try {
+                process(runId);
+            } catch (RuntimeException e) {
+                // The lease runs out and the run is resumed from its checkpoint
+                log.error("Invoice run {} failed", runId, e);
+            }
+        });
+    }
+
+    void process(Long runId) {
+        List<ClaimedRun> claimed = jdbcTemplate.query(CLAIM_SQL, params(runId, LocalDateTime.now()),
+                (rs, i) -> new ClaimedRun(rs.getLong("degree_id"), rs.getBigDecimal("amount"),
+                        rs.getDate("due_date").toLocalDate(), rs.getLong("last_student_id")));
+        if (claimed.isEmpty()) {
+            return;
+        }
+        ClaimedRun run = claimed.get(0);
+        long afterId = run.lastStudentId();
+        int total = 0;
+        while (true) {
+            long from = afterId;
+            Chunk chunk = transactionTemplate.execute(status -> processChunk(runId, run, from, status));
+            if (chunk == null) {
+                log.info("Invoice run {} finished on this node after {} invoices", runId, total);
+                return;
+            }
+            total += chunk.invoiced();
+            afterId = chunk.lastStudentId();
+        }
+    }
+
+    /**
+     * Invoices the next chunk of students, or returns {@code null} once the run is completed or taken over by
+     * another node.
+     */
+    private Chunk processChunk(Long runId, ClaimedRun run, long afterId, TransactionStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> students = jdbcTemplate.queryForList(NEXT_CHUNK_SQL, new MapSqlParameterSource()
+                .addValue("degreeId", run.degreeId())
+                .addValue("afterId", afterId)
+                .addValue("limit", RUN_CHUNK_SIZE), Long.class);
+        if (students.isEmpty()) {
+            jdbcTemplate.update(COMPLETE_SQL, params(runId, now));
+            return null;
+        }
+        long lastId = students.get(students.size() - 1);
+        List<BillingEvent> created = jdbcTemplate.query(INSERT_SQL, params(runId, now)
+                .addValue("degreeId", run.degreeId())
+                .addValue("amount", run.amount())
+                .addValue("dueDate", run.dueDate(), Types.DATE)
+                .addValue("afterId", afterId)
+                .addValue("lastId", lastId),
+                (rs, i) -> BillingEvent.invoiceCreated(rs.getLong("id"), rs.getLong("student_id"), run.amount()));
+        outbox.publishAll(created);
+        int updated = jdbcTemplate.update(CHECKPOINT_SQL, params(runId, now)
+                .addValue("lastId", lastId)
+                .addValue("invoiced", created.size()));
+        if (updated == 0) {
+            log.warn("Lost the lease on invoice run {}, leaving it to its new owner", runId);
+            status.setRollbackOnly();
+            return null;
+        }
+        return new Chunk(lastId, created.size());
+    }
+
+    private MapSqlParameterSource params(Long runId, LocalDateTime now) {
+        return new MapSqlParameterSource()
+                .addValue("runId", runId)
+                .addValue("owner", nodeId)
+                .addValue("now", now, Types.TIMESTAMP)
+                .addValue("leaseUntil", now.plus(lease), Types.TIMESTAMP);
+    }
+
+    private record ClaimedRun(Long degreeId, BigDecimal amount, LocalDate dueDate, long lastStudentId) {
+    }
+
+    private record Chunk(long lastStudentId, int invoiced) {
+    }
+}
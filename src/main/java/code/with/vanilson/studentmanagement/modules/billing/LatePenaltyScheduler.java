@@ -0,0 +1,31 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Triggers the daily late-penalty run on every node. Nodes split the work through the partitions they claim,
+ * and triggering again later in the day only resumes partitions left unfinished by a node that went away.
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+public class LatePenaltyScheduler {
+
+    private final Logger log = LoggerFactory.getLogger(LatePenaltyScheduler.class);
+    private final BillingService billingService;
+
+    @Scheduled(cron = "${application.billing.late-penalties.cron:0 */5 * * * *}")
+    public void applyLatePenalties() {
+        try {
+            billingService.applyLatePenalties();
+        } catch (DataAccessException e) {
+            log.warn("Late-penalty run failed, retrying on the next trigger", e);
+        }
+    }
+}
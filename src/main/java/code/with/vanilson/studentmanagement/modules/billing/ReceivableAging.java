@@ -0,0 +1,38 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Open receivables of one degree falling due on one date, kept up to date in the transaction of every invoice
+ * change. {@code outstanding} includes penalties; a {@code null} degree holds students without one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "receivable_aging")
+public class ReceivableAging {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long degreeId;
+    private LocalDate dueDate;
+    private BigDecimal outstanding;
+    private int invoices;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface ReceivableAgingRepository extends JpaRepository<ReceivableAging, Long> {
+
+    /**
+     * Adds the deltas to the degree's receivables due on {@code dueDate} in one atomic upsert.
+     */
+    @Modifying
+    @org.springframework.data.jpa.repository.Query(nativeQuery = true, value = "INSERT INTO receivable_aging "
+            + "(degree_id, due_date, outstanding, invoices, updated_at) "
+            + "VALUES (:degreeId, :dueDate, :outstanding, :invoices, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT ((COALESCE(degree_id, 0)), due_date) DO UPDATE SET "
+            + "outstanding = receivable_aging.outstanding + EXCLUDED.outstanding, "
+            + "invoices = receivable_aging.invoices + EXCLUDED.invoices, "
+            + "updated_at = EXCLUDED.updated_at")
+    int addToAging(@org.springframework.data.repository.query.Param("degreeId") Long degreeId,
+                   @org.springframework.data.repository.query.Param("dueDate") LocalDate dueDate,
+                   @org.springframework.data.repository.query.Param("outstanding") BigDecimal outstanding,
+                   @org.springframework.data.repository.query.Param("invoices") int invoices);
+}
@@ -0,0 +1,47 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationResult {
+    private long lines;
+    private long paid;
+    private long mismatched;
+
+    @Builder.Default
+    private BigDecimal paidAmount = BigDecimal.ZERO;
+
+    // Capped; mismatched counts them all
+    @Builder.Default
+    private List<Mismatch> mismatches = new ArrayList<>();
+
+    public enum Reason {
+        INVALID_LINE,
+        UNKNOWN_INVOICE,
+        AMOUNT_MISMATCH,
+        NOT_PAYABLE,
+        DUPLICATE,
+        CONCURRENT_UPDATE
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Mismatch {
+        private long line;
+        private Long invoiceId;
+        private BigDecimal amount;
+        private Reason reason;
+        private String detail;
+    }
+}
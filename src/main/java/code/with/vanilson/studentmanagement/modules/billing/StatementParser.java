@@ -0,0 +1,207 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads bank statement lines straight from a memory-mapped file. Invoice references and amounts are parsed from
+ * the mapped bytes, so a valid line allocates nothing; only rejected lines are decoded, for the report. Files
+ * are mapped {@value #WINDOW_SIZE} bytes at a time, each window ending on a line boundary.
+ */
+final class StatementParser {
+
+    interface LineHandler {
+
+        void line(long lineNo, long invoiceId, long amountCents);
+
+        void invalid(long lineNo, String text);
+    }
+
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    // Fixed-width layout: value date (yyyyMMdd), reference, amount right-aligned with a decimal point
+    static final int FIXED_REFERENCE_START = 8;
+    static final int FIXED_AMOUNT_START = 28;
+    static final int FIXED_AMOUNT_END = 43;
+
+    private static final int MAX_REPORTED_TEXT = 200;
+    private static final long INVALID = -1;
+
+    private final BankReconciliationService.StatementFormat format;
+    private final LineHandler handler;
+    private final int windowSize;
+    private MappedByteBuffer buffer;
+    private long lineNo;
+
+    StatementParser(BankReconciliationService.StatementFormat format, LineHandler handler) {
+        this(format, handler, WINDOW_SIZE);
+    }
+
+    StatementParser(BankReconciliationService.StatementFormat format, LineHandler handler, int windowSize) {
+        this.format = format;
+        this.handler = handler;
+        this.windowSize = windowSize;
+    }
+
+    void parse(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                boolean lastWindow = position + length == size;
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int start = 0;
+                for (int i = 0; i < length; i++) {
+                    if (buffer.get(i) == '\n') {
+                        line(start, i);
+                        start = i + 1;
+                    }
+                }
+                if (lastWindow) {
+                    if (start < length) {
+                        line(start, length);
+                    }
+                    return;
+                }
+                if (start == 0) {
+                    throw new IOException("Statement line " + (lineNo + 1) + " is longer than " + windowSize + " bytes");
+                }
+                // The partial last line is read again at the start of the next window
+                position += start;
+            }
+        }
+    }
+
+    private void line(int start, int end) {
+        lineNo++;
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (isBlank(start, end)) {
+            return;
+        }
+        long invoiceId;
+        long amount;
+        if (format == BankReconciliationService.StatementFormat.CSV) {
+            int first = indexOf(',', start, end);
+            int second = first < 0 ? -1 : indexOf(',', first + 1, end);
+            if (second < 0) {
+                handler.invalid(lineNo, text(start, end));
+                return;
+            }
+            int third = indexOf(',', second + 1, end);
+            invoiceId = parseReference(first + 1, second);
+            amount = parseAmount(second + 1, third < 0 ? end : third);
+            // A header names its columns, so its amount is never a number
+            if (lineNo == 1 && amount == INVALID) {
+                return;
+            }
+        } else {
+            if (end - start < FIXED_AMOUNT_END) {
+                handler.invalid(lineNo, text(start, end));
+                return;
+            }
+            invoiceId = parseReference(start + FIXED_REFERENCE_START, start + FIXED_AMOUNT_START);
+            amount = parseAmount(start + FIXED_AMOUNT_START, start + FIXED_AMOUNT_END);
+        }
+        if (invoiceId == INVALID || amount == INVALID) {
+            handler.invalid(lineNo, text(start, end));
+        } else {
+            handler.line(lineNo, invoiceId, amount);
+        }
+    }
+
+    /**
+     * The invoice id is the last run of digits in the reference, so {@code INV-2024-000123} refers to 123.
+     */
+    private long parseReference(int from, int to) {
+        int end = to;
+        while (end > from && !isDigit(buffer.get(end - 1))) {
+            end--;
+        }
+        int start = end;
+        while (start > from && isDigit(buffer.get(start - 1))) {
+            start--;
+        }
+        if (start == end || end - start > 18) {
+            return INVALID;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (buffer.get(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parses a positive amount with up to two decimals into cents.
+     */
+    private long parseAmount(int from, int to) {
+        while (from < to && (buffer.get(from) == ' ' || buffer.get(from) == '"')) {
+            from++;
+        }
+        while (to > from && (buffer.get(to - 1) == ' ' || buffer.get(to - 1) == '"')) {
+            to--;
+        }
+        if (from < to && buffer.get(from) == '+') {
+            from++;
+        }
+        long units = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (isDigit(b) && digits < 16 && decimals < 2) {
+                units = units * 10 + (b - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                return INVALID;
+            }
+        }
+        if (digits == 0) {
+            return INVALID;
+        }
+        for (int i = Math.max(decimals, 0); i < 2; i++) {
+            units *= 10;
+        }
+        return units;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) != ' ' && buffer.get(i) != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String text(int from, int to) {
+        byte[] bytes = new byte[Math.min(to - from, MAX_REPORTED_TEXT)];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
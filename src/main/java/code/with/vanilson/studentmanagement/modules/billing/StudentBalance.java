@@ -0,0 +1,45 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running billing totals of a student, kept up to date in the transaction of every invoice change. Amounts
+ * include penalties: {@code outstanding} covers pending and overdue invoices, {@code overdue} the overdue
+ * ones only.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "student_balance")
+public class StudentBalance {
+
+    @Id
+    private Long studentId;
+
+    private BigDecimal outstanding;
+    private BigDecimal overdue;
+    private BigDecimal paidToDate;
+    private BigDecimal penalties;
+    private LocalDateTime updatedAt;
+
+    static StudentBalance empty(Long studentId) {
+        return StudentBalance.builder()
+                .studentId(studentId)
+                .outstanding(BigDecimal.ZERO)
+                .overdue(BigDecimal.ZERO)
+                .paidToDate(BigDecimal.ZERO)
+                .penalties(BigDecimal.ZERO)
+                .build();
+    }
+}
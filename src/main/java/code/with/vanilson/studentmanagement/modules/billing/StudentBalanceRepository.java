@@ -0,0 +1,28 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+
+import java.math.BigDecimal;
+
+public interface StudentBalanceRepository extends JpaRepository<StudentBalance, Long> {
+
+    /**
+     * Adds the deltas to the student's balance in one atomic upsert, creating the row on first use.
+     */
+    @Modifying
+    @org.springframework.data.jpa.repository.Query(nativeQuery = true, value = "INSERT INTO student_balance "
+            + "(student_id, outstanding, overdue, paid_to_date, penalties, updated_at) "
+            + "VALUES (:studentId, :outstanding, :overdue, :paidToDate, :penalties, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT (student_id) DO UPDATE SET "
+            + "outstanding = student_balance.outstanding + EXCLUDED.outstanding, "
+            + "overdue = student_balance.overdue + EXCLUDED.overdue, "
+            + "paid_to_date = student_balance.paid_to_date + EXCLUDED.paid_to_date, "
+            + "penalties = student_balance.penalties + EXCLUDED.penalties, "
+            + "updated_at = EXCLUDED.updated_at")
+    int addToBalance(@org.springframework.data.repository.query.Param("studentId") Long studentId,
+                     @org.springframework.data.repository.query.Param("outstanding") BigDecimal outstanding,
+                     @org.springframework.data.repository.query.Param("overdue") BigDecimal overdue,
+                     @org.springframework.data.repository.query.Param("paidToDate") BigDecimal paidToDate,
+                     @org.springframework.data.repository.query.Param("penalties") BigDecimal penalties);
+}
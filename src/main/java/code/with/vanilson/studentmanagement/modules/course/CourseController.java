@@ -1,7 +1,9 @@
 package code.with.vanilson.studentmanagement.modules.course;
 
 import code.with.vanilson.studentmanagement.common.dto.ApiResponse;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +15,7 @@ import java.util.List;
 @io.swagger.v3.oas.annotations.tags.Tag(name = "Courses", description = "Endpoints for managing courses")
 public class CourseController {
     private final CourseService service;
+    private final EntityTags entityTags;
 
     @PostMapping
     @io.swagger.v3.oas.annotations.Operation(summary = "Create a new course", description = "Creates a new course record.")
@@ -24,14 +27,30 @@ public class CourseController {
     @GetMapping
     @io.swagger.v3.oas.annotations.Operation(summary = "Get all courses", description = "Retrieves a list of all courses.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Courses retrieved successfully")
-    public ResponseEntity<ApiResponse<List<Course>>> getAllCourses() {
-        return ResponseEntity.ok(ApiResponse.success(service.getAllCourses(), "Courses retrieved successfully"));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    public ResponseEntity<ApiResponse<List<Course>>> getAllCourses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String tag = entityTags.collectionTag(CourseService.ENTITY_TYPE);
+        if (EntityTags.matches(ifNoneMatch, tag)) {
+            return EntityTags.notModified(tag);
+        }
+        return ResponseEntity.ok().eTag(tag)
+                .body(ApiResponse.success(service.getAllCourses(), "Courses retrieved successfully"));
     }
 
     @GetMapping("/{id}")
     @io.swagger.v3.oas.annotations.Operation(summary = "Get course by ID", description = "Retrieves a course by its ID.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Course retrieved successfully")
-    public ResponseEntity<ApiResponse<Course>> getCourseById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.success(service.getCourseById(id), "Course retrieved successfully"));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    public ResponseEntity<ApiResponse<Course>> getCourseById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String cachedTag = entityTags.cachedEntityTag(CourseService.ENTITY_TYPE, id);
+        if (EntityTags.matches(ifNoneMatch, cachedTag)) {
+            return EntityTags.notModified(cachedTag);
+        }
+        Course course = service.getCourseById(id);
+        return ResponseEntity.ok()
+                .eTag(entityTags.entityTag(CourseService.ENTITY_TYPE, id, course.getCreatedAt(), course.getUpdatedAt()))
+                .body(ApiResponse.success(course, "Course retrieved successfully"));
     }
 }
@@ -1,24 +1,35 @@
 package code.with.vanilson.studentmanagement.modules.course;
 
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class CourseService {
+
+    public static final String ENTITY_TYPE = "course";
+
     private final CourseRepository repository;
+    private final EntityTags entityTags;
 
+    @Transactional
     public Course createCourse(Course course) {
-        return repository.save(course);
+        Course saved = repository.save(course);
+        entityTags.collectionChanged(ENTITY_TYPE);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Course> getAllCourses() {
         return repository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Course getCourseById(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("course.not_found", id));
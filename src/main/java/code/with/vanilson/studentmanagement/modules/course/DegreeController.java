@@ -1,7 +1,9 @@
 package code.with.vanilson.studentmanagement.modules.course;
 
 import code.with.vanilson.studentmanagement.common.dto.ApiResponse;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +15,7 @@ import java.util.List;
 @io.swagger.v3.oas.annotations.tags.Tag(name = "Degrees", description = "Endpoints for managing degrees")
 public class DegreeController {
     private final DegreeService service;
+    private final EntityTags entityTags;
 
     @PostMapping
     @io.swagger.v3.oas.annotations.Operation(summary = "Create a new degree", description = "Creates a new degree record.")
@@ -24,14 +27,30 @@ public class DegreeController {
     @GetMapping
     @io.swagger.v3.oas.annotations.Operation(summary = "Get all degrees", description = "Retrieves a list of all degrees.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Degrees retrieved successfully")
-    public ResponseEntity<ApiResponse<List<Degree>>> getAllDegrees() {
-        return ResponseEntity.ok(ApiResponse.success(service.getAllDegrees(), "Degrees retrieved successfully"));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    public ResponseEntity<ApiResponse<List<Degree>>> getAllDegrees(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String tag = entityTags.collectionTag(DegreeService.ENTITY_TYPE);
+        if (EntityTags.matches(ifNoneMatch, tag)) {
+            return EntityTags.notModified(tag);
+        }
+        return ResponseEntity.ok().eTag(tag)
+                .body(ApiResponse.success(service.getAllDegrees(), "Degrees retrieved successfully"));
     }
 
     @GetMapping("/{id}")
     @io.swagger.v3.oas.annotations.Operation(summary = "Get degree by ID", description = "Retrieves a degree by its ID.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Degree retrieved successfully")
-    public ResponseEntity<ApiResponse<Degree>> getDegreeById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.success(service.getDegreeById(id), "Degree retrieved successfully"));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    public ResponseEntity<ApiResponse<Degree>> getDegreeById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String cachedTag = entityTags.cachedEntityTag(DegreeService.ENTITY_TYPE, id);
+        if (EntityTags.matches(ifNoneMatch, cachedTag)) {
+            return EntityTags.notModified(cachedTag);
+        }
+        Degree degree = service.getDegreeById(id);
+        return ResponseEntity.ok()
+                .eTag(entityTags.entityTag(DegreeService.ENTITY_TYPE, id, degree.getCreatedAt(), degree.getUpdatedAt()))
+                .body(ApiResponse.success(degree, "Degree retrieved successfully"));
     }
 }
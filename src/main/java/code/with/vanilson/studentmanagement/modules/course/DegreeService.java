@@ -1,24 +1,35 @@
 package code.with.vanilson.studentmanagement.modules.course;
 
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class DegreeService {
+
+    public static final String ENTITY_TYPE = "degree";
+
     private final DegreeRepository repository;
+    private final EntityTags entityTags;
 
+    @Transactional
     public Degree createDegree(Degree degree) {
-        return repository.save(degree);
+        Degree saved = repository.save(degree);
+        entityTags.collectionChanged(ENTITY_TYPE);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Degree> getAllDegrees() {
         return repository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Degree getDegreeById(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("degree.not_found", id));
@@ -22,4 +22,6 @@ public class Notification {
     private String type; // EMAIL, SMS
     private String recipient;
     private LocalDateTime timestamp;
+    // Set for notifications that are emailed: false when stored, true once the email went out
+    private Boolean emailSent;
 }
@@ -1,64 +1,187 @@
 package code.with.vanilson.studentmanagement.modules.notification;
 
+import code.with.vanilson.studentmanagement.modules.appointment.AppointmentEvent;
+import code.with.vanilson.studentmanagement.modules.billing.BillingEvent;
+import code.with.vanilson.studentmanagement.modules.outbox.DomainEvent;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxRelay;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
+/**
+ * Consumes the keyed JSON events of the billing and notification topics. Each partition is consumed by one
+ * listener thread, so a student's events are handled in order while the threads, and the nodes of the
+ * consumer group, share the partitions. Plain-text payloads from producers that predate typed events are
+ * still accepted as they are.
+ * <p>
+ * Records are consumed in batches, bounded by {@code spring.kafka.consumer.max-poll-records} and
+ * {@code fetch-max-wait}; each batch is written with one unordered bulk insert per collection. Documents of
+ * events relayed from the outbox take their id from the {@value OutboxRelay#OUTBOX_ID_HEADER} header, so a
+ * redelivered batch skips what is already stored.
+ * <p>
+ * Billing notifications are stored with {@code emailSent = false} and flipped once their email went out. A
+ * redelivered batch emails the stored ones still unsent, so a failure between storing and sending delays the
+ * email instead of losing it; a failure between sending and flipping may send it twice.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationConsumer {
 
-        private final NotificationRepository repository;
-        private final AuditLogRepository auditLogRepository;
+        private static final int DUPLICATE_KEY = 11000;
+
+        private final MongoTemplate mongoTemplate;
         private final EmailService emailService;
+        private final ObjectMapper objectMapper;
 
-        @KafkaListener(topics = "billing-events", groupId = "notification-group")
-        public void consumeBillingEvent(String message) {
-                log.info("Received billing event: {}", message);
+        @KafkaListener(topics = BillingEvent.TOPIC, groupId = "notification-group", batch = "true")
+        public void consumeBillingEvents(List<ConsumerRecord<String, String>> records) {
+                log.info("Received {} billing events", records.size());
+                LocalDateTime now = LocalDateTime.now();
+                List<Notification> notifications = records.stream()
+                                .map(record -> Notification.builder()
+                                                .id(eventId(record))
+                                                .message(describe(record.value(), BillingEvent.class))
+                                                .type("EMAIL") // Defaulting to EMAIL for now
+                                                .timestamp(now)
+                                                .emailSent(false)
+                                                .build())
+                                .toList();
 
-                // Send real email
-                emailService.sendSimpleMessage("student-email@example.com", "Billing Notification", message);
+                BitSet inserted = insertNew(Notification.class, notifications);
+                List<Notification> unsent = new ArrayList<>(inserted.cardinality());
+                inserted.stream().forEach(i -> unsent.add(notifications.get(i)));
+                unsent.addAll(storedUnsent(notifications, inserted));
+                sendEmails(unsent);
 
-                // Save to MongoDB
-                Notification notification = Notification.builder()
-                                .message(message)
-                                .type("EMAIL") // Defaulting to EMAIL for now
-                                .timestamp(LocalDateTime.now())
-                                .build();
+                insertNew(AuditLog.class, notifications.stream()
+                                .map(notification -> auditLog(notification, "BILLING_EVENT"))
+                                .toList());
+        }
 
-                repository.save(notification);
-                log.info("Notification saved to MongoDB");
+        @KafkaListener(topics = AppointmentEvent.TOPIC, groupId = "notification-group", batch = "true")
+        public void consumeNotificationEvents(List<ConsumerRecord<String, String>> records) {
+                log.info("Received {} notification events", records.size());
+                LocalDateTime now = LocalDateTime.now();
+                List<Notification> notifications = records.stream()
+                                .map(record -> Notification.builder()
+                                                .id(eventId(record))
+                                                .message(describe(record.value(), AppointmentEvent.class))
+                                                .type("SYSTEM")
+                                                .timestamp(now)
+                                                .build())
+                                .toList();
 
-                // Audit Log
-                AuditLog auditLog = AuditLog.builder()
-                                .action("BILLING_EVENT")
-                                .details(message)
-                                .timestamp(LocalDateTime.now())
-                                .build();
-                auditLogRepository.save(auditLog);
+                insertNew(Notification.class, notifications);
+                insertNew(AuditLog.class, notifications.stream()
+                                .map(notification -> auditLog(notification, "SYSTEM_NOTIFICATION"))
+                                .toList());
         }
 
-        @KafkaListener(topics = "notification-events", groupId = "notification-group")
-        public void consumeNotificationEvent(String message) {
-                log.info("Received notification event: {}", message);
+        /**
+         * Notifications of the batch stored by an earlier delivery whose email has not gone out yet.
+         */
+        private List<Notification> storedUnsent(List<Notification> notifications, BitSet inserted) {
+                List<String> stored = new ArrayList<>();
+                for (int i = inserted.nextClearBit(0); i < notifications.size(); i = inserted.nextClearBit(i + 1)) {
+                        stored.add(notifications.get(i).getId());
+                }
+                if (stored.isEmpty()) {
+                        return List.of();
+                }
+                return mongoTemplate.find(Query.query(Criteria.where("_id").in(stored).and("emailSent").is(false)),
+                                Notification.class);
+        }
 
-                Notification notification = Notification.builder()
-                                .message(message)
-                                .type("SYSTEM")
-                                .timestamp(LocalDateTime.now())
-                                .build();
+        /**
+         * Emails the notifications and marks those sent with one update, also when a later send fails.
+         */
+        private void sendEmails(List<Notification> notifications) {
+                List<String> sent = new ArrayList<>(notifications.size());
+                try {
+                        for (Notification notification : notifications) {
+                                emailService.sendSimpleMessage("student-email@example.com", "Billing Notification",
+                                                notification.getMessage());
+                                sent.add(notification.getId());
+                        }
+                } finally {
+                        if (!sent.isEmpty()) {
+                                mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(sent)),
+                                                Update.update("emailSent", true), Notification.class);
+                        }
+                }
+        }
 
-                repository.save(notification);
+        /**
+         * Inserts the documents with one unordered bulk write and returns the positions of those inserted.
+         * Documents already stored by an earlier delivery are skipped; any other failure is rethrown so the
+         * batch is redelivered.
+         */
+        private <T> BitSet insertNew(Class<T> type, List<T> documents) {
+                BitSet inserted = new BitSet(documents.size());
+                if (documents.isEmpty()) {
+                        return inserted;
+                }
+                inserted.set(0, documents.size());
+                try {
+                        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(documents).execute();
+                } catch (BulkOperationException e) {
+                        for (BulkWriteError error : e.getErrors()) {
+                                if (error.getCode() != DUPLICATE_KEY) {
+                                        throw e;
+                                }
+                                inserted.clear(error.getIndex());
+                        }
+                        log.debug("Skipped {} {} documents already stored", e.getErrors().size(),
+                                        type.getSimpleName());
+                }
+                return inserted;
+        }
 
-                AuditLog auditLog = AuditLog.builder()
-                                .action("SYSTEM_NOTIFICATION")
-                                .details(message)
-                                .timestamp(LocalDateTime.now())
+        private static AuditLog auditLog(Notification notification, String action) {
+                return AuditLog.builder()
+                                .id(notification.getId())
+                                .action(action)
+                                .details(notification.getMessage())
+                                .timestamp(notification.getTimestamp())
                                 .build();
-                auditLogRepository.save(auditLog);
+        }
+
+        // Events that did not come through the outbox cannot be deduplicated and get a fresh id
+        private static String eventId(ConsumerRecord<String, String> record) {
+                Header header = record.headers().lastHeader(OutboxRelay.OUTBOX_ID_HEADER);
+                return header == null ? new ObjectId().toHexString()
+                                : record.topic() + ":" + new String(header.value(), StandardCharsets.UTF_8);
+        }
+
+        private String describe(String payload, Class<? extends DomainEvent> type) {
+                if (payload == null || !payload.startsWith("{")) {
+                        return payload;
+                }
+                try {
+                        DomainEvent event = objectMapper.readValue(payload, type);
+                        return event.type() == null ? payload : event.describe();
+                } catch (JsonProcessingException e) {
+                        return payload;
+                }
         }
 }
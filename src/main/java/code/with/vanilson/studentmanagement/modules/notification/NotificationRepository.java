@@ -1,6 +0,0 @@
-package code.with.vanilson.studentmanagement.modules.notification;
-
-import org.springframework.data.mongodb.repository.MongoRepository;
-
-public interface NotificationRepository extends MongoRepository<Notification, String> {
-}
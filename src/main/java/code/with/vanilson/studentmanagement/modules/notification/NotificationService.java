@@ -7,6 +7,9 @@
 
 package code.with.vanilson.studentmanagement.modules.notification;
 
+import code.with.vanilson.studentmanagement.modules.appointment.AppointmentEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.KafkaException;
@@ -17,16 +20,19 @@ import org.springframework.stereotype.Service;
 public class NotificationService {
     private final Logger log = LoggerFactory.getLogger(NotificationService.class);
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
 
-    public NotificationService(KafkaTemplate<String, String> kafkaTemplate) {
+    public NotificationService(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper) {
         this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
     }
 
     public void sendAppointmentNotification(Long studentId, Long teacherId) {
+        AppointmentEvent event = new AppointmentEvent(AppointmentEvent.Type.SCHEDULED, null, studentId, teacherId,
+                null, null, null);
         try {
-            kafkaTemplate.send("notification-events",
-                    "Appointment scheduled for student: " + studentId + " with teacher: " + teacherId);
-        } catch (KafkaException e) {
+            kafkaTemplate.send(event.topic(), event.key(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | KafkaException e) {
             log.error("Failed to send appointment notification", e);
             // Could implement retry logic or dead letter queue
         }
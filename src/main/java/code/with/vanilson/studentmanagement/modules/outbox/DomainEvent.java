@@ -0,0 +1,24 @@
+package code.with.vanilson.studentmanagement.modules.outbox;
+
+/**
+ * An event published through the outbox as JSON. Events are keyed by the student they concern, so every event
+ * of one student lands on the same partition and is consumed in the order it was recorded, while the events
+ * of different students are spread over the partitions and consumed in parallel.
+ */
+public interface DomainEvent {
+
+    String topic();
+
+    Enum<?> type();
+
+    Long studentId();
+
+    /**
+     * Human-readable text of the event, used for notifications and audit logs.
+     */
+    String describe();
+
+    default String key() {
+        return studentId() == null ? null : studentId().toString();
+    }
+}
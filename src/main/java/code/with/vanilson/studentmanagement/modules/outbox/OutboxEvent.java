@@ -0,0 +1,29 @@
+package code.with.vanilson.studentmanagement.modules.outbox;
+
+import code.with.vanilson.studentmanagement.common.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_event")
+@lombok.EqualsAndHashCode(callSuper = true)
+public class OutboxEvent extends BaseEntity {
+
+    private String topic;
+
+    @Column(name = "message_key")
+    private String key;
+
+    private String payload;
+
+    private int attempts;
+}
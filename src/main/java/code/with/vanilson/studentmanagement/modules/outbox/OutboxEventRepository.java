@@ -0,0 +1,28 @@
+package code.with.vanilson.studentmanagement.modules.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Transaction-scoped advisory lock: one relay drains the outbox at a time, so a key's events leave in order
+    @org.springframework.data.jpa.repository.Query(value = "SELECT pg_try_advisory_xact_lock(:lockId)",
+            nativeQuery = true)
+    boolean tryLockRelay(@org.springframework.data.repository.query.Param("lockId") long lockId);
+
+    @org.springframework.data.jpa.repository.Query(value = "SELECT * FROM outbox_event ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@org.springframework.data.repository.query.Param("limit") int limit);
+
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true)
+    @org.springframework.data.jpa.repository.Query(value = "WITH moved AS (DELETE FROM outbox_event WHERE id = :id "
+            + "RETURNING id, topic, message_key, payload, attempts, created_at) "
+            + "INSERT INTO outbox_dead_letter (id, topic, message_key, payload, attempts, error, created_at) "
+            + "SELECT id, topic, message_key, payload, attempts, :error, created_at FROM moved", nativeQuery = true)
+    int moveToDeadLetter(@org.springframework.data.repository.query.Param("id") Long id,
+                         @org.springframework.data.repository.query.Param("error") String error);
+
+    Optional<OutboxEvent> findFirstByOrderByIdAsc();
+}
@@ -0,0 +1,220 @@
+package code.with.vanilson.studentmanagement.modules.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RetriableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox to Kafka in id order. Each batch is read, sent, and deleted once the broker acknowledged
+ * it, all in one transaction of the relay's own that holds a Postgres advisory lock, so only one node relays
+ * at a time. A crash between acknowledgement and commit resends the batch, so delivery is at least once; every
+ * record carries an {@value #OUTBOX_ID_HEADER} header consumers can deduplicate on, and the idempotent
+ * producer keeps its own retries from duplicating.
+ * <p>
+ * Once an event fails, the later events of its key stay in the outbox even if the broker took them, and the
+ * next run resends them after the failed one: no event leaves the outbox ahead of an earlier one of its key.
+ * An event the broker rejects with a non-retriable error (too large, topic not authorized) is moved to
+ * {@code outbox_dead_letter} once it reached {@code max-attempts}, so its key can move on; retriable failures,
+ * such as a broker outage, never dead-letter an event.
+ */
+@Component
+@Profile("!test")
+public class OutboxRelay {
+
+    public static final String OUTBOX_ID_HEADER = "outbox-id";
+    static final long RELAY_LOCK_ID = 0x6f7574626f78L;
+
+    private final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private final OutboxEventRepository repository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter published;
+    private final Counter deadLettered;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration sendTimeout;
+
+    private volatile double lagSeconds;
+
+    public OutboxRelay(OutboxEventRepository repository, KafkaTemplate<String, String> kafkaTemplate,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                       @Value("${application.outbox.batch-size:100}") int batchSize,
+                       @Value("${application.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+                       @Value("${application.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${application.outbox.send-timeout:35s}") Duration sendTimeout) {
+        this.repository = repository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.sendTimeout = sendTimeout;
+        this.published = Counter.builder("outbox.relay.published")
+                .description("Outbox events acknowledged by the broker")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("outbox.relay.dead_lettered")
+                .description("Outbox events moved to the dead-letter table after repeated non-retriable failures")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", this, relay -> relay.lagSeconds)
+                .description("Age of the oldest event still waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer sent = transactionTemplate.execute(status -> relayBatch());
+                if (sent == null || sent < batchSize) {
+                    break;
+                }
+            }
+            lagSeconds = repository.findFirstByOrderByIdAsc()
+                    .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis() / 1000.0)
+                    .orElse(0.0);
+        } catch (DataAccessException e) {
+            log.warn("Outbox relay run failed, retrying on the next run", e);
+        }
+    }
+
+    /**
+     * Sends the next batch and deletes what the broker acknowledged ahead of any failure of the same key.
+     * Returns how many events were removed; a short count ends the run, whether the outbox is drained, the
+     * broker is failing or another node holds the relay lock.
+     */
+    int relayBatch() {
+        if (!repository.tryLockRelay(RELAY_LOCK_ID)) {
+            return 0;
+        }
+        List<OutboxEvent> batch = repository.findNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            ProducerRecord<String, String> record = new ProducerRecord<>(event.getTopic(), event.getKey(),
+                    event.getPayload());
+            record.headers().add(OUTBOX_ID_HEADER, String.valueOf(event.getId()).getBytes(StandardCharsets.UTF_8));
+            sends.add(kafkaTemplate.send(record));
+        }
+        await(sends);
+
+        List<OutboxEvent> acknowledged = new ArrayList<>(batch.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        int dead = 0;
+        Set<String> failedKeys = new HashSet<>();
+        int held = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            CompletableFuture<SendResult<String, String>> send = sends.get(i);
+            if (event.getKey() != null && failedKeys.contains(event.getKey())) {
+                held++;
+            } else if (send.isDone() && !send.isCompletedExceptionally()) {
+                acknowledged.add(event);
+            } else {
+                event.setAttempts(event.getAttempts() + 1);
+                Throwable error = failure(send);
+                if (event.getAttempts() >= maxAttempts && !retriable(error)) {
+                    log.error("Outbox event {} for topic {} rejected {} times, moving it to the dead-letter table",
+                            event.getId(), event.getTopic(), event.getAttempts(), error);
+                    repository.moveToDeadLetter(event.getId(), describe(error));
+                    dead++;
+                    continue;
+                }
+                failed.add(event);
+                if (event.getKey() != null) {
+                    failedKeys.add(event.getKey());
+                }
+            }
+        }
+        repository.deleteAllInBatch(acknowledged);
+        if (!failed.isEmpty()) {
+            log.warn("{} of {} outbox events were not acknowledged, first id {}; {} later events of their keys "
+                    + "kept for the next run", failed.size(), batch.size(), failed.get(0).getId(), held);
+        }
+        published.increment(acknowledged.size());
+        deadLettered.increment(dead);
+        return failed.isEmpty() ? acknowledged.size() + dead : 0;
+    }
+
+    // The send's failure, or null while it is still pending
+    private static Throwable failure(CompletableFuture<SendResult<String, String>> send) {
+        if (!send.isDone()) {
+            return null;
+        }
+        try {
+            send.join();
+            return null;
+        } catch (CompletionException | CancellationException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    // A pending send or one failed for a transient reason may still go through on a later run
+    private static boolean retriable(Throwable error) {
+        if (error == null) {
+            return true;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(Throwable error) {
+        String text = String.valueOf(error);
+        return text.length() > 1000 ? text.substring(0, 1000) : text;
+    }
+
+    /**
+     * Waits for every send to settle. The producer fails a send once its {@code delivery.timeout.ms} expires,
+     * so with the send timeout above it each future ends acknowledged or failed; one still pending at the
+     * deadline is kept in the outbox like a failure.
+     */
+    private void await(List<CompletableFuture<SendResult<String, String>>> sends) {
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (CompletableFuture<SendResult<String, String>> send : sends) {
+            try {
+                send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                // A failed send is read from its future
+            } catch (TimeoutException e) {
+                log.warn("Outbox sends still pending after {}, keeping them for the next run", sendTimeout);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
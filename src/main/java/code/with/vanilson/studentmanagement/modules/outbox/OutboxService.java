@@ -0,0 +1,68 @@
+package code.with.vanilson.studentmanagement.modules.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records an event in the caller's transaction. It only becomes visible to {@link OutboxRelay} if that
+ * transaction commits, so a rollback never leaves a published event behind and the caller never waits
+ * on the broker. Events are stored as JSON under their {@link DomainEvent#key() key}.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_event "
+            + "(topic, message_key, payload, attempts, created_at) VALUES (:topic, :key, :payload, 0, :createdAt)";
+
+    private final OutboxEventRepository repository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEvent event) {
+        repository.save(OutboxEvent.builder()
+                .topic(event.topic())
+                .key(event.key())
+                .payload(toJson(event))
+                .build());
+    }
+
+    /**
+     * Records the events with a single JDBC batch instead of one insert per event.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(List<? extends DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = events.stream()
+                .map(event -> new MapSqlParameterSource()
+                        .addValue("topic", event.topic())
+                        .addValue("key", event.key())
+                        .addValue("payload", toJson(event))
+                        .addValue("createdAt", now, Types.TIMESTAMP))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    private String toJson(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Event " + event.type() + " could not be serialized", e);
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package code.with.vanilson.studentmanagement.modules.student;
 
 import code.with.vanilson.studentmanagement.common.dto.ApiResponse;
+import code.with.vanilson.studentmanagement.common.dto.CursorPage;
+import code.with.vanilson.studentmanagement.common.dto.SearchHit;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
+import code.with.vanilson.studentmanagement.common.utils.ExportFormat;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/v1/students")
@@ -15,6 +29,9 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService service;
+    private final StudentExportService exportService;
+    private final StudentImportService importService;
+    private final EntityTags entityTags;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -30,15 +47,117 @@ public class StudentController {
     @io.swagger.v3.oas.annotations.Operation(summary = "Get student by ID", description = "Retrieves a student by their unique ID.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Student retrieved successfully")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Student not found")
-    public ResponseEntity<ApiResponse<StudentDto>> getStudent(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.success(service.getStudent(id), "Student retrieved successfully"));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    public ResponseEntity<ApiResponse<StudentDto>> getStudent(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String cachedTag = entityTags.cachedEntityTag(StudentService.ENTITY_TYPE, id);
+        if (EntityTags.matches(ifNoneMatch, cachedTag)) {
+            return EntityTags.notModified(cachedTag);
+        }
+        StudentDto student = service.getStudent(id);
+        return ResponseEntity.ok()
+                .eTag(entityTags.entityTag(StudentService.ENTITY_TYPE, id, student.getCreatedAt(), student.getUpdatedAt()))
+                .body(ApiResponse.success(student, "Student retrieved successfully"));
     }
 
     @GetMapping
-    @io.swagger.v3.oas.annotations.Operation(summary = "Get all students", description = "Retrieves a list of all students.")
+    @io.swagger.v3.oas.annotations.Operation(summary = "List students", description = "Retrieves a page of students ordered by creation time. Pass the returned nextCursor to fetch the following page.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Students retrieved successfully")
-    public ResponseEntity<ApiResponse<List<StudentDto>>> getAllStudents() {
-        return ResponseEntity.ok(ApiResponse.success(service.getAllStudents(), "Students retrieved successfully"));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    public ResponseEntity<ApiResponse<CursorPage<StudentDto>>> getAllStudents(
+            @RequestParam(required = false) Long degreeId,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        StudentFilter filter = StudentFilter.builder()
+                .degreeId(degreeId)
+                .name(name)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+        String normalizedName = name == null || name.isBlank() ? null : name.trim().toLowerCase(Locale.ROOT);
+        String tag = entityTags.collectionTag(StudentService.ENTITY_TYPE, degreeId, normalizedName, createdFrom,
+                createdTo, cursor, StudentService.pageSize(size));
+        if (EntityTags.matches(ifNoneMatch, tag)) {
+            return EntityTags.notModified(tag);
+        }
+        return ResponseEntity.ok().eTag(tag)
+                .body(ApiResponse.success(service.listStudents(filter, cursor, size), "Students retrieved successfully"));
+    }
+
+    @GetMapping("/search")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Search students", description = "Ranked, typo-tolerant search by name or email. Results are paged with page and size (max 50).")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Students retrieved successfully")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Search query too short")
+    public ResponseEntity<ApiResponse<Slice<SearchHit>>> searchStudents(@RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ApiResponse.success(service.searchStudents(q, page, size),
+                "Students retrieved successfully"));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Export students", description = "Streams all matching students as NDJSON or CSV. Requires ADMIN role.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Export stream started")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported export format")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden - Requires ADMIN role")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long degreeId,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StudentFilter filter = StudentFilter.builder()
+                .degreeId(degreeId)
+                .name(name)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+        StreamingResponseBody body = out -> exportService.export(filter, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"students." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_JSON_VALUE, "text/csv" })
+    @PreAuthorize("hasRole('ADMIN')")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Bulk import students", description = "Imports a JSON array or CSV body of students in batches. Invalid or duplicate rows are reported without aborting the import. Requires ADMIN role.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Import completed")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unreadable import body")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden - Requires ADMIN role")
+    public ResponseEntity<ApiResponse<StudentImportResult>> importStudents(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        StudentImportService.ImportFormat format = contentType.toLowerCase().contains("csv")
+                ? StudentImportService.ImportFormat.CSV
+                : StudentImportService.ImportFormat.JSON;
+        return ResponseEntity.ok(ApiResponse.success(importService.importStudents(body, format),
+                "Student import completed"));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Bulk import students from file", description = "Imports an uploaded .json or .csv file of students. Requires ADMIN role.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Import completed")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported or unreadable file")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden - Requires ADMIN role")
+    public ResponseEntity<ApiResponse<StudentImportResult>> importStudentsFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+        String resolved = format != null ? format : StringUtils.getFilenameExtension(file.getOriginalFilename());
+        StudentImportService.ImportFormat importFormat = StudentImportService.ImportFormat.from(resolved);
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(ApiResponse.success(importService.importStudents(in, importFormat),
+                    "Student import completed"));
+        }
     }
 
     @PutMapping("/{id}")
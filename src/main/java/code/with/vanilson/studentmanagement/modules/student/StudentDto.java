@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -15,13 +16,16 @@ public class StudentDto {
     private Long id;
 
     @jakarta.validation.constraints.NotBlank(message = "First name is required")
+    @jakarta.validation.constraints.Size(max = 255, message = "First name must be at most 255 characters")
     private String firstName;
 
     @jakarta.validation.constraints.NotBlank(message = "Last name is required")
+    @jakarta.validation.constraints.Size(max = 255, message = "Last name must be at most 255 characters")
     private String lastName;
 
     @jakarta.validation.constraints.NotBlank(message = "Email is required")
     @jakarta.validation.constraints.Email(message = "Invalid email format")
+    @jakarta.validation.constraints.Size(max = 255, message = "Email must be at most 255 characters")
     private String email;
 
     @jakarta.validation.constraints.NotNull(message = "Date of birth is required")
@@ -31,5 +35,10 @@ public class StudentDto {
     @jakarta.validation.constraints.NotBlank(message = "Address is required")
     private String address;
 
+    @jakarta.validation.constraints.Size(max = 50, message = "Phone number must be at most 50 characters")
     private String phoneNumber;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
 }
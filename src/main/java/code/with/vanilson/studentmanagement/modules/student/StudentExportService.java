@@ -0,0 +1,157 @@
+package code.with.vanilson.studentmanagement.modules.student;
+
+import code.with.vanilson.studentmanagement.common.utils.ExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class StudentExportService {
+
+    static final int FETCH_SIZE = 1000;
+
+    private static final String[] COLUMNS = {
+            "id", "first_name", "last_name", "email", "date_of_birth", "address", "phone_number", "degree_id",
+            "created_at"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public StudentExportService(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Streams every student matching the filter to {@code out}. Postgres only opens a server-side
+     * cursor when auto-commit is off, hence the read-only transaction around the query.
+     */
+    public void export(StudentFilter filter, ExportFormat format, OutputStream out) {
+        List<Object> args = new ArrayList<>();
+        String sql = buildQuery(filter, args);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(sql, args, writer);
+                } else {
+                    writeNdjson(sql, args, writer);
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeCsv(String sql, List<Object> args, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\n");
+        query(sql, args, rs -> {
+            try {
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    ExportFormat.writeCsvValue(writer, ExportFormat.columnText(rs, i + 1));
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(String sql, List<Object> args, Writer writer) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        query(sql, args, rs -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong(1));
+                generator.writeStringField("firstName", rs.getString(2));
+                generator.writeStringField("lastName", rs.getString(3));
+                generator.writeStringField("email", rs.getString(4));
+                generator.writeStringField("dateOfBirth", ExportFormat.columnText(rs, 5));
+                generator.writeStringField("address", rs.getString(6));
+                generator.writeStringField("phoneNumber", rs.getString(7));
+                generator.writeFieldName("degreeId");
+                long degreeId = rs.getLong(8);
+                if (rs.wasNull()) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(degreeId);
+                }
+                generator.writeStringField("createdAt", ExportFormat.columnText(rs, 9));
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
+        writer.write('\n');
+    }
+
+    private void query(String sql, List<Object> args, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    private String buildQuery(StudentFilter filter, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(String.join(", ", COLUMNS))
+                .append(" FROM student WHERE 1 = 1");
+        if (filter != null) {
+            if (filter.getDegreeId() != null) {
+                sql.append(" AND degree_id = ?");
+                args.add(filter.getDegreeId());
+            }
+            if (filter.getName() != null && !filter.getName().isBlank()) {
+                String prefix = StudentSpecifications.likePrefix(filter.getName());
+                sql.append(" AND (lower(last_name) LIKE ? ESCAPE '\\' OR lower(first_name) LIKE ? ESCAPE '\\')");
+                args.add(prefix);
+                args.add(prefix);
+            }
+            if (filter.getCreatedFrom() != null) {
+                sql.append(" AND created_at >= ?");
+                args.add(filter.getCreatedFrom());
+            }
+            if (filter.getCreatedTo() != null) {
+                sql.append(" AND created_at < ?");
+                args.add(filter.getCreatedTo());
+            }
+        }
+        return sql.append(" ORDER BY created_at, id").toString();
+    }
+}
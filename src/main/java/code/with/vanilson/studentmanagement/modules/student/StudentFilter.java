@@ -0,0 +1,19 @@
+package code.with.vanilson.studentmanagement.modules.student;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentFilter {
+    private Long degreeId;
+    private String name;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+}
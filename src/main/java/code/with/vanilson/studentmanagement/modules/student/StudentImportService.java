@@ -0,0 +1,331 @@
+package code.with.vanilson.studentmanagement.modules.student;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StudentImportService {
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO student "
+            + "(first_name, last_name, email, date_of_birth, address, phone_number, created_at) "
+            + "VALUES (:firstName, :lastName, :email, :dateOfBirth, :address, :phoneNumber, :createdAt) "
+            + "ON CONFLICT (email) DO NOTHING";
+
+    private final Logger log = LoggerFactory.getLogger(StudentImportService.class);
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityTags entityTags;
+
+    public enum ImportFormat {
+        JSON,
+        CSV;
+
+        public static ImportFormat from(String value) {
+            try {
+                return ImportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new ResourceBadRequestException("import.invalid_format", value);
+            }
+        }
+    }
+
+    public StudentImportResult importStudents(InputStream in, ImportFormat format) {
+        ImportRun run = new ImportRun();
+        try {
+            if (format == ImportFormat.CSV) {
+                readCsv(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), run);
+            } else {
+                readJson(in, run);
+            }
+        } catch (IOException e) {
+            if (run.result.getTotal() == 0) {
+                throw new ResourceBadRequestException("import.unreadable", e.getMessage());
+            }
+            // Rows read before the malformed section are still imported
+            run.rejectUnparsed(run.result.getTotal() + 1, null, "Unreadable input: " + e.getMessage());
+        }
+        run.flush();
+        if (run.result.getImported() > 0) {
+            entityTags.collectionChanged(StudentService.ENTITY_TYPE);
+        }
+        log.info("Student import finished: {} rows, {} imported, {} failed",
+                run.result.getTotal(), run.result.getImported(), run.result.getFailed());
+        return run.result;
+    }
+
+    private void readJson(InputStream in, ImportRun run) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResourceBadRequestException("import.unreadable", "expected a JSON array");
+            }
+            int row = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("unexpected end of input inside the JSON array");
+                }
+                row++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    run.rejectUnparsed(row, null, "Expected a JSON object but found " + token.asString());
+                    continue;
+                }
+                // Only one element is held as a tree at a time; a bad value fails that row, not the stream
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    run.accept(row, objectMapper.treeToValue(node, StudentDto.class));
+                } catch (JsonProcessingException e) {
+                    run.rejectUnparsed(row, node.path("email").asText(null), e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private void readCsv(Reader reader, ImportRun run) throws IOException {
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        int row = 0;
+        List<String> values;
+        while ((values = readCsvRecord(reader)) != null) {
+            row++;
+            try {
+                String dateOfBirth = csvValue(values, columns, "dateofbirth");
+                run.accept(row, StudentDto.builder()
+                        .firstName(csvValue(values, columns, "firstname"))
+                        .lastName(csvValue(values, columns, "lastname"))
+                        .email(csvValue(values, columns, "email"))
+                        .dateOfBirth(dateOfBirth == null ? null : LocalDate.parse(dateOfBirth))
+                        .address(csvValue(values, columns, "address"))
+                        .phoneNumber(csvValue(values, columns, "phonenumber"))
+                        .build());
+            } catch (DateTimeParseException e) {
+                run.rejectUnparsed(row, csvValue(values, columns, "email"), "dateOfBirth: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String csvValue(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads one RFC 4180 record, honouring quoted fields that contain separators or line breaks.
+     * Returns {@code null} at end of input.
+     */
+    static List<String> readCsvRecord(Reader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record PendingRow(int row, StudentDto dto) {
+    }
+
+    private class ImportRun {
+        private final StudentImportResult result = new StudentImportResult();
+        private final List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final Set<String> seenEmails = new HashSet<>();
+
+        void accept(int row, StudentDto dto) {
+            result.setTotal(result.getTotal() + 1);
+            Set<ConstraintViolation<StudentDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(row, dto.getEmail(), violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            if (!seenEmails.add(dto.getEmail())) {
+                reject(row, dto.getEmail(), "Duplicate email in import");
+                return;
+            }
+            chunk.add(new PendingRow(row, dto));
+            if (chunk.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void rejectUnparsed(int row, String email, String message) {
+            result.setTotal(result.getTotal() + 1);
+            reject(row, email, message);
+        }
+
+        void reject(int row, String email, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(new StudentImportResult.RowError(row, email, message));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<PendingRow> rows = new ArrayList<>(chunk);
+            chunk.clear();
+            insert(rows);
+        }
+
+        /**
+         * Inserts the rows in one transaction. If the database rejects the batch, the rows are split in half and
+         * retried so that only the offending rows are reported as failed.
+         */
+        private void insert(List<PendingRow> rows) {
+            ChunkOutcome outcome;
+            try {
+                outcome = transactionTemplate.execute(status -> insertChunk(rows));
+            } catch (DataAccessException e) {
+                if (rows.size() > 1) {
+                    log.debug("Student import chunk starting at row {} failed, retrying in halves",
+                            rows.get(0).row());
+                    int half = rows.size() / 2;
+                    insert(rows.subList(0, half));
+                    insert(rows.subList(half, rows.size()));
+                    return;
+                }
+                PendingRow r = rows.get(0);
+                log.warn("Student import row {} failed: {}", r.row(), e.getMostSpecificCause().getMessage());
+                reject(r.row(), r.dto().getEmail(), "Insert failed: " + e.getMostSpecificCause().getMessage());
+                return;
+            }
+            result.setImported(result.getImported() + outcome.imported());
+            outcome.duplicates().forEach(r -> reject(r.row(), r.dto().getEmail(),
+                    "Student with this email already exists"));
+        }
+    }
+
+    private record ChunkOutcome(int imported, List<PendingRow> duplicates) {
+    }
+
+    private ChunkOutcome insertChunk(List<PendingRow> rows) {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM student WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", rows.stream().map(r -> r.dto().getEmail()).toList()),
+                String.class));
+
+        List<PendingRow> duplicates = new ArrayList<>();
+        List<PendingRow> toInsert = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            if (existing.contains(row.dto().getEmail())) {
+                duplicates.add(row);
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return new ChunkOutcome(0, duplicates);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = toInsert.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("firstName", row.dto().getFirstName())
+                        .addValue("lastName", row.dto().getLastName())
+                        .addValue("email", row.dto().getEmail())
+                        .addValue("dateOfBirth", row.dto().getDateOfBirth(), Types.DATE)
+                        .addValue("address", row.dto().getAddress())
+                        .addValue("phoneNumber", row.dto().getPhoneNumber())
+                        .addValue("createdAt", now, Types.TIMESTAMP))
+                .toArray(SqlParameterSource[]::new);
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+
+        int imported = 0;
+        for (int i = 0; i < toInsert.size(); i++) {
+            if (counts[i] == 0) {
+                // ON CONFLICT DO NOTHING: lost a race with a concurrent insert of the same email
+                duplicates.add(toInsert.get(i));
+            } else {
+                imported++;
+            }
+        }
+        return new ChunkOutcome(imported, duplicates);
+    }
+}
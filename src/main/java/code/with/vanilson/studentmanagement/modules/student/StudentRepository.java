@@ -1,9 +1,30 @@
 package code.with.vanilson.studentmanagement.modules.student;
 
+import code.with.vanilson.studentmanagement.common.dto.SearchHit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student> {
     Optional<Student> findByEmail(String email);
+
+    @Query("SELECT s.degreeId FROM Student s WHERE s.id = :id")
+    Optional<Long> findDegreeIdById(@Param("id") Long id);
+
+    // Prefix full-text match or typo-tolerant trigram match; both are served by the V4 GIN indexes
+    @Query(value = "SELECT s.id AS \"id\", s.first_name AS \"firstName\", s.last_name AS \"lastName\", "
+            + "s.email AS \"email\", "
+            + "ts_rank(s.search_vector, to_tsquery('simple', :prefixQuery)) "
+            + "+ word_similarity(:term, lower(s.first_name || ' ' || s.last_name)) AS \"rank\" "
+            + "FROM student s "
+            + "WHERE s.search_vector @@ to_tsquery('simple', :prefixQuery) "
+            + "OR :term <% lower(s.first_name || ' ' || s.last_name) "
+            + "OR :term <% lower(s.email) "
+            + "ORDER BY \"rank\" DESC, s.id", nativeQuery = true)
+    Slice<SearchHit> search(@Param("term") String term, @Param("prefixQuery") String prefixQuery, Pageable pageable);
 }
@@ -1,20 +1,37 @@
 package code.with.vanilson.studentmanagement.modules.student;
 
+import code.with.vanilson.studentmanagement.common.dto.CursorPage;
+import code.with.vanilson.studentmanagement.common.dto.SearchHit;
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
+import code.with.vanilson.studentmanagement.common.utils.KeysetCursor;
+import code.with.vanilson.studentmanagement.common.utils.SearchQuery;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class StudentService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    public static final String ENTITY_TYPE = "student";
+    public static final String CACHE = "students";
+
+    private static final Sort KEYSET_ORDER = Sort.by("createdAt", "id");
+
     private final StudentRepository repository;
+    private final EntityTags entityTags;
 
+    @Transactional
     public StudentDto createStudent(StudentDto dto) {
         Student student = Student.builder()
                 .firstName(dto.getFirstName())
@@ -25,23 +42,46 @@ public class StudentService {
                 .phoneNumber(dto.getPhoneNumber())
                 .build();
         Student saved = repository.save(student);
+        entityTags.collectionChanged(ENTITY_TYPE);
         return mapToDto(saved);
     }
 
-    @Cacheable(value = "students", key = "#id")
+    @Cacheable(value = CACHE, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public StudentDto getStudent(Long id) {
         Student student = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("student.not_found", id));
         return mapToDto(student);
     }
 
-    public List<StudentDto> getAllStudents() {
-        return repository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<StudentDto> listStudents(StudentFilter filter, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Specification<Student> spec = StudentSpecifications.matching(filter)
+                .and(StudentSpecifications.after(KeysetCursor.decode(cursor)));
+
+        // Fetch one extra row to know whether another page exists without a count query
+        List<Student> rows = repository.findBy(spec, query -> query.sortBy(KEYSET_ORDER)
+                .limit(pageSize + 1)
+                .all());
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Student> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Student last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPage.of(page.stream().map(this::mapToDto).toList(), nextCursor);
     }
 
-    @CacheEvict(value = "students", key = "#id")
+    @Transactional(readOnly = true)
+    public Slice<SearchHit> searchStudents(String query, Integer page, Integer size) {
+        SearchQuery search = SearchQuery.of(query);
+        return repository.search(search.getTerm(), search.getPrefixQuery(), SearchQuery.page(page, size));
+    }
+
+    @Transactional
     public StudentDto updateStudent(Long id, StudentDto dto) {
         Student student = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("student.not_found", id));
@@ -52,12 +92,18 @@ public class StudentService {
         student.setPhoneNumber(dto.getPhoneNumber());
 
         Student updated = repository.save(student);
+        entityTags.entityChanged(ENTITY_TYPE, id, CACHE);
         return mapToDto(updated);
     }
 
-    @CacheEvict(value = "students", key = "#id")
+    @Transactional
     public void deleteStudent(Long id) {
         repository.deleteById(id);
+        entityTags.entityChanged(ENTITY_TYPE, id, CACHE);
+    }
+
+    static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
     private StudentDto mapToDto(Student student) {
@@ -69,6 +115,8 @@ public class StudentService {
                 .dateOfBirth(student.getDateOfBirth())
                 .address(student.getAddress())
                 .phoneNumber(student.getPhoneNumber())
+                .createdAt(student.getCreatedAt())
+                .updatedAt(student.getUpdatedAt())
                 .build();
     }
 }
@@ -0,0 +1,52 @@
+package code.with.vanilson.studentmanagement.modules.student;
+
+import code.with.vanilson.studentmanagement.common.utils.KeysetCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+public final class StudentSpecifications {
+
+    private StudentSpecifications() {
+    }
+
+    public static Specification<Student> matching(StudentFilter filter) {
+        Specification<Student> spec = Specification.where(null);
+        if (filter == null) {
+            return spec;
+        }
+        if (filter.getDegreeId() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("degreeId"), filter.getDegreeId()));
+        }
+        if (filter.getName() != null && !filter.getName().isBlank()) {
+            String prefix = likePrefix(filter.getName());
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.like(cb.lower(root.get("lastName")), prefix, '\\'),
+                    cb.like(cb.lower(root.get("firstName")), prefix, '\\')));
+        }
+        if (filter.getCreatedFrom() != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"),
+                    filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get("createdAt"), filter.getCreatedTo()));
+        }
+        return spec;
+    }
+
+    public static Specification<Student> after(KeysetCursor cursor) {
+        if (cursor == null) {
+            return Specification.where(null);
+        }
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("createdAt"), cursor.getPosition()),
+                cb.and(cb.equal(root.get("createdAt"), cursor.getPosition()),
+                        cb.greaterThan(root.get("id"), cursor.getId())));
+    }
+
+    static String likePrefix(String value) {
+        String escaped = value.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return escaped + "%";
+    }
+}
@@ -1,7 +1,11 @@
 package code.with.vanilson.studentmanagement.modules.teacher;
 
 import code.with.vanilson.studentmanagement.common.dto.ApiResponse;
+import code.with.vanilson.studentmanagement.common.dto.SearchHit;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,6 +17,7 @@ import java.util.List;
 @io.swagger.v3.oas.annotations.tags.Tag(name = "Teachers", description = "Endpoints for managing teachers")
 public class TeacherController {
     private final TeacherService service;
+    private final EntityTags entityTags;
 
     @PostMapping
     @io.swagger.v3.oas.annotations.Operation(summary = "Create a new teacher", description = "Creates a new teacher record.")
@@ -24,15 +29,42 @@ public class TeacherController {
     @GetMapping
     @io.swagger.v3.oas.annotations.Operation(summary = "Get all teachers", description = "Retrieves a list of all teachers.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Teachers retrieved successfully")
-    public ResponseEntity<ApiResponse<List<Teacher>>> getAllTeachers() {
-        return ResponseEntity.ok(ApiResponse.success(service.getAllTeachers(), "Teachers retrieved successfully"));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    public ResponseEntity<ApiResponse<List<Teacher>>> getAllTeachers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String tag = entityTags.collectionTag(TeacherService.ENTITY_TYPE);
+        if (EntityTags.matches(ifNoneMatch, tag)) {
+            return EntityTags.notModified(tag);
+        }
+        return ResponseEntity.ok().eTag(tag)
+                .body(ApiResponse.success(service.getAllTeachers(), "Teachers retrieved successfully"));
+    }
+
+    @GetMapping("/search")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Search teachers", description = "Ranked, typo-tolerant search by name or email, also matching expertise. Results are paged with page and size (max 50).")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Teachers retrieved successfully")
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Search query too short")
+    public ResponseEntity<ApiResponse<Slice<SearchHit>>> searchTeachers(@RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(ApiResponse.success(service.searchTeachers(q, page, size),
+                "Teachers retrieved successfully"));
     }
 
     @GetMapping("/{id}")
     @io.swagger.v3.oas.annotations.Operation(summary = "Get teacher by ID", description = "Retrieves a teacher by their unique ID.")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Teacher retrieved successfully")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Teacher not found")
-    public ResponseEntity<ApiResponse<Teacher>> getTeacherById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.success(service.getTeacherById(id), "Teacher retrieved successfully"));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    public ResponseEntity<ApiResponse<Teacher>> getTeacherById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String cachedTag = entityTags.cachedEntityTag(TeacherService.ENTITY_TYPE, id);
+        if (EntityTags.matches(ifNoneMatch, cachedTag)) {
+            return EntityTags.notModified(cachedTag);
+        }
+        Teacher teacher = service.getTeacherById(id);
+        return ResponseEntity.ok()
+                .eTag(entityTags.entityTag(TeacherService.ENTITY_TYPE, id, teacher.getCreatedAt(), teacher.getUpdatedAt()))
+                .body(ApiResponse.success(teacher, "Teacher retrieved successfully"));
     }
 }
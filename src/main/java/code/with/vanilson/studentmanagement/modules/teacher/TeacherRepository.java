@@ -1,7 +1,24 @@
 package code.with.vanilson.studentmanagement.modules.teacher;
 
+import code.with.vanilson.studentmanagement.common.dto.SearchHit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     boolean existsByEmail(String email);
+
+    // Prefix full-text match (names, email, expertise) or typo-tolerant trigram match on name/email
+    @Query(value = "SELECT t.id AS \"id\", t.first_name AS \"firstName\", t.last_name AS \"lastName\", "
+            + "t.email AS \"email\", "
+            + "ts_rank(t.search_vector, to_tsquery('simple', :prefixQuery)) "
+            + "+ word_similarity(:term, lower(t.first_name || ' ' || t.last_name)) AS \"rank\" "
+            + "FROM teacher t "
+            + "WHERE t.search_vector @@ to_tsquery('simple', :prefixQuery) "
+            + "OR :term <% lower(t.first_name || ' ' || t.last_name) "
+            + "OR :term <% lower(t.email) "
+            + "ORDER BY \"rank\" DESC, t.id", nativeQuery = true)
+    Slice<SearchHit> search(@Param("term") String term, @Param("prefixQuery") String prefixQuery, Pageable pageable);
 }
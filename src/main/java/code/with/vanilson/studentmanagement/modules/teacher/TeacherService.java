@@ -1,27 +1,47 @@
 package code.with.vanilson.studentmanagement.modules.teacher;
 
+import code.with.vanilson.studentmanagement.common.dto.SearchHit;
 import code.with.vanilson.studentmanagement.common.exception.ResourceAlreadyExistsException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
+import code.with.vanilson.studentmanagement.common.utils.SearchQuery;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class TeacherService {
+
+    public static final String ENTITY_TYPE = "teacher";
+
     private final TeacherRepository repository;
+    private final EntityTags entityTags;
 
+    @Transactional
     public Teacher createTeacher(Teacher teacher) {
         if (repository.existsByEmail(teacher.getEmail())) {
             throw new ResourceAlreadyExistsException("teacher.email_exists", teacher.getEmail());
         }
-        return repository.save(teacher);
+        Teacher saved = repository.save(teacher);
+        entityTags.collectionChanged(ENTITY_TYPE);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Teacher> getAllTeachers() {
         return repository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public Slice<SearchHit> searchTeachers(String query, Integer page, Integer size) {
+        SearchQuery search = SearchQuery.of(query);
+        return repository.search(search.getTerm(), search.getPrefixQuery(), SearchQuery.page(page, size));
+    }
+
+    @Transactional(readOnly = true)
     public Teacher getTeacherById(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException(
@@ -0,0 +1,12 @@
+-- Partitions of cluster-wide batch jobs. A node owns a partition while its lease is valid; run_key identifies
+-- the run (e.g. the business date) and completed_at marks the partition done for that run.
+CREATE TABLE IF NOT EXISTS job_partition (
+    job_name VARCHAR(100) NOT NULL,
+    partition_no INT NOT NULL,
+    run_key VARCHAR(100) NOT NULL,
+    owner VARCHAR(100),
+    lease_until TIMESTAMP,
+    processed BIGINT NOT NULL DEFAULT 0,
+    completed_at TIMESTAMP,
+    PRIMARY KEY (job_name, partition_no)
+);
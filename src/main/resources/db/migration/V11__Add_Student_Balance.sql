@@ -0,0 +1,21 @@
+-- Per-student billing totals maintained with every invoice change, so reading a balance is one row.
+-- Amounts include penalties; outstanding covers PENDING and OVERDUE invoices.
+CREATE TABLE IF NOT EXISTS student_balance (
+    student_id BIGINT PRIMARY KEY REFERENCES student(id) ON DELETE CASCADE,
+    outstanding DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    overdue DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    paid_to_date DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    penalties DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO student_balance (student_id, outstanding, overdue, paid_to_date, penalties)
+SELECT student_id,
+       COALESCE(SUM(amount + COALESCE(penalty_amount, 0)) FILTER (WHERE status IN ('PENDING', 'OVERDUE')), 0),
+       COALESCE(SUM(amount + COALESCE(penalty_amount, 0)) FILTER (WHERE status = 'OVERDUE'), 0),
+       COALESCE(SUM(amount + COALESCE(penalty_amount, 0)) FILTER (WHERE status = 'PAID'), 0),
+       COALESCE(SUM(penalty_amount) FILTER (WHERE status <> 'CANCELLED'), 0)
+FROM invoice
+WHERE student_id IS NOT NULL
+GROUP BY student_id
+ON CONFLICT (student_id) DO NOTHING;
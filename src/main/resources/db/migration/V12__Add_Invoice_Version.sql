@@ -0,0 +1,2 @@
+-- Optimistic locking for invoice payments
+ALTER TABLE invoice ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
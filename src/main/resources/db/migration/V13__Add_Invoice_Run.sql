@@ -0,0 +1,25 @@
+-- Term-wide bulk invoicing of a degree. One run per degree and term; last_student_id is the checkpoint a
+-- resumed run continues from, and the node holding the lease is the only one processing it.
+CREATE TABLE IF NOT EXISTS invoice_run (
+    id BIGSERIAL PRIMARY KEY,
+    degree_id BIGINT NOT NULL REFERENCES degree(id),
+    term VARCHAR(50) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    due_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_students INT NOT NULL DEFAULT 0,
+    invoiced INT NOT NULL DEFAULT 0,
+    last_student_id BIGINT NOT NULL DEFAULT 0,
+    owner VARCHAR(100),
+    lease_until TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_invoice_run_degree_term UNIQUE (degree_id, term)
+);
+
+-- A chunk replayed after a crash cannot invoice a student twice in the same run
+ALTER TABLE invoice ADD COLUMN IF NOT EXISTS run_id BIGINT REFERENCES invoice_run(id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_invoice_run_student ON invoice (run_id, student_id) WHERE run_id IS NOT NULL;
+
+-- Runs walk the students of a degree in id order
+CREATE INDEX IF NOT EXISTS idx_student_degree_id ON student (degree_id, id);
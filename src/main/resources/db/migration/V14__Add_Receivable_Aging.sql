@@ -0,0 +1,25 @@
+-- Open receivables summed per degree and due date, kept up to date in the transaction of every invoice change.
+-- Aging buckets are derived from due_date when the report is read, so the rows never need to move between
+-- buckets as time passes. Amounts include penalties and cover PENDING and OVERDUE invoices.
+CREATE TABLE IF NOT EXISTS receivable_aging (
+    id BIGSERIAL PRIMARY KEY,
+    degree_id BIGINT,
+    due_date DATE NOT NULL,
+    outstanding DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    invoices INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+-- Students without a degree are summed under one row per due date
+CREATE UNIQUE INDEX IF NOT EXISTS uk_receivable_aging ON receivable_aging ((COALESCE(degree_id, 0)), due_date);
+
+-- The degree an invoice is counted under, fixed at creation so a payment takes it off the same row
+-- even if the student changed degree since
+ALTER TABLE invoice ADD COLUMN IF NOT EXISTS degree_id BIGINT;
+UPDATE invoice i SET degree_id = s.degree_id FROM student s WHERE s.id = i.student_id AND i.degree_id IS NULL;
+
+INSERT INTO receivable_aging (degree_id, due_date, outstanding, invoices)
+SELECT degree_id, due_date, SUM(amount + COALESCE(penalty_amount, 0)), count(*)
+FROM invoice
+WHERE status IN ('PENDING', 'OVERDUE')
+GROUP BY degree_id, due_date
+ON CONFLICT ((COALESCE(degree_id, 0)), due_date) DO NOTHING;
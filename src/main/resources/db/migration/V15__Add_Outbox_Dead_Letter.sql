@@ -0,0 +1,12 @@
+-- Outbox events the relay gave up on: the broker kept rejecting them with a non-retriable error. They are
+-- moved here so later events of the same key can be relayed, and kept for inspection or a manual replay.
+CREATE TABLE IF NOT EXISTS outbox_dead_letter (
+    id BIGINT PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL,
+    error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    dead_lettered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,6 @@
+-- Keyset pagination over student ordered by (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_student_created_at_id ON student (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_student_degree_created_at_id ON student (degree_id, created_at, id);
+-- Case-insensitive name prefix filters
+CREATE INDEX IF NOT EXISTS idx_student_last_name_prefix ON student (lower(last_name) varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_student_first_name_prefix ON student (lower(first_name) varchar_pattern_ops);
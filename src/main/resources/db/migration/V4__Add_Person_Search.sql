@@ -0,0 +1,21 @@
+-- Ranked, typo-tolerant name/email search over students and teachers
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE student ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(first_name, '') || ' ' || coalesce(last_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(email, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_student_search_vector ON student USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_student_full_name_trgm ON student USING GIN (lower(first_name || ' ' || last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_student_email_trgm ON student USING GIN (lower(email) gin_trgm_ops);
+
+ALTER TABLE teacher ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(first_name, '') || ' ' || coalesce(last_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(email, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(expertise, '')), 'C')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_teacher_search_vector ON teacher USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_teacher_full_name_trgm ON teacher USING GIN (lower(first_name || ' ' || last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_teacher_email_trgm ON teacher USING GIN (lower(email) gin_trgm_ops);
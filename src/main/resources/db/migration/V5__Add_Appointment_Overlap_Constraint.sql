@@ -0,0 +1,8 @@
+-- A teacher cannot have two overlapping SCHEDULED appointments. Enforced by the database so concurrent
+-- bookings cannot both pass an application-side overlap check; the GiST index also serves overlap lookups.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE appointment
+    ADD CONSTRAINT appointment_teacher_no_overlap
+    EXCLUDE USING gist (teacher_id WITH =, tsrange(start_time, end_time) WITH &&)
+    WHERE (status = 'SCHEDULED');
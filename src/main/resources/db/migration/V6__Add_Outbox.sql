@@ -0,0 +1,11 @@
+-- Events written in the same transaction as the change they describe and relayed to Kafka afterwards.
+-- Rows are deleted once the broker acknowledged them, so the table only holds the relay backlog.
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);
@@ -0,0 +1,5 @@
+-- Student appointment history is paged by (start_time, id) within a student. The INCLUDE columns
+-- cover the history projection so pages are served by index-only scans.
+CREATE INDEX IF NOT EXISTS idx_appointment_student_start_time
+    ON appointment (student_id, start_time, id) INCLUDE (teacher_id, end_time, status);
+CREATE INDEX IF NOT EXISTS idx_appointment_teacher_start_time ON appointment (teacher_id, start_time);
@@ -0,0 +1,12 @@
+-- One row per reminder sent. The primary key is what keeps a reminder from going out twice across
+-- restarts and nodes: the sender inserts first and only notifies for rows it actually inserted.
+CREATE TABLE IF NOT EXISTS appointment_reminder (
+    appointment_id BIGINT NOT NULL REFERENCES appointment(id) ON DELETE CASCADE,
+    kind VARCHAR(20) NOT NULL,
+    sent_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (appointment_id, kind)
+);
+
+-- Reminder loading scans SCHEDULED appointments by start time window
+CREATE INDEX IF NOT EXISTS idx_appointment_scheduled_start_time
+    ON appointment (start_time, id) WHERE status = 'SCHEDULED';
@@ -0,0 +1,3 @@
+-- Late-penalty job scans pending invoices by due date; paid and overdue ones stay out of the index
+CREATE INDEX IF NOT EXISTS idx_invoice_pending_due_date
+    ON invoice (due_date, id) WHERE status = 'PENDING';
@@ -0,0 +1,130 @@
+package code.with.vanilson.studentmanagement.common.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("EntityTags Unit Tests")
+class EntityTagsTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 2, 1, 10, 0);
+
+    private EntityTags entityTags;
+
+    @BeforeEach
+    void setUp() {
+        entityTags = new EntityTags(new ConcurrentMapCacheManager());
+    }
+
+    @Test
+    @DisplayName("Should derive the entity tag from id and last modification and cache it")
+    void entityTag_ShouldBeStableAndCached() {
+        // When
+        String tag = entityTags.entityTag("student", 1L, CREATED, null);
+
+        // Then
+        assertTrue(tag.startsWith("\"") && tag.endsWith("\""));
+        assertEquals(tag, entityTags.entityTag("student", 1L, CREATED, null));
+        assertEquals(tag, entityTags.cachedEntityTag("student", 1L));
+        assertNotEquals(tag, entityTags.entityTag("student", 1L, CREATED, UPDATED));
+        assertNotEquals(tag, entityTags.entityTag("teacher", 1L, CREATED, null));
+    }
+
+    @Test
+    @DisplayName("Should forget the entity tag and bump the collection tag on change")
+    void entityChanged_ShouldInvalidateTags() {
+        // Given
+        entityTags.entityTag("student", 1L, CREATED, null);
+        String listTag = entityTags.collectionTag("student");
+        assertEquals(listTag, entityTags.collectionTag("student"));
+
+        // When
+        entityTags.entityChanged("student", 1L);
+
+        // Then
+        assertNull(entityTags.cachedEntityTag("student", 1L));
+        assertNotEquals(listTag, entityTags.collectionTag("student"));
+    }
+
+    @Test
+    @DisplayName("Should issue a different collection tag for every page and filter")
+    void collectionTag_ShouldDependOnQuery() {
+        // When
+        String firstPage = entityTags.collectionTag("student", 3L, null, 50);
+
+        // Then
+        assertEquals(firstPage, entityTags.collectionTag("student", 3L, null, 50));
+        assertNotEquals(firstPage, entityTags.collectionTag("student", 3L, "cursor-2", 50));
+        assertNotEquals(firstPage, entityTags.collectionTag("student", 4L, null, 50));
+        assertNotEquals(firstPage, entityTags.collectionTag("student", 3L, null, 20));
+        assertNotEquals(entityTags.collectionTag("student", "a|1:b", null),
+                entityTags.collectionTag("student", "a", "b"));
+    }
+
+    @Test
+    @DisplayName("Should evict the cached value before forgetting the entity tag")
+    void entityChanged_WithValueCache_ShouldEvictValue() {
+        // Given
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        entityTags = new EntityTags(cacheManager);
+        cacheManager.getCache("students").put(1L, "stale");
+        entityTags.entityTag("student", 1L, CREATED, null);
+
+        // When
+        entityTags.entityChanged("student", 1L, "students");
+
+        // Then
+        assertNull(cacheManager.getCache("students").get(1L));
+        assertNull(entityTags.cachedEntityTag("student", 1L));
+    }
+
+    @Test
+    @DisplayName("Should invalidate again after commit what a read cached while the transaction was open")
+    void entityChanged_InTransaction_ShouldEvictAgainAfterCommit() {
+        // Given
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        entityTags = new EntityTags(cacheManager);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            entityTags.entityChanged("student", 1L, "students");
+
+            // A read before commit caches the old value under a fresh tag
+            cacheManager.getCache("students").put(1L, "stale");
+            entityTags.entityTag("student", 1L, CREATED, null);
+            String listTag = entityTags.collectionTag("student");
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            assertNull(cacheManager.getCache("students").get(1L));
+            assertNull(entityTags.cachedEntityTag("student", 1L));
+            assertNotEquals(listTag, entityTags.collectionTag("student"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should match If-None-Match lists, weak tags and wildcard")
+    void matches_ShouldUseWeakComparison() {
+        assertTrue(EntityTags.matches("\"a\"", "\"a\""));
+        assertTrue(EntityTags.matches("\"x\", W/\"a\"", "\"a\""));
+        assertTrue(EntityTags.matches("*", "\"a\""));
+        assertFalse(EntityTags.matches("\"b\"", "\"a\""));
+        assertFalse(EntityTags.matches(null, "\"a\""));
+        assertFalse(EntityTags.matches("\"a\"", null));
+    }
+}
@@ -0,0 +1,33 @@
+package code.with.vanilson.studentmanagement.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ExportFormat Unit Tests")
+class ExportFormatTest {
+
+    @Test
+    @DisplayName("Should accept gzip listed as a coding with a non-zero quality")
+    void acceptsGzip_GzipListed_ShouldAccept() {
+        assertTrue(ExportFormat.acceptsGzip("gzip"));
+        assertTrue(ExportFormat.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(ExportFormat.acceptsGzip("br ; q=1, x-gzip"));
+        assertTrue(ExportFormat.acceptsGzip("br, *;q=0.1"));
+    }
+
+    @Test
+    @DisplayName("Should refuse gzip when absent, refused with q=0 or only part of another token")
+    void acceptsGzip_NotAcceptable_ShouldRefuse() {
+        assertFalse(ExportFormat.acceptsGzip(null));
+        assertFalse(ExportFormat.acceptsGzip(""));
+        assertFalse(ExportFormat.acceptsGzip("identity"));
+        assertFalse(ExportFormat.acceptsGzip("gzip;q=0"));
+        assertFalse(ExportFormat.acceptsGzip("gzip;q=0.000, *"));
+        assertFalse(ExportFormat.acceptsGzip("*;q=0"));
+        assertFalse(ExportFormat.acceptsGzip("gzipx, not-gzip"));
+        assertFalse(ExportFormat.acceptsGzip("gzip;q=high"));
+    }
+}
@@ -0,0 +1,149 @@
+package code.with.vanilson.studentmanagement.common.utils;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotentRequests Unit Tests")
+class IdempotentRequestsTest {
+
+    private static final String REDIS_KEY = "idempotency:pay:1:key-1";
+    private static final TypeReference<Map<String, String>> TYPE = new TypeReference<>() {
+    };
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private IdempotentRequests idempotentRequests;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotentRequests = new IdempotentRequests(redisTemplate, new ObjectMapper(), Duration.ofHours(24),
+                Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should run the first request and store its response")
+    void execute_FirstRequest_ShouldRunAndStore() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(REDIS_KEY, "", Duration.ofMinutes(1))).thenReturn(true);
+
+        // When
+        ResponseEntity<Map<String, String>> response = idempotentRequests.execute("pay:1", "key-1", TYPE, this::paid);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, runs.get());
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq(REDIS_KEY), stored.capture(), eq(Duration.ofHours(24)));
+        assertEquals("{\"status\":200,\"body\":{\"status\":\"PAID\"}}", stored.getValue());
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response without running the request again")
+    void execute_Retry_ShouldReplay() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(REDIS_KEY, "", Duration.ofMinutes(1))).thenReturn(false);
+        when(valueOperations.get(REDIS_KEY)).thenReturn("{\"status\":200,\"body\":{\"status\":\"PAID\"}}");
+
+        // When
+        ResponseEntity<Map<String, String>> response = idempotentRequests.execute("pay:1", "key-1", TYPE, this::paid);
+
+        // Then
+        assertEquals(0, runs.get());
+        assertEquals(Map.of("status", "PAID"), response.getBody());
+        assertEquals("true", response.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should reject a retry while the first request is still running")
+    void execute_InProgress_ShouldConflict() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(REDIS_KEY, "", Duration.ofMinutes(1))).thenReturn(false);
+        when(valueOperations.get(REDIS_KEY)).thenReturn("");
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> idempotentRequests.execute("pay:1", "key-1", TYPE, this::paid));
+        assertEquals(IdempotentRequests.IN_PROGRESS_MESSAGE, exception.getMessage());
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    @DisplayName("Should release the key when the request fails so a retry runs again")
+    void execute_Failure_ShouldReleaseKey() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(REDIS_KEY, "", Duration.ofMinutes(1))).thenReturn(true);
+
+        // When & Then
+        assertThrows(ResourceBadRequestException.class, () -> idempotentRequests.execute("pay:1", "key-1", TYPE,
+                () -> {
+                    throw new ResourceBadRequestException("billing.invoice_already_paid", 1L);
+                }));
+        verify(redisTemplate).delete(REDIS_KEY);
+        verify(valueOperations, never()).set(anyString(), anyString(), eq(Duration.ofHours(24)));
+    }
+
+    @Test
+    @DisplayName("Should run the request unprotected when Redis is unavailable")
+    void execute_RedisDown_ShouldRunRequest() {
+        // Given
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+
+        // When
+        ResponseEntity<Map<String, String>> response = idempotentRequests.execute("pay:1", "key-1", TYPE, this::paid);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    @DisplayName("Should reject blank and oversized keys")
+    void execute_InvalidKey_ShouldThrowBadRequest() {
+        assertThrows(ResourceBadRequestException.class,
+                () -> idempotentRequests.execute("pay:1", " ", TYPE, this::paid));
+        assertThrows(ResourceBadRequestException.class,
+                () -> idempotentRequests.execute("pay:1", "k".repeat(IdempotentRequests.MAX_KEY_LENGTH + 1),
+                        TYPE, this::paid));
+        assertEquals(0, runs.get());
+    }
+
+    private ResponseEntity<Map<String, String>> paid() {
+        runs.incrementAndGet();
+        return ResponseEntity.ok(Map.of("status", "PAID"));
+    }
+}
@@ -0,0 +1,157 @@
+package code.with.vanilson.studentmanagement.common.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PartitionedJobRunner Unit Tests")
+class PartitionedJobRunnerTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PartitionedJobRunner runner;
+    private SimpleTransactionStatus lastStatus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        runner = new PartitionedJobRunner(jdbcTemplate, transactionTemplate, Duration.ofMinutes(5));
+        lenient().when(transactionTemplate.execute(any(TransactionCallback.class))).thenAnswer(invocation -> {
+            lastStatus = new SimpleTransactionStatus();
+            return ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(lastStatus);
+        });
+    }
+
+    @Test
+    @DisplayName("Should process only the partitions it claimed, chunk by chunk until one is empty")
+    void run_ShouldProcessClaimedPartitions() {
+        // Given
+        seeded();
+        when(jdbcTemplate.update(startsWith("UPDATE job_partition SET owner"), any(MapSqlParameterSource.class)))
+                .thenAnswer(invocation -> partition(invocation.getArgument(1)) == 1 ? 0 : 1);
+        when(jdbcTemplate.update(contains("processed = processed +"), any(MapSqlParameterSource.class)))
+                .thenReturn(1);
+        Map<Integer, Deque<Integer>> counts = Map.of(
+                0, new ArrayDeque<>(List.of(2, 1, 0)),
+                2, new ArrayDeque<>(List.of(4, 0)));
+        List<Integer> chunks = new ArrayList<>();
+
+        // When
+        long total = runner.run("job", "2024-01-01", 3, (partition, partitions) -> {
+            chunks.add(partition);
+            return counts.get(partition).pop();
+        });
+
+        // Then
+        assertEquals(List.of(0, 0, 0, 2, 2), chunks);
+        assertEquals(2 + 1 + 4, total);
+    }
+
+    @Test
+    @DisplayName("Should roll back the chunk and give up the partition when the lease was taken over")
+    void run_LeaseLost_ShouldRollBackChunk() {
+        // Given
+        seeded();
+        when(jdbcTemplate.update(startsWith("UPDATE job_partition SET owner"), any(MapSqlParameterSource.class)))
+                .thenReturn(1);
+        when(jdbcTemplate.update(contains("processed = processed +"), any(MapSqlParameterSource.class)))
+                .thenReturn(0);
+
+        // When
+        long total = runner.run("job", "2024-01-01", 1, (partition, partitions) -> 10);
+
+        // Then
+        assertEquals(0, total);
+        assertTrue(lastStatus.isRollbackOnly());
+    }
+
+    @Test
+    @DisplayName("Should release a partition whose remaining rows are locked without completing it")
+    void run_RowsLockedElsewhere_ShouldLeavePartitionOpen() {
+        // Given
+        seeded();
+        when(jdbcTemplate.update(startsWith("UPDATE job_partition SET owner"), any(MapSqlParameterSource.class)))
+                .thenReturn(1);
+        when(jdbcTemplate.update(contains("processed = processed +"), any(MapSqlParameterSource.class)))
+                .thenReturn(1);
+        Deque<Integer> counts = new ArrayDeque<>(List.of(3, PartitionedJobRunner.Chunk.LOCKED));
+
+        // When
+        long total = runner.run("job", "2024-01-01", 1, (partition, partitions) -> counts.pop());
+
+        // Then
+        assertEquals(3, total);
+        assertTrue(counts.isEmpty());
+        ArgumentCaptor<MapSqlParameterSource> checkpoints = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).update(contains("processed = processed +"), checkpoints.capture());
+        MapSqlParameterSource released = checkpoints.getAllValues().get(1);
+        assertEquals(0, released.getValue("processed"));
+        assertEquals(false, released.getValue("open"));
+        assertEquals(false, released.getValue("done"));
+        assertEquals(true, checkpoints.getAllValues().get(0).getValue("open"));
+    }
+
+    @Test
+    @DisplayName("Should move on to the next partition when one fails")
+    void run_PartitionFails_ShouldContinueWithNext() {
+        // Given
+        seeded();
+        when(jdbcTemplate.update(startsWith("UPDATE job_partition SET owner"), any(MapSqlParameterSource.class)))
+                .thenReturn(1);
+        when(jdbcTemplate.update(contains("processed = processed +"),
+                argThat((MapSqlParameterSource params) -> partition(params) == 1))).thenReturn(1);
+
+        // When
+        long total = runner.run("job", "2024-01-01", 2, (partition, partitions) -> {
+            if (partition == 0) {
+                throw new QueryTimeoutException("timeout");
+            }
+            return 0;
+        });
+
+        // Then
+        assertEquals(0, total);
+    }
+
+    private void seeded() {
+        when(jdbcTemplate.update(startsWith("INSERT INTO job_partition"), any(MapSqlParameterSource.class)))
+                .thenReturn(1);
+    }
+
+    private static int partition(MapSqlParameterSource params) {
+        return (Integer) params.getValue("partition");
+    }
+}
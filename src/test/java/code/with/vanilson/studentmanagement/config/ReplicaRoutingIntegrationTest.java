@@ -0,0 +1,120 @@
+package code.with.vanilson.studentmanagement.config;
+
+import code.with.vanilson.studentmanagement.AbstractIntegrationTest;
+import code.with.vanilson.studentmanagement.modules.appointment.AppointmentRepository;
+import code.with.vanilson.studentmanagement.modules.billing.InvoiceRepository;
+import code.with.vanilson.studentmanagement.modules.student.Student;
+import code.with.vanilson.studentmanagement.modules.student.StudentDto;
+import code.with.vanilson.studentmanagement.modules.student.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs writes with the replica split enabled. The replica is the same database behind a read-only pool, so a
+ * write that ends up on a replica connection fails just as it would against a real standby.
+ */
+class ReplicaRoutingIntegrationTest extends AbstractIntegrationTest {
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("application.datasource.replica.url", postgres::getJdbcUrl);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        if (cacheManager.getCache("students") != null) {
+            cacheManager.getCache("students").clear();
+        }
+        appointmentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        studentRepository.deleteAll();
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isAvailable()).isTrue();
+
+        student = studentRepository.save(Student.builder()
+                .firstName("Dana")
+                .lastName("Reed")
+                .email("dana.reed@example.com")
+                .dateOfBirth(LocalDate.of(1999, 4, 2))
+                .address("Old Address")
+                .build());
+    }
+
+    @Test
+    @DisplayName("Integration: Update a student with a replica configured")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void updateStudent_WithReplica() throws Exception {
+        StudentDto update = StudentDto.builder()
+                .firstName("Dana")
+                .lastName("Reed")
+                .email("dana.reed@example.com")
+                .dateOfBirth(LocalDate.of(1999, 4, 2))
+                .address("New Address")
+                .build();
+
+        mockMvc.perform(put("/api/v1/students/" + student.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.address").value("New Address"));
+
+        assertThat(studentRepository.findById(student.getId()).orElseThrow().getAddress())
+                .isEqualTo("New Address");
+    }
+
+    @Test
+    @DisplayName("Integration: Delete a student with a replica configured")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void deleteStudent_WithReplica() throws Exception {
+        mockMvc.perform(delete("/api/v1/students/" + student.getId())
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        assertThat(studentRepository.findById(student.getId())).isEmpty();
+    }
+}
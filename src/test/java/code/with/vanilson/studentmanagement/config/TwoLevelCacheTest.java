@@ -0,0 +1,254 @@
+package code.with.vanilson.studentmanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TwoLevelCache Unit Tests")
+class TwoLevelCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private MeterRegistry meterRegistry;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(remoteCacheManager, redisTemplate, meterRegistry, 100,
+                Duration.ofMinutes(5), Duration.ofHours(1), 1.0);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from L1 once filled from L2")
+    void get_ShouldFillLocalTierFromRemote() {
+        // Given
+        remoteCacheManager.getCache("students").put(1L, "alice");
+        Cache cache = cacheManager.getCache("students");
+
+        // When
+        cache.get(1L);
+        Object second = cache.get(1L).get();
+
+        // Then
+        assertEquals("alice", second);
+        assertEquals(1.0, count("l2", "hit"));
+        assertEquals(1.0, count("l1", "hit"));
+        assertEquals(1.0, count("l1", "miss"));
+    }
+
+    @Test
+    @DisplayName("Should evict both tiers and broadcast the eviction")
+    void evict_ShouldDropBothTiersAndPublish() {
+        // Given
+        Cache cache = cacheManager.getCache("students");
+        cache.put(1L, "alice");
+
+        // When
+        cache.evict(1L);
+
+        // Then
+        assertNull(cache.get(1L));
+        assertNull(remoteCacheManager.getCache("students").get(1L));
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), anyString());
+    }
+
+    @Test
+    @DisplayName("Should drop L1 entry on invalidation from another node")
+    void onMessage_FromOtherNode_ShouldEvictLocalTier() {
+        // Given
+        Cache cache = cacheManager.getCache("students");
+        cache.put(1L, "alice");
+        remoteCacheManager.getCache("students").evict(1L);
+
+        // When
+        cacheManager.onMessage(message("E|other-node|students|1"), null);
+
+        // Then
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should ignore invalidations published by this node")
+    void onMessage_FromSelf_ShouldBeIgnored() {
+        // Given
+        Cache cache = cacheManager.getCache("students");
+        cache.put(1L, "alice");
+        cache.put(2L, "bob");
+        cache.evict(2L);
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), published.capture());
+        remoteCacheManager.getCache("students").evict(1L);
+
+        // When
+        cacheManager.onMessage(message(published.getValue().replaceAll("\\|2$", "|1")), null);
+
+        // Then
+        assertEquals("alice", cache.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("Should clear L1 on clear broadcast")
+    void onMessage_Clear_ShouldClearLocalTier() {
+        // Given
+        Cache cache = cacheManager.getCache("students");
+        cache.put(1L, "alice");
+        cache.put(2L, "bob");
+        remoteCacheManager.getCache("students").clear();
+
+        // When
+        cacheManager.onMessage(message("C|other-node|students"), null);
+
+        // Then
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    @DisplayName("Should cache null values in L1")
+    void put_NullValue_ShouldBeServedFromLocalTier() {
+        // Given
+        remoteCacheManager.setAllowNullValues(true);
+        Cache cache = cacheManager.getCache("students");
+
+        // When
+        cache.put(1L, null);
+
+        // Then
+        assertNull(cache.get(1L).get());
+        assertEquals(1.0, count("l1", "hit"));
+    }
+
+    @Test
+    @DisplayName("Should run a single load for concurrent misses on the same key")
+    void getWithLoader_ConcurrentMisses_ShouldCoalesce() throws Exception {
+        // Given
+        Cache cache = cacheManager.getCache("students");
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Callable<String> loader = () -> {
+            calls.incrementAndGet();
+            loaderStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "alice";
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<String> leader = executor.submit(() -> cache.get(1L, loader));
+            loaderStarted.await(5, TimeUnit.SECONDS);
+            Future<String> follower = executor.submit(() -> cache.get(1L, loader));
+            while (count("coalesced") == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Then
+            assertEquals("alice", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("alice", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(1.0, count("load"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should propagate loader failure to the caller")
+    void getWithLoader_LoaderFails_ShouldThrowValueRetrievalException() {
+        // Given
+        Cache cache = cacheManager.getCache("students");
+
+        // When / Then
+        Cache.ValueRetrievalException ex = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(1L, () -> {
+                    throw new IllegalArgumentException("boom");
+                }));
+        assertEquals("boom", ex.getCause().getMessage());
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should recompute an entry that is due to expire")
+    void getWithLoader_EntryNearExpiry_ShouldRefreshEarly() {
+        // Given
+        remoteCacheManager.getCache("students")
+                .put(1L, new CacheEntry("stale", System.currentTimeMillis() - 1, 10));
+        Cache cache = cacheManager.getCache("students");
+
+        // When
+        String value = cache.get(1L, () -> "fresh");
+
+        // Then
+        assertEquals("fresh", value);
+        assertEquals(1.0, count("early_refresh"));
+        assertEquals("fresh", ((CacheEntry) remoteCacheManager.getCache("students").get(1L).get()).getValue());
+    }
+
+    @Test
+    @DisplayName("Should serve a fresh entry without calling the loader")
+    void getWithLoader_FreshEntry_ShouldNotLoad() {
+        // Given
+        Cache cache = cacheManager.getCache("students");
+        cache.put(1L, "alice");
+
+        // When
+        String value = cache.get(1L, () -> {
+            throw new AssertionError("loader should not run");
+        });
+
+        // Then
+        assertEquals("alice", value);
+        assertEquals(0.0, count("load"));
+    }
+
+    private double count(String type) {
+        return meterRegistry.get("cache.loads")
+                .tag("cache", "students").tag("type", type)
+                .counter().count();
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("cache.tier.requests")
+                .tag("cache", "students").tag("tier", tier).tag("result", result)
+                .counter().count();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
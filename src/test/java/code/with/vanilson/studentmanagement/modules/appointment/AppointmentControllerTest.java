@@ -1,19 +1,21 @@
 package code.with.vanilson.studentmanagement.modules.appointment;
 
+import code.with.vanilson.studentmanagement.common.dto.CursorPage;
 import code.with.vanilson.studentmanagement.config.JwtUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -96,6 +98,56 @@ class AppointmentControllerTest {
         @DisplayName("GET /api/v1/appointments/students/{studentId} - Success")
         @WithMockUser
         void getStudentAppointments_Success() throws Exception {
+                AppointmentView view = new SpelAwareProxyProjectionFactory().createProjection(AppointmentView.class,
+                                Map.of("id", 5L, "studentId", 1L, "teacherId", 2L,
+                                                "startTime", LocalDateTime.of(2024, 12, 31, 10, 0),
+                                                "endTime", LocalDateTime.of(2024, 12, 31, 11, 0),
+                                                "status", Appointment.AppointmentStatus.SCHEDULED));
+
+                when(appointmentService.getStudentAppointments(1L, LocalDateTime.of(2024, 12, 1, 0, 0), null,
+                                Appointment.AppointmentStatus.SCHEDULED, null, 10))
+                                .thenReturn(CursorPage.of(List.of(view), "next"));
+
+                mockMvc.perform(get("/api/v1/appointments/students/1")
+                                .param("from", "2024-12-01T00:00:00")
+                                .param("status", "SCHEDULED")
+                                .param("size", "10"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.data.items[0].studentId").value(1))
+                                .andExpect(jsonPath("$.data.items[0].startTime").value("2024-12-31T10:00:00"))
+                                .andExpect(jsonPath("$.data.nextCursor").value("next"))
+                                .andExpect(jsonPath("$.message").value("Appointments retrieved successfully"));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/appointments/free-slots - Success")
+        @WithMockUser
+        void findFreeSlots_Success() throws Exception {
+                LocalDateTime from = LocalDateTime.of(2024, 12, 31, 9, 0);
+                LocalDateTime to = LocalDateTime.of(2024, 12, 31, 10, 0);
+                TeacherFreeSlots free = TeacherFreeSlots.builder()
+                                .teacherId(2L)
+                                .slots(List.of(new TimeSlot(from, to)))
+                                .build();
+
+                when(appointmentService.findFreeSlots(List.of(2L, 3L), from, to, 60, 10)).thenReturn(List.of(free));
+
+                mockMvc.perform(get("/api/v1/appointments/free-slots")
+                                .param("teacherId", "2", "3")
+                                .param("from", "2024-12-31T09:00:00")
+                                .param("to", "2024-12-31T10:00:00")
+                                .param("durationMinutes", "60")
+                                .param("limit", "10"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.data[0].teacherId").value(2))
+                                .andExpect(jsonPath("$.data[0].slots[0].start").value("2024-12-31T09:00:00"))
+                                .andExpect(jsonPath("$.message").value("Free slots retrieved successfully"));
+        }
+
+        @Test
+        @DisplayName("POST /api/v1/appointments/series - Success")
+        @WithMockUser
+        void scheduleSeries_Success() throws Exception {
                 Appointment appointment = Appointment.builder()
                                 .studentId(1L)
                                 .teacherId(2L)
@@ -103,13 +155,53 @@ class AppointmentControllerTest {
                                 .endTime(LocalDateTime.of(2024, 12, 31, 11, 0))
                                 .status(Appointment.AppointmentStatus.SCHEDULED)
                                 .build();
-                List<Appointment> appointments = Collections.singletonList(appointment);
+                when(appointmentService.scheduleSeries(any(AppointmentSeriesRequest.class)))
+                                .thenReturn(AppointmentSeriesResult.builder()
+                                                .occurrences(1)
+                                                .booked(List.of(appointment))
+                                                .build());
 
-                when(appointmentService.getStudentAppointments(1L)).thenReturn(appointments);
-
-                mockMvc.perform(get("/api/v1/appointments/students/1"))
+                mockMvc.perform(post("/api/v1/appointments/series")
+                                .with(csrf())
+                                .contentType("application/json")
+                                .content(SERIES_JSON))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$.data[0].studentId").value(1))
-                                .andExpect(jsonPath("$.message").value("Appointments retrieved successfully"));
+                                .andExpect(jsonPath("$.data.booked[0].teacherId").value(2))
+                                .andExpect(jsonPath("$.message").value("Appointment series scheduled successfully"));
+        }
+
+        @Test
+        @DisplayName("POST /api/v1/appointments/series - Conflicts")
+        @WithMockUser
+        void scheduleSeries_Conflicts_ReturnsConflict() throws Exception {
+                LocalDateTime start = LocalDateTime.of(2024, 12, 31, 10, 0);
+                when(appointmentService.scheduleSeries(any(AppointmentSeriesRequest.class)))
+                                .thenReturn(AppointmentSeriesResult.builder()
+                                                .occurrences(1)
+                                                .conflicts(List.of(new TimeSlot(start, start.plusHours(1))))
+                                                .build());
+
+                mockMvc.perform(post("/api/v1/appointments/series")
+                                .with(csrf())
+                                .contentType("application/json")
+                                .content(SERIES_JSON))
+                                .andExpect(status().isConflict())
+                                .andExpect(jsonPath("$.success").value(false))
+                                .andExpect(jsonPath("$.data.conflicts[0].start").value("2024-12-31T10:00:00"));
         }
+
+        @Test
+        @DisplayName("POST /api/v1/appointments/series - Missing fields")
+        @WithMockUser
+        void scheduleSeries_MissingFields_ReturnsBadRequest() throws Exception {
+                mockMvc.perform(post("/api/v1/appointments/series")
+                                .with(csrf())
+                                .contentType("application/json")
+                                .content("{\"studentId\":1}"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        private static final String SERIES_JSON = "{\"studentId\":1,\"teacherId\":2,"
+                        + "\"firstStart\":\"2024-12-31T10:00:00\",\"durationMinutes\":60,"
+                        + "\"frequency\":\"WEEKLY\",\"until\":\"2025-03-31\"}";
 }
@@ -70,7 +70,7 @@ class AppointmentIntegrationTest extends AbstractIntegrationTest {
         // Get student appointments
         mockMvc.perform(get("/api/v1/appointments/students/" + studentId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.data[0].studentId").value(studentId));
+                .andExpect(jsonPath("$.data.items[0].studentId").value(studentId));
 
         // Cancel Appointment
         mockMvc.perform(put("/api/v1/appointments/" + apptId + "/cancel"))
@@ -0,0 +1,161 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AppointmentReminderScheduler Unit Tests")
+class AppointmentReminderSchedulerTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OutboxService outbox;
+
+    private MeterRegistry meterRegistry;
+    private AppointmentReminderScheduler scheduler;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new AppointmentReminderScheduler(jdbcTemplate, transactionTemplate, outbox, meterRegistry,
+                Duration.ofMinutes(10), Duration.ofMinutes(15), 2, 500);
+        now = LocalDateTime.now().withNano(0);
+    }
+
+    @Test
+    @DisplayName("Should page through the window by start time and id and skip reminders already loaded")
+    @SuppressWarnings("unchecked")
+    void loadWindow_ShouldPageByKeysetAndDeduplicate() throws SQLException {
+        // Given
+        LocalDateTime start = now.plusHours(1).plusMinutes(5);
+        List<MapSqlParameterSource> calls = new ArrayList<>();
+        when(jdbcTemplate.query(contains("FROM appointment a"), any(MapSqlParameterSource.class),
+                any(RowMapper.class))).thenAnswer(invocation -> {
+            MapSqlParameterSource params = invocation.getArgument(1);
+            calls.add(params);
+            RowMapper<Object> mapper = invocation.getArgument(2);
+            if (Long.valueOf(0L).equals(params.getValue("afterId"))) {
+                return List.of(mapper.mapRow(upcoming(1L, start), 0), mapper.mapRow(upcoming(2L, start), 1));
+            }
+            return List.of(mapper.mapRow(upcoming(3L, start.plusMinutes(1)), 0));
+        });
+
+        // When
+        scheduler.loadWindow(AppointmentReminderScheduler.Kind.HOUR_BEFORE, now, now.plusMinutes(10));
+        scheduler.loadWindow(AppointmentReminderScheduler.Kind.HOUR_BEFORE, now, now.plusMinutes(10));
+
+        // Then
+        assertEquals(4, calls.size());
+        assertEquals(2L, calls.get(1).getValue("afterId"));
+        assertEquals(start, calls.get(1).getValue("afterStart"));
+        assertEquals(0L, calls.get(2).getValue("afterId"));
+        assertEquals(3.0, meterRegistry.get("appointment.reminders.scheduled").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should publish one notification per reminder the insert actually recorded")
+    @SuppressWarnings("unchecked")
+    void send_ShouldPublishOnlyRecordedReminders() throws SQLException {
+        // Given
+        LocalDateTime start = now.plusHours(24);
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        when(jdbcTemplate.query(contains("INSERT INTO appointment_reminder"), params.capture(),
+                any(RowMapper.class))).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(2);
+            // Appointment 2 was reminded by another node already and appointment 3 was cancelled
+            return List.of(mapper.mapRow(sent(start), 0));
+        });
+
+        // When
+        scheduler.send(AppointmentReminderScheduler.Kind.DAY_BEFORE, List.of(1L, 2L, 3L));
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), params.getValue().getValue("ids"));
+        assertEquals("DAY_BEFORE", params.getValue().getValue("kind"));
+        verify(outbox, times(1)).publishAll(List.of(AppointmentEvent.reminder(1L, 10L, 20L, start, "24 hours")));
+        assertEquals(1.0, meterRegistry.get("appointment.reminders.sent").tag("kind", "DAY_BEFORE")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Should send overdue reminders on the next tick")
+    @SuppressWarnings("unchecked")
+    void tick_OverdueReminder_ShouldSendImmediately() throws SQLException {
+        // Given
+        LocalDateTime start = now.plusMinutes(50);
+        when(jdbcTemplate.query(contains("NOT EXISTS"), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    RowMapper<Object> mapper = invocation.getArgument(2);
+                    return List.of(mapper.mapRow(upcoming(1L, start), 0));
+                });
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        when(jdbcTemplate.query(contains("INSERT INTO appointment_reminder"), any(MapSqlParameterSource.class),
+                any(RowMapper.class))).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(2);
+            return List.of(mapper.mapRow(sent(start), 0));
+        });
+        scheduler.loadWindow(AppointmentReminderScheduler.Kind.HOUR_BEFORE, now.minusMinutes(15), now);
+
+        // When
+        scheduler.tick();
+
+        // Then
+        verify(outbox).publishAll(argThat(events -> events.size() == 1));
+        assertEquals(0.0, meterRegistry.get("appointment.reminders.scheduled").gauge().value());
+    }
+
+    private static ResultSet upcoming(Long id, LocalDateTime start) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getTimestamp("start_time")).thenReturn(Timestamp.valueOf(start));
+        return rs;
+    }
+
+    private static ResultSet sent(LocalDateTime start) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(1L);
+        when(rs.getLong("student_id")).thenReturn(10L);
+        when(rs.getLong("teacher_id")).thenReturn(20L);
+        when(rs.getTimestamp("start_time")).thenReturn(Timestamp.valueOf(start));
+        return rs;
+    }
+}
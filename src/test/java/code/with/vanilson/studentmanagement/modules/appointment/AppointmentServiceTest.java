@@ -1,29 +1,41 @@
 package code.with.vanilson.studentmanagement.modules.appointment;
 
+import code.with.vanilson.studentmanagement.common.dto.CursorPage;
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.contains;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -37,13 +49,18 @@ class AppointmentServiceTest {
     private AppointmentRepository appointmentRepository;
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private OutboxService outbox;
+
+    @Mock
+    private TeacherScheduleIndex scheduleIndex;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
 
     @InjectMocks
     private AppointmentService appointmentService;
 
     private Appointment testAppointment;
-    private List<Appointment> testAppointments;
     private final Long STUDENT_ID = 1L;
     private final Long TEACHER_ID = 2L;
     private final LocalDateTime START_TIME = LocalDateTime.now().plusHours(1);
@@ -58,28 +75,13 @@ class AppointmentServiceTest {
                 .endTime(END_TIME)
                 .status(Appointment.AppointmentStatus.SCHEDULED)
                 .build();
-
-        testAppointments = Arrays.asList(
-                testAppointment,
-                Appointment.builder()
-
-                        .studentId(STUDENT_ID)
-                        .teacherId(3L)
-                        .startTime(LocalDateTime.now().plusDays(1))
-                        .endTime(LocalDateTime.now().plusDays(1).plusHours(1))
-                        .status(Appointment.AppointmentStatus.SCHEDULED)
-                        .build()
-        );
     }
 
     @Test
     @DisplayName("Should schedule appointment successfully")
     void scheduleAppointment_Success() {
         // Given
-        when(appointmentRepository.findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME))
-                .thenReturn(Collections.emptyList());
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenReturn(testAppointment);
 
         // When
         Appointment result = appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, START_TIME, END_TIME);
@@ -91,36 +93,76 @@ class AppointmentServiceTest {
         assertEquals(START_TIME, result.getStartTime());
         assertEquals(END_TIME, result.getEndTime());
         assertEquals(Appointment.AppointmentStatus.SCHEDULED, result.getStatus());
-        verify(appointmentRepository).findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME);
-        verify(appointmentRepository).save(any(Appointment.class));
-        verify(kafkaTemplate).send(eq("notification-events"),
-                contains("Appointment scheduled for student: " + STUDENT_ID));
+        verify(appointmentRepository).saveAndFlush(any(Appointment.class));
+        verify(scheduleIndex).booked(testAppointment);
+        verify(outbox).publish(AppointmentEvent.scheduled(testAppointment));
     }
 
     @Test
-    @DisplayName("Should throw exception when scheduling overlapping appointment")
+    @DisplayName("Should translate the overlap exclusion constraint into a conflict")
     void scheduleAppointment_OverlappingAppointment_ThrowsException() {
         // Given
-        Appointment overlappingAppointment = Appointment.builder()
-                .studentId(999L)
-                .teacherId(TEACHER_ID)
-                .startTime(START_TIME.minusMinutes(30))
-                .endTime(END_TIME.plusMinutes(30))
-                .status(Appointment.AppointmentStatus.SCHEDULED)
-                .build();
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("conflicting key value violates exclusion constraint \""
+                        + AppointmentService.NO_OVERLAP_CONSTRAINT + "\"", "23P01")));
+
+        // When & Then
+        IllegalStateException exception = assertThrows(
+                IllegalStateException.class,
+                () -> appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, START_TIME, END_TIME)
+        );
+        assertEquals("Teacher already has an appointment during this time.", exception.getMessage());
+        verify(outbox, never()).publish(any());
+        verify(scheduleIndex).stale(TEACHER_ID);
+        verify(scheduleIndex, never()).booked(any(Appointment.class));
+    }
+
+    @Test
+    @DisplayName("Should reject an appointment that ends before it starts")
+    void scheduleAppointment_EndBeforeStart_ThrowsBadRequest() {
+        // When & Then
+        ResourceBadRequestException exception = assertThrows(
+                ResourceBadRequestException.class,
+                () -> appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, END_TIME, START_TIME)
+        );
+        assertEquals("appointment.invalid_time_range", exception.getMessage());
+        verify(appointmentRepository, never()).saveAndFlush(any(Appointment.class));
+        verify(scheduleIndex, never()).hasConflict(any(), any(), any());
+    }
 
+    @Test
+    @DisplayName("Should reject a conflict found by the schedule index once the database confirms it")
+    void scheduleAppointment_IndexedConflict_ThrowsWithoutInsert() {
+        // Given
+        when(scheduleIndex.hasConflict(TEACHER_ID, START_TIME, END_TIME)).thenReturn(true);
         when(appointmentRepository.findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME))
-                .thenReturn(Collections.singletonList(overlappingAppointment));
+                .thenReturn(List.of(testAppointment));
 
         // When & Then
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
                 () -> appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, START_TIME, END_TIME)
         );
-        assertEquals("Teacher already has an appointment during this time.", exception.getMessage());
-        verify(appointmentRepository).findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME);
-        verify(appointmentRepository, never()).save(any(Appointment.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        assertEquals(AppointmentService.OVERLAP_MESSAGE, exception.getMessage());
+        verify(appointmentRepository, never()).saveAndFlush(any(Appointment.class));
+    }
+
+    @Test
+    @DisplayName("Should book a slot the schedule index wrongly reports as taken and reload the teacher")
+    void scheduleAppointment_StaleIndexedConflict_ShouldBook() {
+        // Given
+        when(scheduleIndex.hasConflict(TEACHER_ID, START_TIME, END_TIME)).thenReturn(true);
+        when(appointmentRepository.findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME))
+                .thenReturn(List.of());
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenReturn(testAppointment);
+
+        // When
+        Appointment result = appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, START_TIME, END_TIME);
+
+        // Then
+        assertEquals(testAppointment, result);
+        verify(scheduleIndex).reload(TEACHER_ID);
+        verify(scheduleIndex).booked(testAppointment);
     }
 
     @Test
@@ -137,7 +179,6 @@ class AppointmentServiceTest {
 
         when(appointmentRepository.findById(testAppointment.getId())).thenReturn(Optional.of(testAppointment));
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(cancelledAppointment);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
 
         // When
         Appointment result = appointmentService.cancelAppointment(testAppointment.getId());
@@ -147,8 +188,8 @@ class AppointmentServiceTest {
         assertEquals(Appointment.AppointmentStatus.CANCELLED, result.getStatus());
         verify(appointmentRepository).findById(testAppointment.getId());
         verify(appointmentRepository).save(any(Appointment.class));
-        verify(kafkaTemplate).send(eq("notification-events"),
-                contains("Appointment cancelled: " + testAppointment.getId()));
+        verify(scheduleIndex).cancelled(cancelledAppointment);
+        verify(outbox).publish(AppointmentEvent.cancelled(cancelledAppointment));
     }
 
     @Test
@@ -166,48 +207,52 @@ class AppointmentServiceTest {
         assertEquals("appointment.not_found", exception.getMessage());
         verify(appointmentRepository).findById(nonExistentId);
         verify(appointmentRepository, never()).save(any(Appointment.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(outbox, never()).publish(any());
     }
 
     @Test
-    @DisplayName("Should get student appointments successfully")
+    @DisplayName("Should get the first page of student appointments")
     void getStudentAppointments_Success() {
         // Given
-        when(appointmentRepository.findByStudentId(STUDENT_ID)).thenReturn(testAppointments);
+        List<AppointmentView> views = List.of(view(10L, START_TIME), view(11L, START_TIME.plusDays(1)));
+        when(appointmentRepository.findStudentHistory(STUDENT_ID, AppointmentService.HISTORY_START, 0L,
+                AppointmentService.HISTORY_END, null, PageRequest.of(0, AppointmentService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(views);
 
         // When
-        List<Appointment> result = appointmentService.getStudentAppointments(STUDENT_ID);
+        CursorPage<AppointmentView> result =
+                appointmentService.getStudentAppointments(STUDENT_ID, null, null, null, null, null);
 
         // Then
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(testAppointments.get(0).getId(), result.get(0).getId());
-        assertEquals(testAppointments.get(1).getId(), result.get(1).getId());
-        verify(appointmentRepository).findByStudentId(STUDENT_ID);
+        assertEquals(2, result.getSize());
+        assertEquals(10L, result.getItems().get(0).getId());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
     }
 
     @Test
-    @DisplayName("Should return empty list when student has no appointments")
+    @DisplayName("Should return empty page when student has no appointments")
     void getStudentAppointments_EmptyList() {
         // Given
-        when(appointmentRepository.findByStudentId(STUDENT_ID)).thenReturn(Collections.emptyList());
+        when(appointmentRepository.findStudentHistory(eq(STUDENT_ID), any(), any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
 
         // When
-        List<Appointment> result = appointmentService.getStudentAppointments(STUDENT_ID);
+        CursorPage<AppointmentView> result =
+                appointmentService.getStudentAppointments(STUDENT_ID, null, null, null, null, null);
 
         // Then
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(appointmentRepository).findByStudentId(STUDENT_ID);
+        assertTrue(result.getItems().isEmpty());
+        assertFalse(result.isHasNext());
     }
 
     @Test
     @DisplayName("Should handle repository exception during appointment scheduling")
     void scheduleAppointment_RepositoryException_ThrowsException() {
         // Given
-        when(appointmentRepository.findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME))
-                .thenReturn(Collections.emptyList());
-        when(appointmentRepository.save(any(Appointment.class))).thenThrow(new RuntimeException("Database error"));
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenThrow(new RuntimeException("Database error"));
 
         // When & Then
         RuntimeException exception = assertThrows(
@@ -215,9 +260,8 @@ class AppointmentServiceTest {
                 () -> appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, START_TIME, END_TIME)
         );
         assertEquals("Database error", exception.getMessage());
-        verify(appointmentRepository).findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME);
-        verify(appointmentRepository).save(any(Appointment.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(appointmentRepository).saveAndFlush(any(Appointment.class));
+        verify(outbox, never()).publish(any());
     }
 
     @Test
@@ -235,69 +279,22 @@ class AppointmentServiceTest {
         assertEquals("Database error", exception.getMessage());
         verify(appointmentRepository).findById(testAppointment.getId());
         verify(appointmentRepository).save(any(Appointment.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(outbox, never()).publish(any());
     }
 
     @Test
     @DisplayName("Should handle repository exception during get student appointments")
     void getStudentAppointments_RepositoryException_ThrowsException() {
         // Given
-        when(appointmentRepository.findByStudentId(STUDENT_ID)).thenThrow(new RuntimeException("Database error"));
+        when(appointmentRepository.findStudentHistory(eq(STUDENT_ID), any(), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Database error"));
 
         // When & Then
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
-                () -> appointmentService.getStudentAppointments(STUDENT_ID)
+                () -> appointmentService.getStudentAppointments(STUDENT_ID, null, null, null, null, null)
         );
         assertEquals("Database error", exception.getMessage());
-        verify(appointmentRepository).findByStudentId(STUDENT_ID);
-    }
-
-    @Disabled
-    @Test
-    @DisplayName("Should handle Kafka exception during appointment scheduling")
-    void scheduleAppointment_KafkaException_StillSchedulesAppointment() {
-        // Given
-        when(appointmentRepository.findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME))
-                .thenReturn(Collections.emptyList());
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
-        when(kafkaTemplate.send(anyString(), anyString())).thenThrow(new RuntimeException("Kafka error"));
-
-        // When
-        Appointment result = appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, START_TIME, END_TIME);
-
-        // Then
-        assertNotNull(result);
-        assertEquals(STUDENT_ID, result.getStudentId());
-        verify(appointmentRepository).save(any(Appointment.class));
-        verify(kafkaTemplate).send(anyString(), anyString());
-    }
-
-    @Disabled
-    @Test
-    @DisplayName("Should handle Kafka exception during appointment cancellation")
-    void cancelAppointment_KafkaException_StillCancelsAppointment() {
-        // Given
-        Appointment cancelledAppointment = Appointment.builder()
-                .studentId(STUDENT_ID)
-                .teacherId(TEACHER_ID)
-                .startTime(START_TIME)
-                .endTime(END_TIME)
-                .status(Appointment.AppointmentStatus.CANCELLED)
-                .build();
-
-        when(appointmentRepository.findById(testAppointment.getId())).thenReturn(Optional.of(testAppointment));
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(cancelledAppointment);
-        when(kafkaTemplate.send(anyString(), anyString())).thenThrow(new RuntimeException("Kafka error"));
-
-        // When
-        Appointment result = appointmentService.cancelAppointment(testAppointment.getId());
-
-        // Then
-        assertNotNull(result);
-        assertEquals(Appointment.AppointmentStatus.CANCELLED, result.getStatus());
-        verify(appointmentRepository).save(any(Appointment.class));
-        verify(kafkaTemplate).send(anyString(), anyString());
     }
 
     @Test
@@ -305,10 +302,7 @@ class AppointmentServiceTest {
     void scheduleAppointment_DifferentTeacherSameTime_Success() {
         // Given
         Long differentTeacherId = 2L;
-        when(appointmentRepository.findOverlappingAppointments(differentTeacherId, START_TIME, END_TIME))
-                .thenReturn(Collections.emptyList());
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(testAppointment);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenReturn(testAppointment);
 
         // When
         Appointment result = appointmentService.scheduleAppointment(STUDENT_ID, differentTeacherId, START_TIME, END_TIME);
@@ -316,8 +310,7 @@ class AppointmentServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(differentTeacherId, result.getTeacherId());
-        verify(appointmentRepository).findOverlappingAppointments(differentTeacherId, START_TIME, END_TIME);
-        verify(appointmentRepository).save(any(Appointment.class));
+        verify(appointmentRepository).saveAndFlush(any(Appointment.class));
     }
 
     @Test
@@ -333,10 +326,7 @@ class AppointmentServiceTest {
                 .status(Appointment.AppointmentStatus.SCHEDULED)
                 .build();
 
-        when(appointmentRepository.findOverlappingAppointments(TEACHER_ID, START_TIME, minEndTime))
-                .thenReturn(Collections.emptyList());
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(minDurationAppointment);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenReturn(minDurationAppointment);
 
         // When
         Appointment result = appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, START_TIME, minEndTime);
@@ -344,7 +334,7 @@ class AppointmentServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(minEndTime, result.getEndTime());
-        verify(appointmentRepository).save(any(Appointment.class));
+        verify(appointmentRepository).saveAndFlush(any(Appointment.class));
     }
 
     @Test
@@ -360,10 +350,7 @@ class AppointmentServiceTest {
                 .status(Appointment.AppointmentStatus.SCHEDULED)
                 .build();
 
-        when(appointmentRepository.findOverlappingAppointments(TEACHER_ID, START_TIME, maxEndTime))
-                .thenReturn(Collections.emptyList());
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(maxDurationAppointment);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenReturn(maxDurationAppointment);
 
         // When
         Appointment result = appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, START_TIME, maxEndTime);
@@ -371,57 +358,68 @@ class AppointmentServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(maxEndTime, result.getEndTime());
-        verify(appointmentRepository).save(any(Appointment.class));
+        verify(appointmentRepository).saveAndFlush(any(Appointment.class));
     }
 
     @Test
-    @DisplayName("Should handle overlapping check exception during appointment scheduling")
-    void scheduleAppointment_OverlappingCheckException_ThrowsException() {
+    @DisplayName("Should rethrow integrity violations other than overlaps")
+    void scheduleAppointment_OtherIntegrityViolation_Rethrows() {
         // Given
-        when(appointmentRepository.findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME))
-                .thenThrow(new RuntimeException("Database error"));
+        DataIntegrityViolationException violation = new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("violates foreign key constraint", "23503"));
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenThrow(violation);
 
         // When & Then
-        RuntimeException exception = assertThrows(
-                RuntimeException.class,
+        DataIntegrityViolationException exception = assertThrows(
+                DataIntegrityViolationException.class,
                 () -> appointmentService.scheduleAppointment(STUDENT_ID, TEACHER_ID, START_TIME, END_TIME)
         );
-        assertEquals("Database error", exception.getMessage());
-        verify(appointmentRepository).findOverlappingAppointments(TEACHER_ID, START_TIME, END_TIME);
-        verify(appointmentRepository, never()).save(any(Appointment.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        assertEquals(violation, exception);
+        verify(outbox, never()).publish(any());
     }
 
     @Test
-    @DisplayName("Should get appointments for student with maximum valid ID")
-    void getStudentAppointments_MaxStudentId_Success() {
+    @DisplayName("Should return a cursor when more appointments exist and continue after it")
+    void getStudentAppointments_NextPage_ContinuesAfterCursor() {
         // Given
-        Long maxStudentId = Long.MAX_VALUE;
-        when(appointmentRepository.findByStudentId(maxStudentId)).thenReturn(testAppointments);
+        when(appointmentRepository.findStudentHistory(STUDENT_ID, AppointmentService.HISTORY_START, 0L,
+                AppointmentService.HISTORY_END, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(view(10L, START_TIME), view(11L, END_TIME)));
+        CursorPage<AppointmentView> first =
+                appointmentService.getStudentAppointments(STUDENT_ID, null, null, null, null, 1);
+        when(appointmentRepository.findStudentHistory(STUDENT_ID, START_TIME, 10L,
+                AppointmentService.HISTORY_END, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(view(11L, END_TIME)));
 
         // When
-        List<Appointment> result = appointmentService.getStudentAppointments(maxStudentId);
+        CursorPage<AppointmentView> second =
+                appointmentService.getStudentAppointments(STUDENT_ID, null, null, null, first.getNextCursor(), 1);
 
         // Then
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(appointmentRepository).findByStudentId(maxStudentId);
+        assertTrue(first.isHasNext());
+        assertEquals(1, first.getSize());
+        assertEquals(11L, second.getItems().get(0).getId());
+        assertFalse(second.isHasNext());
     }
 
     @Test
-    @DisplayName("Should get appointments for student with minimum valid ID")
-    void getStudentAppointments_MinStudentId_Success() {
+    @DisplayName("Should pass the time window and status to the history query")
+    void getStudentAppointments_WindowAndStatus_Filters() {
         // Given
-        Long minStudentId = 1L;
-        when(appointmentRepository.findByStudentId(minStudentId)).thenReturn(testAppointments);
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 2, 1, 0, 0);
+        when(appointmentRepository.findStudentHistory(STUDENT_ID, from, 0L, to,
+                Appointment.AppointmentStatus.CANCELLED, PageRequest.of(0, AppointmentService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of(view(10L, from.plusDays(3))));
 
         // When
-        List<Appointment> result = appointmentService.getStudentAppointments(minStudentId);
+        CursorPage<AppointmentView> result = appointmentService.getStudentAppointments(STUDENT_ID, from, to,
+                Appointment.AppointmentStatus.CANCELLED, null, 1000);
 
         // Then
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(appointmentRepository).findByStudentId(minStudentId);
+        assertEquals(1, result.getSize());
+        assertThrows(ResourceBadRequestException.class,
+                () -> appointmentService.getStudentAppointments(STUDENT_ID, to, from, null, null, null));
     }
 
     @Test
@@ -438,7 +436,6 @@ class AppointmentServiceTest {
 
         when(appointmentRepository.findById(testAppointment.getId())).thenReturn(Optional.of(alreadyCancelledAppointment));
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(alreadyCancelledAppointment);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
 
         // When
         Appointment result = appointmentService.cancelAppointment(testAppointment.getId());
@@ -448,4 +445,273 @@ class AppointmentServiceTest {
         assertEquals(Appointment.AppointmentStatus.CANCELLED, result.getStatus());
         verify(appointmentRepository).save(any(Appointment.class));
     }
+
+    @Test
+    @DisplayName("Should compute free slots around overlapping and out-of-order bookings")
+    void findFreeSlots_MergesBusyIntervals() {
+        // Given
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        List<Appointment> busy = List.of(
+                scheduled(TEACHER_ID, day.plusMinutes(90), day.plusMinutes(120)),
+                scheduled(TEACHER_ID, day.minusMinutes(30), day.plusMinutes(30)),
+                scheduled(TEACHER_ID, day.plusMinutes(100), day.plusMinutes(150)));
+        when(appointmentRepository.findScheduledInRange(Set.of(TEACHER_ID, 3L), day, day.plusHours(4)))
+                .thenReturn(busy);
+
+        // When
+        List<TeacherFreeSlots> result = appointmentService.findFreeSlots(
+                List.of(TEACHER_ID, 3L, TEACHER_ID), day, day.plusHours(4), 30, null);
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(List.of(
+                new TimeSlot(day.plusMinutes(30), day.plusMinutes(60)),
+                new TimeSlot(day.plusMinutes(60), day.plusMinutes(90)),
+                new TimeSlot(day.plusMinutes(150), day.plusMinutes(180)),
+                new TimeSlot(day.plusMinutes(180), day.plusMinutes(210)),
+                new TimeSlot(day.plusMinutes(210), day.plusMinutes(240))), result.get(0).getSlots());
+        assertEquals(3L, result.get(1).getTeacherId());
+        assertEquals(8, result.get(1).getSlots().size());
+    }
+
+    @Test
+    @DisplayName("Should skip gaps shorter than the requested duration")
+    void findFreeSlots_ShortGap_NoSlot() {
+        // Given
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        when(appointmentRepository.findScheduledInRange(Set.of(TEACHER_ID), day, day.plusHours(2)))
+                .thenReturn(List.of(scheduled(TEACHER_ID, day.plusMinutes(20), day.plusHours(2))));
+
+        // When
+        List<TeacherFreeSlots> result = appointmentService.findFreeSlots(List.of(TEACHER_ID), day, day.plusHours(2), 30, null);
+
+        // Then
+        assertTrue(result.get(0).getSlots().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should serve free slots from the schedule index when it covers the range")
+    void findFreeSlots_IndexCoversRange_SkipsDatabase() {
+        // Given
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        when(scheduleIndex.covers(day)).thenReturn(true);
+        when(scheduleIndex.busy(TEACHER_ID, day, day.plusHours(1)))
+                .thenReturn(List.of(new TimeSlot(day, day.plusMinutes(30))));
+
+        // When
+        List<TeacherFreeSlots> result = appointmentService.findFreeSlots(List.of(TEACHER_ID), day, day.plusHours(1), 30, null);
+
+        // Then
+        assertEquals(List.of(new TimeSlot(day.plusMinutes(30), day.plusHours(1))), result.get(0).getSlots());
+        verify(appointmentRepository, never()).findScheduledInRange(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should cap the slots per teacher and say where the next page starts")
+    void findFreeSlots_OverLimit_ReturnsNextFrom() {
+        // Given
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 0, 0);
+        when(appointmentRepository.findScheduledInRange(Set.of(TEACHER_ID), day, day.plusDays(31)))
+                .thenReturn(List.of());
+
+        // When
+        TeacherFreeSlots capped = appointmentService.findFreeSlots(
+                List.of(TEACHER_ID), day, day.plusDays(31), 15, null).get(0);
+        TeacherFreeSlots last = appointmentService.findFreeSlots(
+                List.of(TEACHER_ID), day, day.plusDays(31), 15, 31 * 24 * 4).get(0);
+
+        // Then
+        assertEquals(AppointmentService.DEFAULT_FREE_SLOT_LIMIT, capped.getSlots().size());
+        assertEquals(day.plusMinutes(15L * AppointmentService.DEFAULT_FREE_SLOT_LIMIT), capped.getNextFrom());
+        assertEquals(AppointmentService.MAX_FREE_SLOT_LIMIT, last.getSlots().size());
+        assertEquals(day.plusMinutes(15L * AppointmentService.MAX_FREE_SLOT_LIMIT), last.getNextFrom());
+    }
+
+    @Test
+    @DisplayName("Should leave nextFrom unset when every slot fits")
+    void findFreeSlots_UnderLimit_NoNextFrom() {
+        // Given
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        when(appointmentRepository.findScheduledInRange(Set.of(TEACHER_ID), day, day.plusHours(1)))
+                .thenReturn(List.of());
+
+        // When
+        TeacherFreeSlots result = appointmentService.findFreeSlots(
+                List.of(TEACHER_ID), day, day.plusHours(1), 30, 2).get(0);
+
+        // Then
+        assertEquals(2, result.getSlots().size());
+        assertNull(result.getNextFrom());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid free slot searches")
+    void findFreeSlots_InvalidInput_ThrowsException() {
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 9, 0);
+        assertThrows(ResourceBadRequestException.class,
+                () -> appointmentService.findFreeSlots(List.of(), day, day.plusHours(1), 30, null));
+        assertThrows(ResourceBadRequestException.class,
+                () -> appointmentService.findFreeSlots(List.of(TEACHER_ID), day, day, 30, null));
+        assertThrows(ResourceBadRequestException.class,
+                () -> appointmentService.findFreeSlots(List.of(TEACHER_ID), day, day.plusDays(32), 30, null));
+        assertThrows(ResourceBadRequestException.class,
+                () -> appointmentService.findFreeSlots(List.of(TEACHER_ID), day, day.plusHours(1), 0, null));
+        assertThrows(ResourceBadRequestException.class,
+                () -> appointmentService.findFreeSlots(List.of(TEACHER_ID), day, day.plusHours(1), 1, null));
+        assertThrows(ResourceBadRequestException.class,
+                () -> appointmentService.findFreeSlots(List.of(TEACHER_ID), day, day.plusDays(2), 25 * 60, null));
+        verify(appointmentRepository, never()).findScheduledInRange(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should book every occurrence of a series in one batch with one notification")
+    void scheduleSeries_AllFree_BooksBatch() {
+        // Given
+        LocalDateTime first = LocalDateTime.of(2025, 3, 3, 9, 0);
+        AppointmentSeriesRequest request = seriesRequest(first, Recurrence.WEEKLY, first.toLocalDate().plusWeeks(3), false);
+        when(appointmentRepository.findScheduledInRange(Set.of(TEACHER_ID), first, first.plusWeeks(3).plusHours(1)))
+                .thenReturn(List.of());
+        stubBatchInsert(new int[]{1, 1, 1, 1});
+
+        // When
+        AppointmentSeriesResult result = appointmentService.scheduleSeries(request);
+
+        // Then
+        assertEquals(4, result.getOccurrences());
+        assertEquals(4, result.getBooked().size());
+        assertEquals(100L, result.getBooked().get(0).getId());
+        assertEquals(first.plusWeeks(3), result.getBooked().get(3).getStartTime());
+        assertTrue(result.getConflicts().isEmpty());
+        verify(scheduleIndex).booked(result.getBooked());
+        verify(outbox).publish(argThat(event -> event instanceof AppointmentEvent series
+                && series.type() == AppointmentEvent.Type.SERIES_SCHEDULED
+                && series.occurrences() == 4 && first.equals(series.startTime())));
+    }
+
+    @Test
+    @DisplayName("Should book nothing and report conflicts unless partial booking is allowed")
+    void scheduleSeries_Conflict_BooksNothing() {
+        // Given
+        LocalDateTime first = LocalDateTime.of(2025, 3, 3, 9, 0);
+        AppointmentSeriesRequest request = seriesRequest(first, Recurrence.BIWEEKLY, first.toLocalDate().plusWeeks(4), false);
+        when(appointmentRepository.findScheduledInRange(Set.of(TEACHER_ID), first, first.plusWeeks(4).plusHours(1)))
+                .thenReturn(List.of(scheduled(TEACHER_ID, first.plusWeeks(2).plusMinutes(30), first.plusWeeks(2).plusHours(2))));
+
+        // When
+        AppointmentSeriesResult result = appointmentService.scheduleSeries(request);
+
+        // Then
+        assertEquals(3, result.getOccurrences());
+        assertTrue(result.getBooked().isEmpty());
+        assertEquals(List.of(new TimeSlot(first.plusWeeks(2), first.plusWeeks(2).plusHours(1))), result.getConflicts());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class), any(KeyHolder.class),
+                any(String[].class));
+        verify(outbox, never()).publish(any());
+    }
+
+    @Test
+    @DisplayName("Should book the free occurrences and report known and raced conflicts when partial booking is allowed")
+    void scheduleSeries_AllowPartial_BooksFreeOccurrences() {
+        // Given
+        LocalDateTime first = LocalDateTime.of(2025, 3, 3, 9, 0);
+        AppointmentSeriesRequest request = seriesRequest(first, Recurrence.WEEKLY, first.toLocalDate().plusWeeks(2), true);
+        when(scheduleIndex.covers(first)).thenReturn(true);
+        when(scheduleIndex.busy(TEACHER_ID, first, first.plusWeeks(2).plusHours(1)))
+                .thenReturn(List.of(new TimeSlot(first.minusMinutes(30), first.plusMinutes(30))));
+        when(appointmentRepository.findScheduledInRange(Set.of(TEACHER_ID), first, first.plusWeeks(2).plusHours(1)))
+                .thenReturn(List.of(scheduled(TEACHER_ID, first.minusMinutes(30), first.plusMinutes(30))));
+        stubBatchInsert(new int[]{1, 0});
+
+        // When
+        AppointmentSeriesResult result = appointmentService.scheduleSeries(request);
+
+        // Then
+        assertEquals(1, result.getBooked().size());
+        assertEquals(first.plusWeeks(1), result.getBooked().get(0).getStartTime());
+        assertEquals(List.of(first, first.plusWeeks(2)),
+                result.getConflicts().stream().map(TimeSlot::getStart).toList());
+        verify(scheduleIndex, never()).reload(any());
+    }
+
+    @Test
+    @DisplayName("Should book a series the schedule index wrongly reports as conflicting and reload the teacher")
+    void scheduleSeries_StaleIndexedConflict_BooksSeries() {
+        // Given
+        LocalDateTime first = LocalDateTime.of(2025, 3, 3, 9, 0);
+        AppointmentSeriesRequest request = seriesRequest(first, Recurrence.WEEKLY, first.toLocalDate().plusWeeks(1), false);
+        when(scheduleIndex.covers(first)).thenReturn(true);
+        when(scheduleIndex.busy(TEACHER_ID, first, first.plusWeeks(1).plusHours(1)))
+                .thenReturn(List.of(new TimeSlot(first, first.plusHours(1))));
+        when(appointmentRepository.findScheduledInRange(Set.of(TEACHER_ID), first, first.plusWeeks(1).plusHours(1)))
+                .thenReturn(List.of());
+        stubBatchInsert(new int[]{1, 1});
+
+        // When
+        AppointmentSeriesResult result = appointmentService.scheduleSeries(request);
+
+        // Then
+        assertEquals(2, result.getBooked().size());
+        assertTrue(result.getConflicts().isEmpty());
+        verify(scheduleIndex).reload(TEACHER_ID);
+    }
+
+    @Test
+    @DisplayName("Should reject series that are too long or too many")
+    void scheduleSeries_InvalidSeries_ThrowsException() {
+        LocalDateTime first = LocalDateTime.of(2025, 3, 3, 9, 0);
+        AppointmentSeriesRequest tooMany = seriesRequest(first, Recurrence.WEEKLY, first.toLocalDate().plusYears(2), false);
+        AppointmentSeriesRequest ended = seriesRequest(first, Recurrence.WEEKLY, first.toLocalDate().minusDays(1), false);
+        AppointmentSeriesRequest tooLong = seriesRequest(first, Recurrence.WEEKLY, first.toLocalDate(), false);
+        tooLong.setDurationMinutes(AppointmentService.MAX_SERIES_DURATION_MINUTES + 1);
+
+        assertThrows(ResourceBadRequestException.class, () -> appointmentService.scheduleSeries(tooMany));
+        assertThrows(ResourceBadRequestException.class, () -> appointmentService.scheduleSeries(ended));
+        assertThrows(ResourceBadRequestException.class, () -> appointmentService.scheduleSeries(tooLong));
+        verify(appointmentRepository, never()).findScheduledInRange(any(), any(), any());
+    }
+
+    private AppointmentSeriesRequest seriesRequest(LocalDateTime first, Recurrence frequency, LocalDate until,
+                                                   boolean allowPartial) {
+        return AppointmentSeriesRequest.builder()
+                .studentId(STUDENT_ID)
+                .teacherId(TEACHER_ID)
+                .firstStart(first)
+                .durationMinutes(60)
+                .frequency(frequency)
+                .until(until)
+                .allowPartial(allowPartial)
+                .build();
+    }
+
+    private void stubBatchInsert(int[] counts) {
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class), any(KeyHolder.class),
+                any(String[].class))).thenAnswer(invocation -> {
+            KeyHolder keys = invocation.getArgument(2);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 1) {
+                    keys.getKeyList().add(Map.of("id", 100L + i));
+                }
+            }
+            return counts;
+        });
+    }
+
+    private AppointmentView view(Long id, LocalDateTime start) {
+        return new SpelAwareProxyProjectionFactory().createProjection(AppointmentView.class, Map.of(
+                "id", id,
+                "studentId", STUDENT_ID,
+                "teacherId", TEACHER_ID,
+                "startTime", start,
+                "endTime", start.plusHours(1),
+                "status", Appointment.AppointmentStatus.SCHEDULED));
+    }
+
+    private static Appointment scheduled(Long teacherId, LocalDateTime start, LocalDateTime end) {
+        return Appointment.builder()
+                .teacherId(teacherId)
+                .startTime(start)
+                .endTime(end)
+                .status(Appointment.AppointmentStatus.SCHEDULED)
+                .build();
+    }
 }
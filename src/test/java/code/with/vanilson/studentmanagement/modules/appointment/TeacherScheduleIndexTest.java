@@ -0,0 +1,202 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TeacherScheduleIndex Unit Tests")
+class TeacherScheduleIndexTest {
+
+    private static final Long TEACHER_ID = 2L;
+
+    @Mock
+    private AppointmentRepository repository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private MeterRegistry meterRegistry;
+    private TeacherScheduleIndex index;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new TeacherScheduleIndex(repository, redisTemplate, listenerContainer, meterRegistry);
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    @DisplayName("Should leave every decision to the database until the first rebuild")
+    void hasConflict_BeforeRebuild_ShouldSkip() {
+        // When
+        boolean conflict = index.hasConflict(TEACHER_ID, start, start.plusHours(1));
+
+        // Then
+        assertFalse(conflict);
+        assertFalse(index.covers(start));
+        assertEquals(1.0, count("skipped"));
+    }
+
+    @Test
+    @DisplayName("Should detect overlaps with indexed appointments and allow adjacent ones")
+    void hasConflict_AfterRebuild_ShouldCheckNeighbours() {
+        // Given
+        rebuildWith(scheduled(start, start.plusHours(1)), scheduled(start.plusHours(2), start.plusHours(3)));
+
+        // When / Then
+        assertTrue(index.hasConflict(TEACHER_ID, start.plusMinutes(30), start.plusMinutes(90)));
+        assertTrue(index.hasConflict(TEACHER_ID, start.minusHours(1), start.plusHours(4)));
+        assertFalse(index.hasConflict(TEACHER_ID, start.plusHours(1), start.plusHours(2)));
+        assertFalse(index.hasConflict(3L, start, start.plusHours(1)));
+        assertEquals(2.0, count("conflict"));
+        assertEquals(2.0, count("clear"));
+    }
+
+    @Test
+    @DisplayName("Should return only appointments overlapping the requested range")
+    void busy_ShouldReturnOverlappingAppointments() {
+        // Given
+        rebuildWith(scheduled(start, start.plusHours(1)), scheduled(start.plusHours(2), start.plusHours(3)),
+                scheduled(start.plusHours(5), start.plusHours(6)));
+
+        // When
+        List<TimeSlot> busy = index.busy(TEACHER_ID, start.plusMinutes(30), start.plusHours(5));
+
+        // Then
+        assertEquals(List.of(new TimeSlot(start, start.plusHours(1)),
+                new TimeSlot(start.plusHours(2), start.plusHours(3))), busy);
+    }
+
+    @Test
+    @DisplayName("Should apply bookings and cancellations and tell other nodes")
+    void bookedAndCancelled_ShouldUpdateIndexAndPublish() {
+        // Given
+        rebuildWith();
+        Appointment appointment = scheduled(start, start.plusHours(1));
+
+        // When
+        index.booked(appointment);
+        boolean conflictAfterBooking = index.hasConflict(TEACHER_ID, start, start.plusMinutes(30));
+        index.cancelled(appointment);
+
+        // Then
+        assertTrue(conflictAfterBooking);
+        assertFalse(index.hasConflict(TEACHER_ID, start, start.plusMinutes(30)));
+        verify(redisTemplate, times(2))
+                .convertAndSend(eq(TeacherScheduleIndex.CHANNEL), anyString());
+    }
+
+    @Test
+    @DisplayName("Should reload a teacher when another node reports a change")
+    void onMessage_FromOtherNode_ShouldReloadTeacher() {
+        // Given
+        rebuildWith();
+        when(repository.findByTeacherIdAndStatusAndEndTimeAfter(eq(TEACHER_ID),
+                eq(Appointment.AppointmentStatus.SCHEDULED), any()))
+                .thenReturn(List.of(scheduled(start, start.plusHours(1))));
+
+        // When
+        index.onMessage(message("R|other-node|" + TEACHER_ID), null);
+
+        // Then
+        assertTrue(index.hasConflict(TEACHER_ID, start, start.plusHours(1)));
+    }
+
+    @Test
+    @DisplayName("Should keep the previous index when a rebuild fails")
+    void rebuild_DatabaseUnavailable_ShouldKeepIndex() {
+        // Given
+        rebuildWith(scheduled(start, start.plusHours(1)));
+        when(repository.findByStatusAndEndTimeAfter(eq(Appointment.AppointmentStatus.SCHEDULED), any()))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertTrue(index.hasConflict(TEACHER_ID, start, start.plusHours(1)));
+        verify(repository, never()).findByTeacherIdAndStatusAndEndTimeAfter(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reload teachers changed while a rebuild was loading its snapshot")
+    void rebuild_TeacherChangedDuringSnapshot_ShouldReloadTeacher() {
+        // Given
+        rebuildWith();
+        Appointment booked = scheduled(start, start.plusHours(1));
+        when(repository.findByStatusAndEndTimeAfter(eq(Appointment.AppointmentStatus.SCHEDULED), any()))
+                .thenAnswer(invocation -> {
+                    index.booked(booked);
+                    return List.of();
+                });
+        when(repository.findByTeacherIdAndStatusAndEndTimeAfter(eq(TEACHER_ID),
+                eq(Appointment.AppointmentStatus.SCHEDULED), any())).thenReturn(List.of(booked));
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertTrue(index.hasConflict(TEACHER_ID, start, start.plusHours(1)));
+        verify(repository).findByTeacherIdAndStatusAndEndTimeAfter(eq(TEACHER_ID),
+                eq(Appointment.AppointmentStatus.SCHEDULED), any());
+
+        // A later rebuild no longer treats the teacher as changed
+        when(repository.findByStatusAndEndTimeAfter(eq(Appointment.AppointmentStatus.SCHEDULED), any()))
+                .thenReturn(List.of(booked));
+        index.rebuild();
+        verify(repository, times(1)).findByTeacherIdAndStatusAndEndTimeAfter(any(), any(), any());
+    }
+
+    private void rebuildWith(Appointment... appointments) {
+        when(repository.findByStatusAndEndTimeAfter(eq(Appointment.AppointmentStatus.SCHEDULED), any()))
+                .thenReturn(List.of(appointments));
+        index.rebuild();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("appointment.index.checks").tag("result", result).counter().count();
+    }
+
+    private static Appointment scheduled(LocalDateTime start, LocalDateTime end) {
+        return Appointment.builder()
+                .teacherId(TEACHER_ID)
+                .startTime(start)
+                .endTime(end)
+                .status(Appointment.AppointmentStatus.SCHEDULED)
+                .build();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TeacherScheduleIndex.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
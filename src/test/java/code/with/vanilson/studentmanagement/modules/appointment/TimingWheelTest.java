@@ -0,0 +1,70 @@
+package code.with.vanilson.studentmanagement.modules.appointment;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TimingWheel Unit Tests")
+class TimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    @DisplayName("Should expire entries once their tick is reached, in deadline order")
+    void advance_ShouldExpireDueEntries() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+        wheel.add(START + 35, "b");
+        wheel.add(START + 31, "a");
+        wheel.add(START + 60, "c");
+
+        // When
+        List<String> early = wheel.advance(START + 29);
+        List<String> due = wheel.advance(START + 30);
+
+        // Then
+        assertTrue(early.isEmpty());
+        assertEquals(List.of("a", "b"), due);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should cascade entries beyond the wheel span from the overflow level")
+    void advance_BeyondSpan_ShouldCascadeFromOverflow() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+        wheel.add(START + 1_000, "far");
+        wheel.add(START + 200, "near");
+
+        // When
+        List<String> beforeNear = wheel.advance(START + 190);
+        List<String> near = wheel.advance(START + 200);
+        List<String> beforeFar = wheel.advance(START + 990);
+        List<String> far = wheel.advance(START + 1_000);
+
+        // Then
+        assertTrue(beforeNear.isEmpty());
+        assertEquals(List.of("near"), near);
+        assertTrue(beforeFar.isEmpty());
+        assertEquals(List.of("far"), far);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should refuse entries that are already due")
+    void add_AlreadyDue_ShouldReturnFalse() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+
+        // When / Then
+        assertFalse(wheel.add(START - 500, "past"));
+        assertFalse(wheel.add(START + 5, "this tick"));
+        assertTrue(wheel.add(START + 10, "next tick"));
+        assertEquals(1, wheel.size());
+    }
+}
@@ -0,0 +1,92 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AgingReportService Unit Tests")
+class AgingReportServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private AgingReportService agingReportService;
+
+    @Test
+    @DisplayName("Should roll the per-degree buckets up into departments and a total")
+    @SuppressWarnings("unchecked")
+    void getAgingReport_ShouldRollUpDegrees() {
+        // Given
+        when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(
+                        degree(1L, "Physics", "Science", "100.00", "50.00", "0", "0", "10.00"),
+                        degree(2L, "Biology", "Science", "200.00", "0", "25.00", "0", "0"),
+                        degree(3L, "History", "Humanities", "0", "0", "0", "40.00", "0"),
+                        degree(null, null, null, "5.00", "0", "0", "0", "0")));
+
+        // When
+        AgingReport report = agingReportService.getAgingReport();
+
+        // Then
+        assertEquals(LocalDate.now(), report.getAsOf());
+        assertEquals(new BigDecimal("305.00"), report.getTotal().getCurrent());
+        assertEquals(new BigDecimal("50.00"), report.getTotal().getDays1To30());
+        assertEquals(new BigDecimal("430.00"), report.getTotal().getTotal());
+        assertEquals(3, report.getDepartments().size());
+        AgingReport.DepartmentAging science = report.getDepartments().get(0);
+        assertEquals("Science", science.getDepartment());
+        assertEquals(new BigDecimal("385.00"), science.getBuckets().getTotal());
+        assertEquals(new BigDecimal("10.00"), science.getBuckets().getOver90());
+        assertNull(report.getDepartments().get(2).getDepartment());
+        assertEquals(4, report.getDegrees().size());
+    }
+
+    @Test
+    @DisplayName("Should bucket by due date relative to today")
+    @SuppressWarnings("unchecked")
+    void getAgingReport_ShouldPassBucketBoundaries() {
+        // Given
+        when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of());
+
+        // When
+        AgingReport report = agingReportService.getAgingReport();
+
+        // Then
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), params.capture(), any(RowMapper.class));
+        LocalDate today = LocalDate.now();
+        assertEquals(today, params.getValue().getValue("today"));
+        assertEquals(today.minusDays(30), params.getValue().getValue("days30"));
+        assertEquals(today.minusDays(90), params.getValue().getValue("days90"));
+        assertEquals(BigDecimal.ZERO, report.getTotal().getTotal());
+        assertTrue(report.getDepartments().isEmpty());
+    }
+
+    private static AgingReport.DegreeAging degree(Long id, String name, String department, String current,
+                                                  String days30, String days60, String days90, String over90) {
+        return new AgingReport.DegreeAging(id, name, department, new AgingReport.Buckets(new BigDecimal(current),
+                new BigDecimal(days30), new BigDecimal(days60), new BigDecimal(days90), new BigDecimal(over90)));
+    }
+}
@@ -0,0 +1,185 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BankReconciliationService Unit Tests")
+class BankReconciliationServiceTest {
+
+    private static final LocalDate DUE_DATE = LocalDate.of(2024, 1, 31);
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OutboxService outbox;
+
+    @InjectMocks
+    private BankReconciliationService reconciliationService;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should pay exactly matching lines in one batch and report the others")
+    void reconcile_PaysMatchesAndReportsMismatches() throws Exception {
+        // Given
+        Path statement = Files.writeString(dir.resolve("statement.csv"), "value_date,reference,amount\n"
+                + "2024-02-01,INV-1,100.00\n"
+                + "2024-02-01,INV-2,110.00\n"
+                + "2024-02-01,INV-3,50.00\n"
+                + "2024-02-01,INV-4,60.00\n"
+                + "2024-02-01,INV-5,70.00\n"
+                + "2024-02-01,INV-1,100.00\n"
+                + "not a line\n");
+        invoices(
+                row(1L, 10L, 3L, "100.00", "0.00", "PENDING", 4L),
+                row(2L, 11L, 3L, "100.00", "10.00", "OVERDUE", 2L),
+                row(3L, 12L, null, "40.00", "0.00", "PENDING", 1L),
+                row(4L, 13L, 3L, "60.00", "0.00", "PAID", 5L));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE invoice"), any(SqlParameterSource[].class)))
+                .thenReturn(new int[]{1, 1});
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO student_balance"), any(SqlParameterSource[].class)))
+                .thenReturn(new int[]{1, 1});
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO receivable_aging"), any(SqlParameterSource[].class)))
+                .thenReturn(new int[]{1});
+
+        // When
+        ReconciliationResult result = reconciliationService.reconcile(statement,
+                BankReconciliationService.StatementFormat.CSV);
+
+        // Then
+        assertEquals(7, result.getLines());
+        assertEquals(2, result.getPaid());
+        assertEquals(0, new BigDecimal("210.00").compareTo(result.getPaidAmount()));
+        assertEquals(5, result.getMismatched());
+        assertEquals(List.of(
+                        ReconciliationResult.Reason.INVALID_LINE,
+                        ReconciliationResult.Reason.AMOUNT_MISMATCH,
+                        ReconciliationResult.Reason.NOT_PAYABLE,
+                        ReconciliationResult.Reason.UNKNOWN_INVOICE,
+                        ReconciliationResult.Reason.DUPLICATE),
+                result.getMismatches().stream().map(ReconciliationResult.Mismatch::getReason).toList());
+
+        ArgumentCaptor<SqlParameterSource[]> payments = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE invoice"), payments.capture());
+        assertEquals(1L, payments.getValue()[0].getValue("id"));
+        assertEquals(4L, payments.getValue()[0].getValue("version"));
+        assertEquals(2L, payments.getValue()[1].getValue("id"));
+
+        ArgumentCaptor<SqlParameterSource[]> balances = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO student_balance"), balances.capture());
+        assertEquals(new BigDecimal("-110.00"), balances.getValue()[1].getValue("overdue"));
+        assertEquals(new BigDecimal("110.00"), balances.getValue()[1].getValue("paid"));
+
+        ArgumentCaptor<SqlParameterSource[]> aging = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO receivable_aging"), aging.capture());
+        assertEquals(new BigDecimal("-210.00"), aging.getValue()[0].getValue("outstanding"));
+        assertEquals(-2, aging.getValue()[0].getValue("invoices"));
+        verify(outbox).publishAll(List.of(
+                BillingEvent.invoicePaid(1L, 10L, new BigDecimal("100.00")),
+                BillingEvent.invoicePaid(2L, 11L, new BigDecimal("110.00"))));
+    }
+
+    @Test
+    @DisplayName("Should report an invoice changed since it was loaded instead of paying it")
+    void reconcile_ConcurrentUpdate_ShouldReport() throws Exception {
+        // Given
+        Path statement = Files.writeString(dir.resolve("statement.csv"), "2024-02-01,INV-1,100.00\n");
+        invoices(row(1L, 10L, 3L, "100.00", "0.00", "PENDING", 4L));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE invoice"), any(SqlParameterSource[].class)))
+                .thenReturn(new int[]{0});
+
+        // When
+        ReconciliationResult result = reconciliationService.reconcile(statement,
+                BankReconciliationService.StatementFormat.CSV);
+
+        // Then
+        assertEquals(0, result.getPaid());
+        assertEquals(ReconciliationResult.Reason.CONCURRENT_UPDATE, result.getMismatches().get(0).getReason());
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO student_balance"),
+                any(SqlParameterSource[].class));
+        verify(outbox).publishAll(List.of());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown statement formats")
+    void statementFormat_Unknown_ThrowsException() {
+        ResourceBadRequestException exception = assertThrows(
+                ResourceBadRequestException.class,
+                () -> BankReconciliationService.StatementFormat.from("mt103")
+        );
+        assertEquals("billing.invalid_statement_format", exception.getMessage());
+    }
+
+    private void invoices(ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, student_id"), any(MapSqlParameterSource.class),
+                any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet row(Long id, Long studentId, Long degreeId, String amount, String penalty,
+                                 String status, Long version) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        lenient().when(rs.getLong("id")).thenReturn(id);
+        lenient().when(rs.getLong("student_id")).thenReturn(studentId);
+        lenient().when(rs.getLong("degree_id")).thenReturn(degreeId == null ? 0L : degreeId);
+        lenient().when(rs.wasNull()).thenReturn(false, degreeId == null);
+        lenient().when(rs.getBigDecimal("amount")).thenReturn(new BigDecimal(amount));
+        lenient().when(rs.getBigDecimal("penalty")).thenReturn(new BigDecimal(penalty));
+        lenient().when(rs.getDate("due_date")).thenReturn(Date.valueOf(DUE_DATE));
+        lenient().when(rs.getString("status")).thenReturn(status);
+        lenient().when(rs.getLong("version")).thenReturn(version);
+        return rs;
+    }
+}
@@ -6,31 +6,50 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import code.with.vanilson.studentmanagement.config.JwtUtils;
+import code.with.vanilson.studentmanagement.common.utils.ExportFormat;
+import code.with.vanilson.studentmanagement.common.utils.IdempotentRequests;
 
 import code.with.vanilson.studentmanagement.config.SecurityConfig;
 
 @WebMvcTest({ BillingController.class, SecurityConfig.class })
+@ActiveProfiles("test")
 class BillingControllerTest {
 
         @Autowired
@@ -39,6 +58,21 @@ class BillingControllerTest {
         @MockBean
         private BillingService billingService;
 
+        @MockBean
+        private InvoiceRunService invoiceRunService;
+
+        @MockBean
+        private AgingReportService agingReportService;
+
+        @MockBean
+        private InvoiceExportService invoiceExportService;
+
+        @MockBean
+        private BankReconciliationService reconciliationService;
+
+        @MockBean
+        private IdempotentRequests idempotentRequests;
+
         @MockBean
         private JwtUtils jwtUtils;
 
@@ -96,9 +130,12 @@ class BillingControllerTest {
                                 .build();
 
                 when(billingService.payInvoice(1L)).thenReturn(invoice);
+                when(idempotentRequests.execute(eq("invoice-pay:1"), eq("key-1"), any(), any()))
+                                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get());
 
                 mockMvc.perform(post("/api/v1/billing/invoices/1/pay")
-                                .with(csrf()))
+                                .with(csrf())
+                                .header(IdempotentRequests.HEADER, "key-1"))
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.data.status").value("PAID"))
                                 .andExpect(jsonPath("$.message").value("Invoice paid successfully"));
@@ -123,4 +160,207 @@ class BillingControllerTest {
                                 .andExpect(jsonPath("$.data[0].studentId").value(1))
                                 .andExpect(jsonPath("$.message").value("Invoices retrieved successfully"));
         }
+
+        @Test
+        @DisplayName("GET /api/v1/billing/students/{studentId}/balance - Success")
+        @WithMockUser
+        void getStudentBalance_Success() throws Exception {
+                StudentBalance balance = StudentBalance.builder()
+                                .studentId(1L)
+                                .outstanding(new BigDecimal("130.00"))
+                                .overdue(new BigDecimal("30.00"))
+                                .paidToDate(new BigDecimal("200.00"))
+                                .penalties(new BigDecimal("10.00"))
+                                .build();
+
+                when(billingService.getStudentBalance(1L)).thenReturn(balance);
+
+                mockMvc.perform(get("/api/v1/billing/students/1/balance"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.data.outstanding").value(130.0))
+                                .andExpect(jsonPath("$.data.paidToDate").value(200.0))
+                                .andExpect(jsonPath("$.message").value("Balance retrieved successfully"));
+        }
+
+        @Test
+        @DisplayName("POST /api/v1/billing/invoice-runs - Accepted (Admin)")
+        @WithMockUser(roles = "ADMIN")
+        void startInvoiceRun_Accepted() throws Exception {
+                InvoiceRun run = InvoiceRun.builder()
+                                .degreeId(1L)
+                                .term("2024-FALL")
+                                .amount(new BigDecimal("500.00"))
+                                .dueDate(LocalDate.of(2024, 10, 1))
+                                .status(InvoiceRun.RunStatus.RUNNING)
+                                .totalStudents(1200)
+                                .build();
+
+                when(invoiceRunService.start(any(InvoiceRunRequest.class))).thenReturn(run);
+
+                mockMvc.perform(post("/api/v1/billing/invoice-runs")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"degreeId\":1,\"term\":\"2024-FALL\",\"amount\":500.00,\"dueDate\":\"2024-10-01\"}"))
+                                .andExpect(status().isAccepted())
+                                .andExpect(jsonPath("$.data.status").value("RUNNING"))
+                                .andExpect(jsonPath("$.data.totalStudents").value(1200))
+                                .andExpect(jsonPath("$.data.owner").doesNotExist())
+                                .andExpect(jsonPath("$.message").value("Invoice run started"));
+        }
+
+        @Test
+        @DisplayName("POST /api/v1/billing/invoice-runs - Bad Request (missing term)")
+        @WithMockUser(roles = "ADMIN")
+        void startInvoiceRun_Invalid() throws Exception {
+                mockMvc.perform(post("/api/v1/billing/invoice-runs")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"degreeId\":1,\"amount\":500.00,\"dueDate\":\"2024-10-01\"}"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/billing/invoice-runs/{id} - Success (Admin)")
+        @WithMockUser(roles = "ADMIN")
+        void getInvoiceRun_Success() throws Exception {
+                InvoiceRun run = InvoiceRun.builder()
+                                .degreeId(1L)
+                                .term("2024-FALL")
+                                .status(InvoiceRun.RunStatus.COMPLETED)
+                                .totalStudents(1200)
+                                .invoiced(1200)
+                                .build();
+
+                when(invoiceRunService.getRun(7L)).thenReturn(run);
+
+                mockMvc.perform(get("/api/v1/billing/invoice-runs/7"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                                .andExpect(jsonPath("$.data.invoiced").value(1200));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/billing/reports/aging - Success (Admin)")
+        @WithMockUser(roles = "ADMIN")
+        void getAgingReport_Success() throws Exception {
+                AgingReport.Buckets buckets = new AgingReport.Buckets(new BigDecimal("100.00"),
+                                new BigDecimal("50.00"), BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("10.00"));
+                AgingReport report = AgingReport.builder()
+                                .asOf(LocalDate.of(2024, 12, 31))
+                                .total(buckets)
+                                .departments(List.of(new AgingReport.DepartmentAging("Science", buckets)))
+                                .degrees(List.of(new AgingReport.DegreeAging(1L, "Physics", "Science", buckets)))
+                                .build();
+
+                when(agingReportService.getAgingReport()).thenReturn(report);
+
+                mockMvc.perform(get("/api/v1/billing/reports/aging"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.data.total.total").value(160.0))
+                                .andExpect(jsonPath("$.data.departments[0].department").value("Science"))
+                                .andExpect(jsonPath("$.data.degrees[0].buckets.over90").value(10.0));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/billing/reports/aging - Forbidden (User)")
+        @WithMockUser(roles = "USER")
+        void getAgingReport_Forbidden() throws Exception {
+                mockMvc.perform(get("/api/v1/billing/reports/aging"))
+                                .andExpect(status().isForbidden());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/billing/invoices/export - Streams gzip CSV (Admin)")
+        @WithMockUser(roles = "ADMIN")
+        void exportInvoices_GzipCsv() throws Exception {
+                doAnswer(invocation -> {
+                        OutputStream out = invocation.getArgument(3);
+                        out.write("id,student_id\n1,2\n".getBytes(StandardCharsets.UTF_8));
+                        return null;
+                }).when(invoiceExportService).export(argThat(filter -> filter.getStatus() == Invoice.InvoiceStatus.OVERDUE
+                                && LocalDate.of(2024, 1, 1).equals(filter.getDueFrom())
+                                && Long.valueOf(3L).equals(filter.getDegreeId())),
+                                eq(ExportFormat.CSV), eq(true), any(OutputStream.class));
+
+                MvcResult result = mockMvc.perform(get("/api/v1/billing/invoices/export")
+                                .param("format", "csv")
+                                .param("status", "overdue")
+                                .param("dueFrom", "2024-01-01")
+                                .param("degreeId", "3")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Type", "text/csv"))
+                                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/billing/invoices/export - Uncompressed when gzip is refused (Admin)")
+        @WithMockUser(roles = "ADMIN")
+        void exportInvoices_GzipRefused() throws Exception {
+                MvcResult result = mockMvc.perform(get("/api/v1/billing/invoices/export")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+                verify(invoiceExportService).export(any(), eq(ExportFormat.CSV), eq(false), any(OutputStream.class));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/billing/invoices/export - Bad Request (Unknown status)")
+        @WithMockUser(roles = "ADMIN")
+        void exportInvoices_UnknownStatus() throws Exception {
+                mockMvc.perform(get("/api/v1/billing/invoices/export").param("status", "LOST"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/billing/invoices/export - Forbidden (User)")
+        @WithMockUser(roles = "USER")
+        void exportInvoices_Forbidden() throws Exception {
+                mockMvc.perform(get("/api/v1/billing/invoices/export"))
+                                .andExpect(status().isForbidden());
+        }
+
+        @Test
+        @DisplayName("POST /api/v1/billing/reconciliations - Success (Admin)")
+        @WithMockUser(roles = "ADMIN")
+        void reconcileStatement_Success() throws Exception {
+                ReconciliationResult result = ReconciliationResult.builder()
+                                .lines(2)
+                                .paid(1)
+                                .mismatched(1)
+                                .paidAmount(new BigDecimal("100.00"))
+                                .mismatches(List.of(new ReconciliationResult.Mismatch(2, 9L, new BigDecimal("5.00"),
+                                                ReconciliationResult.Reason.UNKNOWN_INVOICE, null)))
+                                .build();
+                when(reconciliationService.reconcile(any(Path.class),
+                                eq(BankReconciliationService.StatementFormat.CSV))).thenReturn(result);
+
+                mockMvc.perform(multipart("/api/v1/billing/reconciliations")
+                                .file(new MockMultipartFile("file", "statement.csv", "text/csv",
+                                                "2024-02-01,INV-1,100.00\n2024-02-01,INV-9,5.00\n".getBytes(StandardCharsets.UTF_8)))
+                                .with(csrf()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.data.paid").value(1))
+                                .andExpect(jsonPath("$.data.mismatches[0].reason").value("UNKNOWN_INVOICE"))
+                                .andExpect(jsonPath("$.message").value("Statement reconciled"));
+        }
+
+        @Test
+        @DisplayName("POST /api/v1/billing/reconciliations - Forbidden (User)")
+        @WithMockUser(roles = "USER")
+        void reconcileStatement_Forbidden() throws Exception {
+                mockMvc.perform(multipart("/api/v1/billing/reconciliations")
+                                .file(new MockMultipartFile("file", "statement.csv", "text/csv", new byte[0]))
+                                .with(csrf()))
+                                .andExpect(status().isForbidden());
+        }
 }
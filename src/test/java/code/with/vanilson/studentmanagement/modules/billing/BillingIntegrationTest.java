@@ -1,7 +1,11 @@
 package code.with.vanilson.studentmanagement.modules.billing;
 
 import code.with.vanilson.studentmanagement.AbstractIntegrationTest;
+import code.with.vanilson.studentmanagement.modules.course.Degree;
+import code.with.vanilson.studentmanagement.modules.course.DegreeRepository;
+import code.with.vanilson.studentmanagement.modules.student.Student;
 import code.with.vanilson.studentmanagement.modules.student.StudentDto;
+import code.with.vanilson.studentmanagement.modules.student.StudentRepository;
 import code.with.vanilson.studentmanagement.modules.student.StudentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -12,10 +16,14 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,6 +35,24 @@ class BillingIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private BillingService billingService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private AgingReportService agingReportService;
+
+    @Autowired
+    private BankReconciliationService reconciliationService;
+
+    @Autowired
+    private DegreeRepository degreeRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
     @Test
     @DisplayName("Billing Flow - Create and Pay Invoice")
     @WithMockUser(roles = "ADMIN")
@@ -53,14 +79,149 @@ class BillingIntegrationTest extends AbstractIntegrationTest {
         Integer invoiceIdInt = com.jayway.jsonpath.JsonPath.read(createResponse, "$.data.id");
         Long invoiceId = invoiceIdInt.longValue();
 
+        mockMvc.perform(get("/api/v1/billing/students/" + studentId + "/balance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.outstanding").value(150.0));
+
         // Get student invoices
         mockMvc.perform(get("/api/v1/billing/students/" + studentId + "/invoices"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data[0].studentId").value(studentId));
 
         // Pay Invoice
-        mockMvc.perform(post("/api/v1/billing/invoices/" + invoiceId + "/pay"))
+        mockMvc.perform(post("/api/v1/billing/invoices/" + invoiceId + "/pay")
+                .header("Idempotency-Key", "billing-flow-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("PAID"));
+
+        // A provider retry with the same key gets the first response, not "already paid"
+        mockMvc.perform(post("/api/v1/billing/invoices/" + invoiceId + "/pay")
+                .header("Idempotency-Key", "billing-flow-1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
                 .andExpect(jsonPath("$.data.status").value("PAID"));
+
+        mockMvc.perform(get("/api/v1/billing/students/" + studentId + "/balance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.outstanding").value(0.0))
+                .andExpect(jsonPath("$.data.paidToDate").value(150.0));
+    }
+
+    @Test
+    @DisplayName("Late penalties - overdue pending invoices get status and weekly penalty")
+    void applyLatePenalties_UpdatesOnlyOverduePendingInvoices() {
+        StudentDto student = studentService.createStudent(StudentDto.builder()
+                .firstName("Penalty")
+                .lastName("Student")
+                .email("penalty.student@example.com")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .build());
+        Long studentId = student.getId();
+        LocalDate today = LocalDate.now();
+
+        Invoice threeWeeksLate = invoiceRepository.save(invoice(studentId, today.minusWeeks(3).minusDays(2),
+                Invoice.InvoiceStatus.PENDING));
+        Invoice daysLate = invoiceRepository.save(invoice(studentId, today.minusDays(3), Invoice.InvoiceStatus.PENDING));
+        Invoice notDue = invoiceRepository.save(invoice(studentId, today.plusDays(10), Invoice.InvoiceStatus.PENDING));
+        Invoice paid = invoiceRepository.save(invoice(studentId, today.minusWeeks(3), Invoice.InvoiceStatus.PAID));
+
+        billingService.applyLatePenalties();
+
+        Invoice updated = invoiceRepository.findById(threeWeeksLate.getId()).orElseThrow();
+        assertEquals(Invoice.InvoiceStatus.OVERDUE, updated.getStatus());
+        assertEquals(0, new BigDecimal("30.00").compareTo(updated.getPenaltyAmount()));
+        Invoice recent = invoiceRepository.findById(daysLate.getId()).orElseThrow();
+        assertEquals(Invoice.InvoiceStatus.OVERDUE, recent.getStatus());
+        assertEquals(0, BigDecimal.ZERO.compareTo(recent.getPenaltyAmount()));
+        assertEquals(Invoice.InvoiceStatus.PENDING, invoiceRepository.findById(notDue.getId()).orElseThrow().getStatus());
+        assertEquals(Invoice.InvoiceStatus.PAID, invoiceRepository.findById(paid.getId()).orElseThrow().getStatus());
+
+        // Invoices saved directly start from an empty balance; only the penalty run moved it
+        StudentBalance balance = billingService.getStudentBalance(studentId);
+        assertEquals(0, new BigDecimal("30.00").compareTo(balance.getOutstanding()));
+        assertEquals(0, new BigDecimal("230.00").compareTo(balance.getOverdue()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(balance.getPenalties()));
+    }
+
+    @Test
+    @DisplayName("Aging report - receivables move between buckets with invoices and payments")
+    void agingReport_TracksInvoicesAndPayments() {
+        Degree degree = degreeRepository.save(Degree.builder()
+                .name("Aging Studies")
+                .department("Finance")
+                .durationYears(3)
+                .build());
+        StudentDto dto = studentService.createStudent(StudentDto.builder()
+                .firstName("Aging")
+                .lastName("Student")
+                .email("aging.student@example.com")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .build());
+        Student student = studentRepository.findById(dto.getId()).orElseThrow();
+        student.setDegreeId(degree.getId());
+        studentRepository.save(student);
+        LocalDate today = LocalDate.now();
+
+        Invoice late = billingService.createInvoice(student.getId(), new BigDecimal("100.00"), today.minusDays(45));
+        billingService.createInvoice(student.getId(), new BigDecimal("80.00"), today.plusDays(10));
+
+        AgingReport.Buckets buckets = agingOf(degree.getId());
+        assertEquals(0, new BigDecimal("80.00").compareTo(buckets.getCurrent()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(buckets.getDays31To60()));
+
+        billingService.payInvoice(late.getId());
+
+        buckets = agingOf(degree.getId());
+        assertEquals(0, BigDecimal.ZERO.compareTo(buckets.getDays31To60()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(buckets.getTotal()));
+    }
+
+    @Test
+    @DisplayName("Reconciliation - statement lines pay matching invoices and report the rest")
+    void reconcile_PaysMatchingInvoices() throws Exception {
+        StudentDto student = studentService.createStudent(StudentDto.builder()
+                .firstName("Statement")
+                .lastName("Student")
+                .email("statement.student@example.com")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .build());
+        Invoice invoice = billingService.createInvoice(student.getId(), new BigDecimal("75.00"), LocalDate.now());
+        Path statement = Files.createTempFile("statement-", ".csv");
+        Files.writeString(statement, "value_date,reference,amount\n"
+                + LocalDate.now() + ",INV-" + invoice.getId() + ",75.00\n"
+                + LocalDate.now() + ",INV-" + invoice.getId() + ",75.00\n");
+
+        try {
+            ReconciliationResult result = reconciliationService.reconcile(statement,
+                    BankReconciliationService.StatementFormat.CSV);
+
+            assertEquals(1, result.getPaid());
+            assertEquals(ReconciliationResult.Reason.DUPLICATE, result.getMismatches().get(0).getReason());
+            assertEquals(Invoice.InvoiceStatus.PAID,
+                    invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus());
+            StudentBalance balance = billingService.getStudentBalance(student.getId());
+            assertEquals(0, BigDecimal.ZERO.compareTo(balance.getOutstanding()));
+            assertEquals(0, new BigDecimal("75.00").compareTo(balance.getPaidToDate()));
+        } finally {
+            Files.deleteIfExists(statement);
+        }
+    }
+
+    private AgingReport.Buckets agingOf(Long degreeId) {
+        return agingReportService.getAgingReport().getDegrees().stream()
+                .filter(degree -> degreeId.equals(degree.getDegreeId()))
+                .findFirst()
+                .orElseThrow()
+                .getBuckets();
+    }
+
+    private static Invoice invoice(Long studentId, LocalDate dueDate, Invoice.InvoiceStatus status) {
+        return Invoice.builder()
+                .studentId(studentId)
+                .amount(new BigDecimal("100.00"))
+                .dueDate(dueDate)
+                .penaltyAmount(BigDecimal.ZERO)
+                .status(status)
+                .build();
     }
 }
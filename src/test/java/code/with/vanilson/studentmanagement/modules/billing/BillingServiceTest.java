@@ -2,15 +2,23 @@ package code.with.vanilson.studentmanagement.modules.billing;
 
 import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.PartitionedJobRunner;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
+import code.with.vanilson.studentmanagement.modules.student.StudentRepository;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -24,11 +32,14 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,7 +51,25 @@ class BillingServiceTest {
     private InvoiceRepository invoiceRepository;
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private StudentBalanceRepository balanceRepository;
+
+    @Mock
+    private ReceivableAgingRepository agingRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private OutboxService outbox;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PartitionedJobRunner jobRunner;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private BillingService billingService;
@@ -48,14 +77,19 @@ class BillingServiceTest {
     private Invoice testInvoice;
     private List<Invoice> testInvoices;
     private final Long STUDENT_ID = 1L;
+    private final Long DEGREE_ID = 3L;
     private final BigDecimal VALID_AMOUNT = new BigDecimal("100.00");
     private final LocalDate DUE_DATE = LocalDate.now().plusDays(30);
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
+        lenient().when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<Invoice>) invocation.getArgument(0)).doInTransaction(null));
         testInvoice = Invoice.builder()
 
                 .studentId(STUDENT_ID)
+                .degreeId(DEGREE_ID)
                 .amount(VALID_AMOUNT)
                 .dueDate(DUE_DATE)
                 .status(Invoice.InvoiceStatus.PENDING)
@@ -77,8 +111,8 @@ class BillingServiceTest {
     @DisplayName("Should create invoice successfully")
     void createInvoice_Success() {
         // Given
+        when(studentRepository.findDegreeIdById(STUDENT_ID)).thenReturn(Optional.of(DEGREE_ID));
         when(invoiceRepository.save(any(Invoice.class))).thenReturn(testInvoice);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
 
         // When
         Invoice result = billingService.createInvoice(STUDENT_ID, VALID_AMOUNT, DUE_DATE);
@@ -89,8 +123,13 @@ class BillingServiceTest {
         assertEquals(VALID_AMOUNT, result.getAmount());
         assertEquals(DUE_DATE, result.getDueDate());
         assertEquals(Invoice.InvoiceStatus.PENDING, result.getStatus());
-        verify(invoiceRepository).save(any(Invoice.class));
-        verify(kafkaTemplate).send(eq("billing-events"), contains("Invoice created for student: " + STUDENT_ID));
+        ArgumentCaptor<Invoice> saved = ArgumentCaptor.forClass(Invoice.class);
+        verify(invoiceRepository).save(saved.capture());
+        assertEquals(DEGREE_ID, saved.getValue().getDegreeId());
+        verify(balanceRepository).addToBalance(STUDENT_ID, VALID_AMOUNT, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO);
+        verify(agingRepository).addToAging(DEGREE_ID, DUE_DATE, VALID_AMOUNT, 1);
+        verify(outbox).publish(BillingEvent.invoiceCreated(testInvoice.getId(), STUDENT_ID, VALID_AMOUNT));
     }
 
     @Test
@@ -103,7 +142,7 @@ class BillingServiceTest {
         );
         assertEquals("billing.invalid_amount", exception.getMessage());
         verify(invoiceRepository, never()).save(any(Invoice.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(outbox, never()).publish(any());
     }
 
     @Test
@@ -116,7 +155,7 @@ class BillingServiceTest {
         );
         assertEquals("billing.invalid_amount", exception.getMessage());
         verify(invoiceRepository, never()).save(any(Invoice.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(outbox, never()).publish(any());
     }
 
     @Test
@@ -129,7 +168,7 @@ class BillingServiceTest {
         );
         assertEquals("billing.invalid_amount", exception.getMessage());
         verify(invoiceRepository, never()).save(any(Invoice.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(outbox, never()).publish(any());
     }
 
     @Test
@@ -146,7 +185,6 @@ class BillingServiceTest {
 
         when(invoiceRepository.findById(testInvoice.getId())).thenReturn(Optional.of(testInvoice));
         when(invoiceRepository.save(any(Invoice.class))).thenReturn(paidInvoice);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
 
         // When
         Invoice result = billingService.payInvoice(testInvoice.getId());
@@ -156,7 +194,7 @@ class BillingServiceTest {
         assertEquals(Invoice.InvoiceStatus.PAID, result.getStatus());
         verify(invoiceRepository).findById(testInvoice.getId());
         verify(invoiceRepository).save(any(Invoice.class));
-        verify(kafkaTemplate).send(eq("billing-events"), contains("Invoice paid: " + testInvoice.getId()));
+        verify(outbox).publish(BillingEvent.invoicePaid(testInvoice.getId(), STUDENT_ID, VALID_AMOUNT));
     }
 
     @Test
@@ -174,7 +212,7 @@ class BillingServiceTest {
         assertEquals("billing.invoice_not_found", exception.getMessage());
         verify(invoiceRepository).findById(nonExistentId);
         verify(invoiceRepository, never()).save(any(Invoice.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(outbox, never()).publish(any());
     }
 
     @Test
@@ -199,7 +237,7 @@ class BillingServiceTest {
         assertEquals("billing.invoice_already_paid", exception.getMessage());
         verify(invoiceRepository).findById(alreadyPaidInvoice.getId());
         verify(invoiceRepository, never()).save(any(Invoice.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(outbox, never()).publish(any());
     }
 
     @Test
@@ -234,85 +272,6 @@ class BillingServiceTest {
         verify(invoiceRepository).findByStudentId(STUDENT_ID);
     }
 
-    @Test
-    @DisplayName("Should apply late penalties to overdue invoices")
-    void applyLatePenalties_OverdueInvoices() {
-        // Given
-        LocalDate pastDueDate = LocalDate.now().minusDays(15); // 2 weeks overdue
-        Invoice overdueInvoice = Invoice.builder()
-
-                .studentId(STUDENT_ID)
-                .amount(new BigDecimal("100.00"))
-                .dueDate(pastDueDate)
-                .status(Invoice.InvoiceStatus.PENDING)
-                .build();
-
-        List<Invoice> allInvoices = Collections.singletonList(overdueInvoice);
-        when(invoiceRepository.findAll()).thenReturn(allInvoices);
-        when(invoiceRepository.save(any(Invoice.class))).thenReturn(overdueInvoice);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
-
-        // When
-        billingService.applyLatePenalties();
-
-        // Then
-        verify(invoiceRepository).findAll();
-        verify(invoiceRepository).save(argThat(invoice ->
-                invoice.getStatus() == Invoice.InvoiceStatus.OVERDUE &&
-                        invoice.getPenaltyAmount() != null &&
-                        invoice.getPenaltyAmount().compareTo(BigDecimal.ZERO) > 0
-        ));
-        verify(kafkaTemplate).send(eq("billing-events"), contains("Penalty applied to invoice: " + overdueInvoice.getId()));
-    }
-
-    @Test
-    @DisplayName("Should not apply penalties to pending invoices not yet due")
-    void applyLatePenalties_NotDueInvoices() {
-        // Given
-        Invoice futureInvoice = Invoice.builder()
-
-                .studentId(STUDENT_ID)
-                .amount(new BigDecimal("100.00"))
-                .dueDate(LocalDate.now().plusDays(10))
-                .status(Invoice.InvoiceStatus.PENDING)
-                .build();
-
-        List<Invoice> allInvoices = Collections.singletonList(futureInvoice);
-        when(invoiceRepository.findAll()).thenReturn(allInvoices);
-
-        // When
-        billingService.applyLatePenalties();
-
-        // Then
-        verify(invoiceRepository).findAll();
-        verify(invoiceRepository, never()).save(any(Invoice.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
-    }
-
-    @Test
-    @DisplayName("Should not apply penalties to already paid invoices")
-    void applyLatePenalties_PaidInvoices() {
-        // Given
-        Invoice paidInvoice = Invoice.builder()
-
-                .studentId(STUDENT_ID)
-                .amount(new BigDecimal("100.00"))
-                .dueDate(LocalDate.now().minusDays(15))
-                .status(Invoice.InvoiceStatus.PAID)
-                .build();
-
-        List<Invoice> allInvoices = Collections.singletonList(paidInvoice);
-        when(invoiceRepository.findAll()).thenReturn(allInvoices);
-
-        // When
-        billingService.applyLatePenalties();
-
-        // Then
-        verify(invoiceRepository).findAll();
-        verify(invoiceRepository, never()).save(any(Invoice.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
-    }
-
     @Test
     @DisplayName("Should handle repository exception during invoice creation")
     void createInvoice_RepositoryException_ThrowsException() {
@@ -326,7 +285,7 @@ class BillingServiceTest {
         );
         assertEquals("Database error", exception.getMessage());
         verify(invoiceRepository).save(any(Invoice.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(outbox, never()).publish(any());
     }
 
     @Test
@@ -344,7 +303,7 @@ class BillingServiceTest {
         assertEquals("Database error", exception.getMessage());
         verify(invoiceRepository).findById(testInvoice.getId());
         verify(invoiceRepository).save(any(Invoice.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString());
+        verify(outbox, never()).publish(any());
     }
 
     @Test
@@ -362,75 +321,149 @@ class BillingServiceTest {
         verify(invoiceRepository).findByStudentId(STUDENT_ID);
     }
 
-    @Disabled
     @Test
-    @DisplayName("Should handle Kafka exception during invoice creation")
-    void createInvoice_KafkaException_StillCreatesInvoice() {
+    @DisplayName("Should move an overdue invoice with its penalty from outstanding and overdue to paid")
+    void payInvoice_Overdue_ShouldUpdateBalance() {
         // Given
+        testInvoice.setStatus(Invoice.InvoiceStatus.OVERDUE);
+        testInvoice.setPenaltyAmount(new BigDecimal("20.00"));
+        when(invoiceRepository.findById(testInvoice.getId())).thenReturn(Optional.of(testInvoice));
         when(invoiceRepository.save(any(Invoice.class))).thenReturn(testInvoice);
-        when(kafkaTemplate.send(anyString(), anyString())).thenThrow(new RuntimeException("Kafka error"));
 
         // When
-        Invoice result = billingService.createInvoice(STUDENT_ID, VALID_AMOUNT, DUE_DATE);
+        billingService.payInvoice(testInvoice.getId());
 
         // Then
-        assertNotNull(result);
-        assertEquals(STUDENT_ID, result.getStudentId());
-        verify(invoiceRepository).save(any(Invoice.class));
-        verify(kafkaTemplate).send(anyString(), anyString());
+        BigDecimal due = new BigDecimal("120.00");
+        verify(balanceRepository).addToBalance(STUDENT_ID, due.negate(), due.negate(), due, BigDecimal.ZERO);
+        verify(agingRepository).addToAging(DEGREE_ID, DUE_DATE, due.negate(), -1);
     }
-    @Disabled
+
     @Test
-    @DisplayName("Should handle Kafka exception during invoice payment")
-    void payInvoice_KafkaException_StillPaysInvoice() {
+    @DisplayName("Should retry the payment on fresh state when the invoice changed concurrently")
+    void payInvoice_OptimisticLockConflict_ShouldRetry() {
         // Given
-        Invoice paidInvoice = Invoice.builder()
-
-                .studentId(STUDENT_ID)
-                .amount(VALID_AMOUNT)
-                .dueDate(DUE_DATE)
-                .status(Invoice.InvoiceStatus.PAID)
-                .build();
-
-        when(invoiceRepository.findById(testInvoice.getId())).thenReturn(Optional.of(testInvoice));
-        when(invoiceRepository.save(any(Invoice.class))).thenReturn(paidInvoice);
-        when(kafkaTemplate.send(anyString(), anyString())).thenThrow(new RuntimeException("Kafka error"));
+        // Every attempt reads the invoice afresh, as after a rollback
+        when(invoiceRepository.findById(testInvoice.getId()))
+                .thenAnswer(invocation -> Optional.of(pendingInvoice()));
+        when(invoiceRepository.save(any(Invoice.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Invoice.class, testInvoice.getId()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         Invoice result = billingService.payInvoice(testInvoice.getId());
 
         // Then
-        assertNotNull(result);
         assertEquals(Invoice.InvoiceStatus.PAID, result.getStatus());
-        verify(invoiceRepository).save(any(Invoice.class));
-        verify(kafkaTemplate).send(anyString(), anyString());
+        verify(invoiceRepository, times(2)).findById(testInvoice.getId());
+        verify(outbox).publish(argThat(event -> event.type() == BillingEvent.Type.INVOICE_PAID));
     }
 
     @Test
-    @DisplayName("Should calculate correct penalty for multiple weeks overdue")
-    void applyLatePenalties_MultipleWeeksOverdue() {
+    @DisplayName("Should give up with a conflict after the last attempt")
+    void payInvoice_PersistentConflict_ThrowsIllegalState() {
         // Given
-        LocalDate threeWeeksAgo = LocalDate.now().minusWeeks(3);
-        Invoice overdueInvoice = Invoice.builder()
+        // Every attempt reads the invoice afresh, as after a rollback
+        when(invoiceRepository.findById(testInvoice.getId()))
+                .thenAnswer(invocation -> Optional.of(pendingInvoice()));
+        when(invoiceRepository.save(any(Invoice.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Invoice.class, testInvoice.getId()));
 
-                .studentId(STUDENT_ID)
-                .amount(new BigDecimal("100.00"))
-                .dueDate(threeWeeksAgo)
-                .status(Invoice.InvoiceStatus.PENDING)
-                .build();
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> billingService.payInvoice(testInvoice.getId()));
+        assertEquals(BillingService.CONCURRENT_PAYMENT_MESSAGE, exception.getMessage());
+        verify(invoiceRepository, times(BillingService.MAX_PAYMENT_ATTEMPTS)).save(any(Invoice.class));
+        verify(outbox, never()).publish(any());
+    }
 
-        List<Invoice> allInvoices = Collections.singletonList(overdueInvoice);
-        when(invoiceRepository.findAll()).thenReturn(allInvoices);
-        when(invoiceRepository.save(any(Invoice.class))).thenReturn(overdueInvoice);
-        when(kafkaTemplate.send(anyString(), anyString())).thenReturn(null);
+    @Test
+    @DisplayName("Should return a zero balance for a student without invoices")
+    void getStudentBalance_NoRow_ShouldReturnZeroBalance() {
+        // Given
+        when(balanceRepository.findById(STUDENT_ID)).thenReturn(Optional.empty());
 
         // When
-        billingService.applyLatePenalties();
+        StudentBalance balance = billingService.getStudentBalance(STUDENT_ID);
+
+        // Then
+        assertEquals(STUDENT_ID, balance.getStudentId());
+        assertEquals(BigDecimal.ZERO, balance.getOutstanding());
+        assertEquals(BigDecimal.ZERO, balance.getPaidToDate());
+    }
+
+    @Test
+    @DisplayName("Should run late penalties as today's partitioned job")
+    void applyLatePenalties_ShouldRunPartitionedJobForToday() {
+        // Given
+        when(jobRunner.run(eq(BillingService.LATE_PENALTIES_JOB), eq(LocalDate.now().toString()),
+                eq(BillingService.PENALTY_PARTITIONS), any(PartitionedJobRunner.Chunk.class))).thenReturn(42L);
+
+        // When
+        long total = billingService.applyLatePenalties();
 
         // Then
-        verify(invoiceRepository).save(argThat(invoice -> {
-            BigDecimal expectedPenalty = new BigDecimal("100.00").multiply(new BigDecimal("0.10")).multiply(new BigDecimal("3"));
-            return invoice.getPenaltyAmount().compareTo(expectedPenalty) == 0;
-        }));
+        assertEquals(42L, total);
+        verify(invoiceRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should mark one chunk of a partition overdue and publish one event per invoice")
+    @SuppressWarnings("unchecked")
+    void applyLatePenalties_Chunk_ShouldUpdatePartitionAndPublishEvents() {
+        // Given
+        List<BillingEvent> events = List.of(
+                BillingEvent.penaltyApplied(11L, 4L, new BigDecimal("10.00")),
+                BillingEvent.penaltyApplied(19L, 5L, new BigDecimal("20.00")));
+        when(jdbcTemplate.query(contains("UPDATE invoice"), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(events);
+        PartitionedJobRunner.Chunk chunk = captureChunk();
+
+        // When
+        int processed = chunk.process(3, 8);
+
+        // Then
+        assertEquals(2, processed);
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), params.capture(), any(RowMapper.class));
+        assertEquals(LocalDate.now(), params.getValue().getValue("today"));
+        assertEquals(3, params.getValue().getValue("partition"));
+        assertEquals(8, params.getValue().getValue("partitions"));
+        assertEquals(BillingService.PENALTY_CHUNK_SIZE, params.getValue().getValue("limit"));
+        verify(outbox).publishAll(events);
+        verify(outbox, never()).publish(any());
+    }
+
+    @Test
+    @DisplayName("Should keep a partition open while invoices skipped as locked are still pending")
+    @SuppressWarnings("unchecked")
+    void applyLatePenalties_Chunk_LockedInvoicesLeft_ReturnsLocked() {
+        // Given
+        when(jdbcTemplate.query(contains("UPDATE invoice"), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(contains("SELECT EXISTS"), any(MapSqlParameterSource.class),
+                eq(Boolean.class))).thenReturn(true, false);
+        PartitionedJobRunner.Chunk chunk = captureChunk();
+
+        // When & Then
+        assertEquals(PartitionedJobRunner.Chunk.LOCKED, chunk.process(3, 8));
+        assertEquals(0, chunk.process(3, 8));
+        verify(outbox, never()).publishAll(any());
+    }
+
+    private Invoice pendingInvoice() {
+        return Invoice.builder()
+                .studentId(STUDENT_ID)
+                .amount(VALID_AMOUNT)
+                .dueDate(DUE_DATE)
+                .status(Invoice.InvoiceStatus.PENDING)
+                .build();
+    }
+
+    private PartitionedJobRunner.Chunk captureChunk() {
+        ArgumentCaptor<PartitionedJobRunner.Chunk> chunk = ArgumentCaptor.forClass(PartitionedJobRunner.Chunk.class);
+        when(jobRunner.run(anyString(), anyString(), anyInt(), chunk.capture())).thenReturn(0L);
+        billingService.applyLatePenalties();
+        return chunk.getValue();
     }
-}
\ No newline at end of file
+}
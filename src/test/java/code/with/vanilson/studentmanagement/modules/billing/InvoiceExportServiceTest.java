@@ -0,0 +1,169 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
+import code.with.vanilson.studentmanagement.common.utils.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InvoiceExportService Unit Tests")
+class InvoiceExportServiceTest {
+
+    private static final String CSV = "id,student_id,degree_id,amount,penalty_amount,due_date,status,run_id,"
+            + "created_at,updated_at\n"
+            + "1,2,,100.00,10.00,2024-01-31,OVERDUE,,2024-01-01T10:00,\n";
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private InvoiceExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new InvoiceExportService(dataSource, transactionManager);
+    }
+
+    private void stubSingleRow() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+                .thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        when(resultSet.next()).thenReturn(true, false);
+        lenient().when(resultSet.getLong(1)).thenReturn(1L);
+        lenient().when(resultSet.getLong(2)).thenReturn(2L);
+        lenient().when(resultSet.getLong(3)).thenReturn(0L);
+        lenient().when(resultSet.getLong(8)).thenReturn(0L);
+        lenient().when(resultSet.wasNull()).thenReturn(false, true, true);
+        lenient().when(resultSet.getBigDecimal(4)).thenReturn(new BigDecimal("100.00"));
+        lenient().when(resultSet.getBigDecimal(5)).thenReturn(new BigDecimal("10.00"));
+        lenient().when(resultSet.getString(7)).thenReturn("OVERDUE");
+        lenient().when(resultSet.getObject(anyInt())).thenAnswer(invocation -> switch ((int) invocation.getArgument(0)) {
+            case 1 -> 1L;
+            case 2 -> 2L;
+            case 4 -> new BigDecimal("100.00");
+            case 5 -> new BigDecimal("10.00");
+            case 6 -> Date.valueOf(LocalDate.of(2024, 1, 31));
+            case 7 -> "OVERDUE";
+            case 9 -> Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 10, 0));
+            default -> null;
+        });
+    }
+
+    @Test
+    @DisplayName("Should stream invoices as NDJSON with a fetch size")
+    void export_Ndjson() throws Exception {
+        stubSingleRow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(new InvoiceFilter(), ExportFormat.NDJSON, false, out);
+
+        assertEquals("{\"id\":1,\"studentId\":2,\"degreeId\":null,\"amount\":100.00,\"penaltyAmount\":10.00,"
+                + "\"dueDate\":\"2024-01-31\",\"status\":\"OVERDUE\",\"runId\":null,"
+                + "\"createdAt\":\"2024-01-01T10:00\",\"updatedAt\":null}\n", out.toString(StandardCharsets.UTF_8));
+        verify(preparedStatement).setFetchSize(InvoiceExportService.FETCH_SIZE);
+        verify(transactionManager).commit(transactionStatus);
+    }
+
+    @Test
+    @DisplayName("Should stream invoices as CSV")
+    void export_Csv() throws Exception {
+        stubSingleRow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(new InvoiceFilter(), ExportFormat.CSV, false, out);
+
+        assertEquals(CSV, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should gzip the stream when asked to")
+    void export_Gzip() throws Exception {
+        stubSingleRow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(new InvoiceFilter(), ExportFormat.CSV, true, out);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(CSV, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Should bind filter values as statement parameters")
+    void export_WithFilter_BindsParameters() throws Exception {
+        stubSingleRow();
+        InvoiceFilter filter = InvoiceFilter.builder()
+                .status(Invoice.InvoiceStatus.PENDING)
+                .dueFrom(LocalDate.of(2024, 1, 1))
+                .dueTo(LocalDate.of(2024, 3, 31))
+                .degreeId(3L)
+                .build();
+
+        exportService.export(filter, ExportFormat.CSV, false, new ByteArrayOutputStream());
+
+        verify(connection).prepareStatement(contains("status = ? AND due_date >= ? AND due_date <= ? AND degree_id = ?"),
+                eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY));
+        verify(preparedStatement).setObject(1, "PENDING");
+        verify(preparedStatement).setObject(2, Date.valueOf(LocalDate.of(2024, 1, 1)));
+        verify(preparedStatement).setObject(3, Date.valueOf(LocalDate.of(2024, 3, 31)));
+        verify(preparedStatement).setObject(4, 3L);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown invoice statuses")
+    void invoiceStatus_Unknown_ThrowsException() {
+        ResourceBadRequestException exception = assertThrows(
+                ResourceBadRequestException.class,
+                () -> Invoice.InvoiceStatus.from("lost")
+        );
+        assertEquals("billing.invalid_status", exception.getMessage());
+    }
+}
@@ -0,0 +1,257 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.modules.course.DegreeRepository;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InvoiceRunService Unit Tests")
+class InvoiceRunServiceTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("500.00");
+    private static final LocalDate DUE_DATE = LocalDate.of(2024, 10, 1);
+
+    @Mock
+    private InvoiceRunRepository runRepository;
+
+    @Mock
+    private DegreeRepository degreeRepository;
+
+    @Mock
+    private OutboxService outbox;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private InvoiceRunService service;
+    private SimpleTransactionStatus lastStatus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new InvoiceRunService(runRepository, degreeRepository, outbox, jdbcTemplate, transactionTemplate,
+                Runnable::run, Duration.ofMinutes(5));
+        lenient().when(transactionTemplate.execute(any(TransactionCallback.class))).thenAnswer(invocation -> {
+            lastStatus = new SimpleTransactionStatus();
+            return ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(lastStatus);
+        });
+    }
+
+    @Test
+    @DisplayName("Should create the run and invoice the degree's students chunk by chunk until done")
+    void start_ShouldCreateRunAndProcessChunks() throws Exception {
+        // Given
+        InvoiceRun run = run(InvoiceRun.RunStatus.RUNNING);
+        when(degreeRepository.existsById(1L)).thenReturn(true);
+        when(jdbcTemplate.update(startsWith("INSERT INTO invoice_run"), any(MapSqlParameterSource.class)))
+                .thenReturn(1);
+        when(runRepository.findByDegreeIdAndTerm(1L, "2024-FALL")).thenReturn(Optional.of(run));
+        claimed(0L);
+        List<Long> afterIds = new ArrayList<>();
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM student"), any(MapSqlParameterSource.class),
+                eq(Long.class))).thenAnswer(invocation -> {
+                    long afterId = (Long) ((MapSqlParameterSource) invocation.getArgument(1)).getValue("afterId");
+                    afterIds.add(afterId);
+                    return afterId == 0L ? List.of(3L, 5L) : afterId == 5L ? List.of(8L) : List.of();
+                });
+        when(jdbcTemplate.query(startsWith("WITH created AS"), any(MapSqlParameterSource.class),
+                any(RowMapper.class))).thenAnswer(invocation -> {
+                    long afterId = (Long) ((MapSqlParameterSource) invocation.getArgument(1)).getValue("afterId");
+                    RowMapper<?> mapper = invocation.getArgument(2);
+                    return afterId == 0L ? created(mapper, 3L, 5L) : created(mapper, 8L);
+                });
+        when(jdbcTemplate.update(startsWith("UPDATE invoice_run SET last_student_id"),
+                any(MapSqlParameterSource.class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE invoice_run SET status = 'COMPLETED'"),
+                any(MapSqlParameterSource.class))).thenReturn(1);
+
+        // When
+        InvoiceRun result = service.start(request(AMOUNT));
+
+        // Then
+        assertSame(run, result);
+        assertEquals(List.of(0L, 5L, 8L), afterIds);
+        verify(outbox).publishAll(List.of(
+                BillingEvent.invoiceCreated(103L, 3L, AMOUNT),
+                BillingEvent.invoiceCreated(105L, 5L, AMOUNT)));
+        verify(outbox).publishAll(List.of(BillingEvent.invoiceCreated(108L, 8L, AMOUNT)));
+    }
+
+    @Test
+    @DisplayName("Should reject a run that exists for the degree and term with a different amount")
+    void start_ExistingRunDiffers_ShouldThrowConflict() {
+        // Given
+        when(degreeRepository.existsById(1L)).thenReturn(true);
+        when(jdbcTemplate.update(startsWith("INSERT INTO invoice_run"), any(MapSqlParameterSource.class)))
+                .thenReturn(0);
+        when(runRepository.findByDegreeIdAndTerm(1L, "2024-FALL"))
+                .thenReturn(Optional.of(run(InvoiceRun.RunStatus.RUNNING)));
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> service.start(request(new BigDecimal("450.00"))));
+        assertEquals(InvoiceRunService.RUN_MISMATCH_MESSAGE, exception.getMessage());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should return a completed run without processing it again")
+    void start_RunCompleted_ShouldNotProcess() {
+        // Given
+        InvoiceRun run = run(InvoiceRun.RunStatus.COMPLETED);
+        when(degreeRepository.existsById(1L)).thenReturn(true);
+        when(jdbcTemplate.update(startsWith("INSERT INTO invoice_run"), any(MapSqlParameterSource.class)))
+                .thenReturn(0);
+        when(runRepository.findByDegreeIdAndTerm(1L, "2024-FALL")).thenReturn(Optional.of(run));
+
+        // When
+        InvoiceRun result = service.start(request(AMOUNT));
+
+        // Then
+        assertSame(run, result);
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should throw not found when the degree does not exist")
+    void start_DegreeNotFound_ShouldThrowException() {
+        // Given
+        when(degreeRepository.existsById(1L)).thenReturn(false);
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> service.start(request(AMOUNT)));
+        verify(runRepository, never()).findByDegreeIdAndTerm(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should leave a run alone when another node holds its lease")
+    @SuppressWarnings("unchecked")
+    void process_LeaseHeldElsewhere_ShouldSkip() {
+        // Given
+        when(jdbcTemplate.query(startsWith("UPDATE invoice_run SET owner"), any(MapSqlParameterSource.class),
+                any(RowMapper.class))).thenReturn(List.of());
+
+        // When
+        service.process(7L);
+
+        // Then
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should roll back the chunk and stop when the lease was taken over")
+    void process_LeaseLost_ShouldRollBackChunk() throws Exception {
+        // Given
+        claimed(5L);
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM student"), any(MapSqlParameterSource.class),
+                eq(Long.class))).thenReturn(List.of(8L, 9L));
+        when(jdbcTemplate.query(startsWith("WITH created AS"), any(MapSqlParameterSource.class),
+                any(RowMapper.class))).thenAnswer(invocation -> created(invocation.getArgument(2), 8L, 9L));
+        when(jdbcTemplate.update(startsWith("UPDATE invoice_run SET last_student_id"),
+                any(MapSqlParameterSource.class))).thenReturn(0);
+
+        // When
+        service.process(7L);
+
+        // Then
+        assertTrue(lastStatus.isRollbackOnly());
+        verify(outbox).publishAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should resume every stalled run")
+    @SuppressWarnings("unchecked")
+    void resumeStalled_ShouldProcessStalledRuns() {
+        // Given
+        when(runRepository.findStalledRunIds(any())).thenReturn(List.of(7L, 9L));
+        when(jdbcTemplate.query(startsWith("UPDATE invoice_run SET owner"), any(MapSqlParameterSource.class),
+                any(RowMapper.class))).thenReturn(List.of());
+
+        // When
+        service.resumeStalled();
+
+        // Then
+        verify(jdbcTemplate).query(startsWith("UPDATE invoice_run SET owner"),
+                argThat((MapSqlParameterSource params) -> params.getValue("runId").equals(9L)),
+                any(RowMapper.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claimed(long lastStudentId) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("degree_id")).thenReturn(1L);
+        when(rs.getBigDecimal("amount")).thenReturn(AMOUNT);
+        when(rs.getDate("due_date")).thenReturn(Date.valueOf(DUE_DATE));
+        when(rs.getLong("last_student_id")).thenReturn(lastStudentId);
+        when(jdbcTemplate.query(startsWith("UPDATE invoice_run SET owner"), any(MapSqlParameterSource.class),
+                any(RowMapper.class))).thenAnswer(invocation ->
+                List.of(((RowMapper<?>) invocation.getArgument(2)).mapRow(rs, 0)));
+    }
+
+    // One row per student, with invoice ids 100 above the student ids
+    private static List<Object> created(RowMapper<?> mapper, Long... studentIds) throws Exception {
+        List<Object> rows = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("id")).thenReturn(studentId + 100);
+            when(rs.getLong("student_id")).thenReturn(studentId);
+            rows.add(mapper.mapRow(rs, rows.size()));
+        }
+        return rows;
+    }
+
+    private static InvoiceRun run(InvoiceRun.RunStatus status) {
+        InvoiceRun run = InvoiceRun.builder()
+                .degreeId(1L)
+                .term("2024-FALL")
+                .amount(AMOUNT)
+                .dueDate(DUE_DATE)
+                .status(status)
+                .build();
+        run.setId(7L);
+        return run;
+    }
+
+    private static InvoiceRunRequest request(BigDecimal amount) {
+        return new InvoiceRunRequest(1L, "2024-FALL", amount, DUE_DATE);
+    }
+}
@@ -0,0 +1,104 @@
+package code.with.vanilson.studentmanagement.modules.billing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("StatementParser Unit Tests")
+class StatementParserTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<String> lines = new ArrayList<>();
+    private final StatementParser.LineHandler handler = new StatementParser.LineHandler() {
+        @Override
+        public void line(long lineNo, long invoiceId, long amountCents) {
+            lines.add(lineNo + ":" + invoiceId + ":" + amountCents);
+        }
+
+        @Override
+        public void invalid(long lineNo, String text) {
+            lines.add(lineNo + ":invalid:" + text);
+        }
+    };
+
+    @Test
+    @DisplayName("Should parse CSV lines, skipping the header and blank lines")
+    void parse_Csv() throws IOException {
+        Path file = write("value_date,reference,amount\r\n"
+                + "2024-01-31,INV-2024-000123,120.50\r\n"
+                + "\r\n"
+                + "2024-01-31,77,\"80\",transfer\r\n"
+                + "2024-01-31,INV-9,12.5");
+
+        new StatementParser(BankReconciliationService.StatementFormat.CSV, handler).parse(file);
+
+        assertEquals(List.of("2:123:12050", "4:77:8000", "5:9:1250"), lines);
+    }
+
+    @Test
+    @DisplayName("Should report lines without a reference or a valid amount")
+    void parse_Csv_InvalidLines() throws IOException {
+        Path file = write("2024-01-31,INV-1,100.00\n"
+                + "2024-01-31,NO-REF,100.00\n"
+                + "2024-01-31,INV-2,-5.00\n"
+                + "2024-01-31,INV-3,1.005\n"
+                + "garbage\n");
+
+        new StatementParser(BankReconciliationService.StatementFormat.CSV, handler).parse(file);
+
+        assertEquals(List.of("1:1:10000", "2:invalid:2024-01-31,NO-REF,100.00", "3:invalid:2024-01-31,INV-2,-5.00",
+                "4:invalid:2024-01-31,INV-3,1.005", "5:invalid:garbage"), lines);
+    }
+
+    @Test
+    @DisplayName("Should parse fixed-width lines by column")
+    void parse_Fixed() throws IOException {
+        Path file = write(String.format("%s%-20s%15s%s%n", "20240131", "INV-000123", "120.50", " SEPA")
+                + "20240131INV-5\n");
+
+        new StatementParser(BankReconciliationService.StatementFormat.FIXED, handler).parse(file);
+
+        assertEquals(List.of("1:123:12050", "2:invalid:20240131INV-5"), lines);
+    }
+
+    @Test
+    @DisplayName("Should carry lines across mapping windows")
+    void parse_AcrossWindows() throws IOException {
+        StringBuilder statement = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            statement.append("2024-01-31,INV-").append(i).append(',').append(i).append(".00\n");
+            expected.add(i + ":" + i + ":" + i * 100);
+        }
+        Path file = write(statement.toString());
+
+        new StatementParser(BankReconciliationService.StatementFormat.CSV, handler, 64).parse(file);
+
+        assertEquals(expected, lines);
+    }
+
+    @Test
+    @DisplayName("Should fail on a line longer than a window")
+    void parse_LineLongerThanWindow_Throws() throws IOException {
+        Path file = write("2024-01-31,INV-1," + "1".repeat(100) + "\n2024-01-31,INV-2,1.00\n");
+
+        assertThrows(IOException.class,
+                () -> new StatementParser(BankReconciliationService.StatementFormat.CSV, handler, 32).parse(file));
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("statement.txt"), content, StandardCharsets.UTF_8);
+    }
+}
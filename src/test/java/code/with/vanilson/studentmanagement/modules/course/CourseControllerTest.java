@@ -1,5 +1,6 @@
 package code.with.vanilson.studentmanagement.modules.course;
 
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -34,6 +35,9 @@ class CourseControllerTest {
         @MockBean
         private CourseService courseService;
 
+        @MockBean
+        private EntityTags entityTags;
+
         @MockBean
         private JwtUtils jwtUtils;
 
@@ -1,6 +1,7 @@
 package code.with.vanilson.studentmanagement.modules.course;
 
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,9 @@ class DegreeServiceTest {
     @Mock
     private DegreeRepository degreeRepository;
 
+    @Mock
+    private EntityTags entityTags;
+
     @InjectMocks
     private DegreeService degreeService;
 
@@ -1,26 +1,48 @@
 package code.with.vanilson.studentmanagement.modules.notification;
 
-
-import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
+import code.with.vanilson.studentmanagement.modules.appointment.AppointmentEvent;
+import code.with.vanilson.studentmanagement.modules.billing.BillingEvent;
+import code.with.vanilson.studentmanagement.modules.outbox.OutboxRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.bson.BsonDocument;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.argThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.eq;
-import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -30,485 +52,248 @@ import static org.mockito.Mockito.when;
 class NotificationConsumerTest {
 
     @Mock
-    private NotificationRepository notificationRepository;
-
-    @Mock
-    private AuditLogRepository auditLogRepository;
+    private MongoTemplate mongoTemplate;
 
     @Mock
     private EmailService emailService;
 
-    @InjectMocks
-    private NotificationConsumer notificationConsumer;
-
-    private final String BILLING_MESSAGE = "Invoice created for student: 1, Amount: $100.00";
-    private final String NOTIFICATION_MESSAGE = "Appointment scheduled for student: 1 with teacher: 2";
-
-    @BeforeEach
-    void setUp() {
-        // No specific setup needed as we're testing consumer methods
-    }
-
-    @Test
-    @DisplayName("Should consume billing event successfully")
-    void consumeBillingEvent_Success() {
-        // Given
-        Notification savedNotification = Notification.builder()
-                .message(BILLING_MESSAGE)
-                .type("EMAIL")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-                .action("BILLING_EVENT")
-                .details(BILLING_MESSAGE)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
-        doNothing().when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
-
-        // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeBillingEvent(BILLING_MESSAGE));
-
-        // Then
-        verify(emailService).sendSimpleMessage(eq("student-email@example.com"), eq("Billing Notification"), eq(BILLING_MESSAGE));
-        verify(notificationRepository).save(argThat(notification ->
-                notification.getMessage().equals(BILLING_MESSAGE) &&
-                        notification.getType().equals("EMAIL") &&
-                        notification.getTimestamp() != null
-        ));
-        verify(auditLogRepository).save(argThat(auditLog ->
-                auditLog.getAction().equals("BILLING_EVENT") &&
-                        auditLog.getDetails().equals(BILLING_MESSAGE) &&
-                        auditLog.getTimestamp() != null
-        ));
-    }
-
-    @Test
-    @DisplayName("Should consume notification event successfully")
-    void consumeNotificationEvent_Success() {
-        // Given
-        Notification savedNotification = Notification.builder()
-                .message(NOTIFICATION_MESSAGE)
-                .type("SYSTEM")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-                .action("SYSTEM_NOTIFICATION")
-                .details(NOTIFICATION_MESSAGE)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
-
-        // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeNotificationEvent(NOTIFICATION_MESSAGE));
+    @Mock
+    private BulkOperations notificationOps;
 
-        // Then
-        verify(emailService, never()).sendSimpleMessage(anyString(), anyString(), anyString());
-        verify(notificationRepository).save(argThat(notification ->
-                notification.getMessage().equals(NOTIFICATION_MESSAGE) &&
-                        notification.getType().equals("SYSTEM") &&
-                        notification.getTimestamp() != null
-        ));
-        verify(auditLogRepository).save(argThat(auditLog ->
-                auditLog.getAction().equals("SYSTEM_NOTIFICATION") &&
-                        auditLog.getDetails().equals(NOTIFICATION_MESSAGE) &&
-                        auditLog.getTimestamp() != null
-        ));
-    }
-    @Disabled
-    @Test
-    @DisplayName("Should handle null billing event message")
-    void consumeBillingEvent_NullMessage_HandlesGracefully() {
-        // Given
-        Notification savedNotification = Notification.builder()
+    @Mock
+    private BulkOperations auditLogOps;
 
-                .message(null)
-                .type("EMAIL")
-                .timestamp(LocalDateTime.now())
-                .build();
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 
-        AuditLog savedAuditLog = AuditLog.builder()
+    @InjectMocks
+    private NotificationConsumer notificationConsumer;
 
-                .action("BILLING_EVENT")
-                .details(null)
-                .timestamp(LocalDateTime.now())
-                .build();
+    @Captor
+    private ArgumentCaptor<List<Notification>> notifications;
 
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
-        doNothing().when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
+    @Captor
+    private ArgumentCaptor<List<AuditLog>> auditLogs;
 
-        // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeBillingEvent(null));
+    @Captor
+    private ArgumentCaptor<Query> queries;
 
-        // Then
-        verify(emailService).sendSimpleMessage(eq("student-email@example.com"), eq("Billing Notification"), isNull());
-        verify(notificationRepository).save(any(Notification.class));
-        verify(auditLogRepository).save(any(AuditLog.class));
-    }
+    private final String BILLING_MESSAGE = "Invoice created for student: 1, Amount: $100.00";
+    private final String NOTIFICATION_MESSAGE = "Appointment scheduled for student: 1 with teacher: 2";
 
     @Test
-    @DisplayName("Should handle empty billing event message")
-    void consumeBillingEvent_EmptyMessage_HandlesGracefully() {
+    @DisplayName("Should write a billing batch with one bulk insert per collection and email every event")
+    void consumeBillingEvents_Success() throws Exception {
         // Given
-        String emptyMessage = "";
-        Notification savedNotification = Notification.builder()
-
-                .message(emptyMessage)
-                .type("EMAIL")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-
-                .action("BILLING_EVENT")
-                .details(emptyMessage)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
-        doNothing().when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
+        bulkInserts();
+        String typed = objectMapper.writeValueAsString(BillingEvent.invoiceCreated(7L, 1L, new BigDecimal("100.00")));
 
         // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeBillingEvent(emptyMessage));
+        notificationConsumer.consumeBillingEvents(List.of(
+                record(BillingEvent.TOPIC, 41L, typed),
+                record(BillingEvent.TOPIC, 42L, BILLING_MESSAGE)));
 
         // Then
-        verify(emailService).sendSimpleMessage(eq("student-email@example.com"), eq("Billing Notification"), eq(emptyMessage));
-        verify(notificationRepository).save(any(Notification.class));
-        verify(auditLogRepository).save(any(AuditLog.class));
+        String expected = "Invoice created for student: 1, Amount: 100.00";
+        verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+        verify(notificationOps).insert(notifications.capture());
+        assertEquals(List.of(expected, BILLING_MESSAGE),
+                notifications.getValue().stream().map(Notification::getMessage).toList());
+        assertEquals("billing-events:41", notifications.getValue().get(0).getId());
+        assertEquals("EMAIL", notifications.getValue().get(0).getType());
+        assertNotNull(notifications.getValue().get(0).getTimestamp());
+
+        verify(auditLogOps).insert(auditLogs.capture());
+        assertEquals("billing-events:42", auditLogs.getValue().get(1).getId());
+        assertEquals("BILLING_EVENT", auditLogs.getValue().get(1).getAction());
+        assertEquals(BILLING_MESSAGE, auditLogs.getValue().get(1).getDetails());
+
+        assertEquals(false, notifications.getValue().get(0).getEmailSent());
+        verify(emailService).sendSimpleMessage("student-email@example.com", "Billing Notification", expected);
+        verify(emailService).sendSimpleMessage("student-email@example.com", "Billing Notification", BILLING_MESSAGE);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Notification.class));
+        verify(mongoTemplate).updateMulti(queries.capture(), any(Update.class), eq(Notification.class));
+        assertTrue(queries.getValue().getQueryObject().toJson().contains("billing-events:42"));
     }
 
     @Test
-    @DisplayName("Should handle null notification event message")
-    void consumeNotificationEvent_NullMessage_HandlesGracefully() {
+    @DisplayName("Should write a notification batch without sending emails")
+    void consumeNotificationEvents_Success() throws Exception {
         // Given
-        Notification savedNotification = Notification.builder()
-
-                .message(null)
-                .type("SYSTEM")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-
-                .action("SYSTEM_NOTIFICATION")
-                .details(null)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
+        bulkInserts();
+        String typed = objectMapper.writeValueAsString(AppointmentEvent.reminder(5L, 1L, 2L,
+                LocalDateTime.of(2025, 3, 3, 9, 0), "1 hour"));
 
         // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeNotificationEvent(null));
+        notificationConsumer.consumeNotificationEvents(List.of(
+                record(AppointmentEvent.TOPIC, 1L, typed),
+                record(AppointmentEvent.TOPIC, 2L, NOTIFICATION_MESSAGE)));
 
         // Then
+        verify(notificationOps).insert(notifications.capture());
+        assertEquals(List.of(
+                        "Reminder: appointment for student: 1 with teacher: 2 starts at 2025-03-03T09:00 (in 1 hour)",
+                        NOTIFICATION_MESSAGE),
+                notifications.getValue().stream().map(Notification::getMessage).toList());
+        assertEquals("SYSTEM", notifications.getValue().get(1).getType());
+        verify(auditLogOps).insert(auditLogs.capture());
+        assertEquals("SYSTEM_NOTIFICATION", auditLogs.getValue().get(0).getAction());
         verify(emailService, never()).sendSimpleMessage(anyString(), anyString(), anyString());
-        verify(notificationRepository).save(any(Notification.class));
-        verify(auditLogRepository).save(any(AuditLog.class));
     }
 
     @Test
-    @DisplayName("Should handle empty notification event message")
-    void consumeNotificationEvent_EmptyMessage_HandlesGracefully() {
+    @DisplayName("Should skip events already stored by an earlier delivery and not email them again")
+    void consumeBillingEvents_Redelivered_ShouldSkipStored() {
         // Given
-        String emptyMessage = "";
-        Notification savedNotification = Notification.builder()
-
-                .message(emptyMessage)
-                .type("SYSTEM")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-
-                .action("SYSTEM_NOTIFICATION")
-                .details(emptyMessage)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
+        bulkInserts();
+        BulkOperationException duplicate = bulkFailure(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0));
+        when(notificationOps.execute()).thenThrow(duplicate);
+        when(mongoTemplate.find(any(Query.class), eq(Notification.class))).thenReturn(List.of());
 
         // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeNotificationEvent(emptyMessage));
+        notificationConsumer.consumeBillingEvents(List.of(
+                record(BillingEvent.TOPIC, 41L, "Invoice paid: 1"),
+                record(BillingEvent.TOPIC, 42L, "Invoice paid: 2")));
 
         // Then
-        verify(emailService, never()).sendSimpleMessage(anyString(), anyString(), anyString());
-        verify(notificationRepository).save(any(Notification.class));
-        verify(auditLogRepository).save(any(AuditLog.class));
+        verify(emailService, never()).sendSimpleMessage(anyString(), anyString(), eq("Invoice paid: 1"));
+        verify(emailService).sendSimpleMessage("student-email@example.com", "Billing Notification", "Invoice paid: 2");
+        verify(auditLogOps).insert(anyList());
+        verify(auditLogOps).execute();
     }
 
-    @Disabled
     @Test
-    @DisplayName("Should handle email service exception during billing event consumption")
-    void consumeBillingEvent_EmailServiceException_StillSavesData() {
+    @DisplayName("Should email events stored by an earlier delivery that failed before sending")
+    void consumeBillingEvents_RedeliveredUnsent_ShouldEmailThem() {
         // Given
-        Notification savedNotification = Notification.builder()
-
-                .message(BILLING_MESSAGE)
-                .type("EMAIL")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-
-                .action("BILLING_EVENT")
-                .details(BILLING_MESSAGE)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
-        doThrow(new RuntimeException("Email service failed"))
-                .when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
+        bulkInserts();
+        BulkOperationException duplicate = bulkFailure(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0));
+        when(notificationOps.execute()).thenThrow(duplicate);
+        Notification stored = Notification.builder().id("billing-events:41").message("Invoice paid: 1")
+                .emailSent(false).build();
+        when(mongoTemplate.find(any(Query.class), eq(Notification.class))).thenReturn(List.of(stored));
 
         // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeBillingEvent(BILLING_MESSAGE));
+        notificationConsumer.consumeBillingEvents(List.of(record(BillingEvent.TOPIC, 41L, "Invoice paid: 1")));
 
         // Then
-        verify(emailService).sendSimpleMessage(eq("student-email@example.com"), eq("Billing Notification"), eq(BILLING_MESSAGE));
-        verify(notificationRepository).save(any(Notification.class));
-        verify(auditLogRepository).save(any(AuditLog.class));
-    }
-
-    @Test
-    @DisplayName("Should handle notification repository exception during billing event consumption")
-    void consumeBillingEvent_NotificationRepositoryException_ThrowsException() {
-        // Given
-        when(notificationRepository.save(any(Notification.class)))
-                .thenThrow(new RuntimeException("Database error"));
-        doNothing().when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
-
-        // When & Then
-        assertThrows(RuntimeException.class,
-                () -> notificationConsumer.consumeBillingEvent(BILLING_MESSAGE));
-
-        verify(emailService).sendSimpleMessage(eq("student-email@example.com"), eq("Billing Notification"), eq(BILLING_MESSAGE));
-        verify(notificationRepository).save(any(Notification.class));
-        verify(auditLogRepository, never()).save(any(AuditLog.class));
+        verify(mongoTemplate).find(queries.capture(), eq(Notification.class));
+        String lookup = queries.getValue().getQueryObject().toJson();
+        assertTrue(lookup.contains("billing-events:41") && lookup.contains("emailSent"));
+        verify(emailService).sendSimpleMessage("student-email@example.com", "Billing Notification", "Invoice paid: 1");
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Notification.class));
     }
 
     @Test
-    @DisplayName("Should handle audit log repository exception during billing event consumption")
-    void consumeBillingEvent_AuditLogRepositoryException_ThrowsException() {
+    @DisplayName("Should mark the emails already sent when a later send fails")
+    void consumeBillingEvents_EmailFails_MarksSentAndRethrows() {
         // Given
-        Notification savedNotification = Notification.builder()
-
-                .message(BILLING_MESSAGE)
-                .type("EMAIL")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class)))
-                .thenThrow(new RuntimeException("Database error"));
-        doNothing().when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)).thenReturn(notificationOps);
+        when(notificationOps.insert(anyList())).thenReturn(notificationOps);
+        RuntimeException failure = new RuntimeException("smtp down");
+        doNothing().doThrow(failure).when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
 
         // When & Then
-        assertThrows(RuntimeException.class,
-                () -> notificationConsumer.consumeBillingEvent(BILLING_MESSAGE));
-
-        verify(emailService).sendSimpleMessage(eq("student-email@example.com"), eq("Billing Notification"), eq(BILLING_MESSAGE));
-        verify(notificationRepository).save(any(Notification.class));
-        verify(auditLogRepository).save(any(AuditLog.class));
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> notificationConsumer.consumeBillingEvents(List.of(
+                        record(BillingEvent.TOPIC, 41L, "Invoice paid: 1"),
+                        record(BillingEvent.TOPIC, 42L, "Invoice paid: 2"))));
+
+        assertSame(failure, thrown);
+        verify(mongoTemplate).updateMulti(queries.capture(), any(Update.class), eq(Notification.class));
+        String marked = queries.getValue().getQueryObject().toJson();
+        assertTrue(marked.contains("billing-events:41") && !marked.contains("billing-events:42"));
+        verify(mongoTemplate, never()).bulkOps(BulkOperations.BulkMode.UNORDERED, AuditLog.class);
     }
 
     @Test
-    @DisplayName("Should handle notification repository exception during notification event consumption")
-    void consumeNotificationEvent_NotificationRepositoryException_ThrowsException() {
+    @DisplayName("Should fail the batch on any other write error so it is redelivered")
+    void consumeBillingEvents_WriteFails_ThrowsException() {
         // Given
-        when(notificationRepository.save(any(Notification.class)))
-                .thenThrow(new RuntimeException("Database error"));
-
-        // When & Then
-        assertThrows(RuntimeException.class,
-                () -> notificationConsumer.consumeNotificationEvent(NOTIFICATION_MESSAGE));
-
-        verify(emailService, never()).sendSimpleMessage(anyString(), anyString(), anyString());
-        verify(notificationRepository).save(any(Notification.class));
-        verify(auditLogRepository, never()).save(any(AuditLog.class));
-    }
-
-    @Test
-    @DisplayName("Should handle audit log repository exception during notification event consumption")
-    void consumeNotificationEvent_AuditLogRepositoryException_ThrowsException() {
-        // Given
-        Notification savedNotification = Notification.builder()
-
-                .message(NOTIFICATION_MESSAGE)
-                .type("SYSTEM")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class)))
-                .thenThrow(new RuntimeException("Database error"));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)).thenReturn(notificationOps);
+        when(notificationOps.insert(anyList())).thenReturn(notificationOps);
+        BulkOperationException failure = bulkFailure(new BulkWriteError(121, "validation", new BsonDocument(), 1));
+        when(notificationOps.execute()).thenThrow(failure);
 
         // When & Then
-        assertThrows(RuntimeException.class,
-                () -> notificationConsumer.consumeNotificationEvent(NOTIFICATION_MESSAGE));
+        BulkOperationException thrown = assertThrows(BulkOperationException.class,
+                () -> notificationConsumer.consumeBillingEvents(List.of(
+                        record(BillingEvent.TOPIC, 41L, BILLING_MESSAGE),
+                        record(BillingEvent.TOPIC, 42L, BILLING_MESSAGE))));
 
+        assertSame(failure, thrown);
         verify(emailService, never()).sendSimpleMessage(anyString(), anyString(), anyString());
-        verify(notificationRepository).save(any(Notification.class));
-        verify(auditLogRepository).save(any(AuditLog.class));
+        verify(mongoTemplate, never()).bulkOps(BulkOperations.BulkMode.UNORDERED, AuditLog.class);
     }
 
     @Test
-    @DisplayName("Should handle very long billing event message")
-    void consumeBillingEvent_VeryLongMessage_Success() {
+    @DisplayName("Should give events that did not come through the outbox a fresh id")
+    void consumeNotificationEvents_NoOutboxHeader_ShouldAssignFreshId() {
         // Given
-        String longMessage = "A".repeat(10000); // Very long message
-        Notification savedNotification = Notification.builder()
-
-                .message(longMessage)
-                .type("EMAIL")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-
-                .action("BILLING_EVENT")
-                .details(longMessage)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
-        doNothing().when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
+        bulkInserts();
 
         // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeBillingEvent(longMessage));
+        notificationConsumer.consumeNotificationEvents(List.of(
+                new ConsumerRecord<>(AppointmentEvent.TOPIC, 0, 0L, "1", NOTIFICATION_MESSAGE),
+                new ConsumerRecord<>(AppointmentEvent.TOPIC, 0, 1L, "1", NOTIFICATION_MESSAGE)));
 
         // Then
-        verify(emailService).sendSimpleMessage(eq("student-email@example.com"), eq("Billing Notification"), eq(longMessage));
-        verify(notificationRepository).save(argThat(notification ->
-                notification.getMessage().equals(longMessage) &&
-                        notification.getType().equals("EMAIL")
-        ));
-        verify(auditLogRepository).save(argThat(auditLog ->
-                auditLog.getAction().equals("BILLING_EVENT") &&
-                        auditLog.getDetails().equals(longMessage)
-        ));
+        verify(notificationOps).insert(notifications.capture());
+        assertTrue(ObjectId.isValid(notifications.getValue().get(0).getId()));
+        assertNotEquals(notifications.getValue().get(0).getId(), notifications.getValue().get(1).getId());
+        assertNull(notifications.getValue().get(0).getEmailSent());
     }
 
     @Test
-    @DisplayName("Should handle special characters in billing event message")
-    void consumeBillingEvent_SpecialCharacters_Success() {
+    @DisplayName("Should keep null, empty and non-event payloads as they are")
+    void consumeBillingEvents_UntypedPayloads_ShouldKeepThem() {
         // Given
-        String specialMessage = "Invoice created with special chars: émojis 🎉 and symbols: !@#$%^&*()";
-        Notification savedNotification = Notification.builder()
-
-                .message(specialMessage)
-                .type("EMAIL")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-
-                .action("BILLING_EVENT")
-                .details(specialMessage)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
-        doNothing().when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
+        bulkInserts();
+        List<String> payloads = Arrays.asList(null, "",
+                "{\"action\":\"invoice_created\",\"studentId\":1,\"amount\":100.00}",
+                "Invoice created with special chars: émojis 🎉 and symbols: !@#$%^&*()",
+                "Unicode test: 中文 русский العربية हिन्दी עברית 日本語 한국어",
+                "A".repeat(10000));
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < payloads.size(); i++) {
+            records.add(record(BillingEvent.TOPIC, i, payloads.get(i)));
+        }
 
         // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeBillingEvent(specialMessage));
+        notificationConsumer.consumeBillingEvents(records);
 
         // Then
-        verify(emailService).sendSimpleMessage(eq("student-email@example.com"), eq("Billing Notification"), eq(specialMessage));
-        verify(notificationRepository).save(argThat(notification ->
-                notification.getMessage().equals(specialMessage) &&
-                        notification.getType().equals("EMAIL")
-        ));
-        verify(auditLogRepository).save(argThat(auditLog ->
-                auditLog.getAction().equals("BILLING_EVENT") &&
-                        auditLog.getDetails().equals(specialMessage)
-        ));
+        verify(notificationOps).insert(notifications.capture());
+        assertEquals(payloads, notifications.getValue().stream().map(Notification::getMessage).toList());
     }
 
     @Test
-    @DisplayName("Should handle JSON-like billing event message")
-    void consumeBillingEvent_JsonLikeMessage_Success() {
-        // Given
-        String jsonMessage = "{\"action\":\"invoice_created\",\"studentId\":1,\"amount\":100.00}";
-        Notification savedNotification = Notification.builder()
-
-                .message(jsonMessage)
-                .type("EMAIL")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-
-                .action("BILLING_EVENT")
-                .details(jsonMessage)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
-        doNothing().when(emailService).sendSimpleMessage(anyString(), anyString(), anyString());
-
+    @DisplayName("Should not write anything for an empty batch")
+    void consumeNotificationEvents_EmptyBatch_ShouldDoNothing() {
         // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeBillingEvent(jsonMessage));
+        notificationConsumer.consumeNotificationEvents(List.of());
 
         // Then
-        verify(emailService).sendSimpleMessage(eq("student-email@example.com"), eq("Billing Notification"), eq(jsonMessage));
-        verify(notificationRepository).save(argThat(notification ->
-                notification.getMessage().equals(jsonMessage) &&
-                        notification.getType().equals("EMAIL")
-        ));
-        verify(auditLogRepository).save(argThat(auditLog ->
-                auditLog.getAction().equals("BILLING_EVENT") &&
-                        auditLog.getDetails().equals(jsonMessage)
-        ));
+        verify(mongoTemplate, never()).bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+        verify(mongoTemplate, never()).bulkOps(BulkOperations.BulkMode.UNORDERED, AuditLog.class);
     }
 
-    @Test
-    @DisplayName("Should handle Unicode characters in notification event message")
-    void consumeNotificationEvent_UnicodeCharacters_Success() {
-        // Given
-        String unicodeMessage = "Unicode test: 中文 русский العربية हिन्दी עברית 日本語 한국어";
-        Notification savedNotification = Notification.builder()
-
-                .message(unicodeMessage)
-                .type("SYSTEM")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        AuditLog savedAuditLog = AuditLog.builder()
-
-                .action("SYSTEM_NOTIFICATION")
-                .details(unicodeMessage)
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
-        when(auditLogRepository.save(any(AuditLog.class))).thenReturn(savedAuditLog);
+    private void bulkInserts() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)).thenReturn(notificationOps);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuditLog.class)).thenReturn(auditLogOps);
+        when(notificationOps.insert(anyList())).thenReturn(notificationOps);
+        when(auditLogOps.insert(anyList())).thenReturn(auditLogOps);
+    }
 
-        // When
-        assertDoesNotThrow(() -> notificationConsumer.consumeNotificationEvent(unicodeMessage));
+    private static BulkOperationException bulkFailure(BulkWriteError error) {
+        BulkOperationException exception = mock(BulkOperationException.class);
+        when(exception.getErrors()).thenReturn(List.of(error));
+        return exception;
+    }
 
-        // Then
-        verify(emailService, never()).sendSimpleMessage(anyString(), anyString(), anyString());
-        verify(notificationRepository).save(argThat(notification ->
-                notification.getMessage().equals(unicodeMessage) &&
-                        notification.getType().equals("SYSTEM")
-        ));
-        verify(auditLogRepository).save(argThat(auditLog ->
-                auditLog.getAction().equals("SYSTEM_NOTIFICATION") &&
-                        auditLog.getDetails().equals(unicodeMessage)
-        ));
+    private static ConsumerRecord<String, String> record(String topic, long outboxId, String value) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(topic, 0, outboxId, "1", value);
+        record.headers().add(OutboxRelay.OUTBOX_ID_HEADER, String.valueOf(outboxId).getBytes(StandardCharsets.UTF_8));
+        return record;
     }
 }
@@ -0,0 +1,256 @@
+package code.with.vanilson.studentmanagement.modules.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Unit Tests")
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(repository, kafkaTemplate, transactionTemplate, meterRegistry, 2, 10, 3,
+                Duration.ofSeconds(1));
+        lenient().when(repository.tryLockRelay(OutboxRelay.RELAY_LOCK_ID)).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should send a batch with outbox id headers and delete it once acknowledged")
+    @SuppressWarnings("unchecked")
+    void relayBatch_AllAcknowledged_DeletesBatch() {
+        // Given
+        List<OutboxEvent> batch = List.of(event(1L, "billing-events"), event(2L, "notification-events"));
+        when(repository.findNextBatch(2)).thenReturn(batch);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(acknowledged());
+
+        // When
+        int sent = relay.relayBatch();
+
+        // Then
+        assertEquals(2, sent);
+        ArgumentCaptor<ProducerRecord<String, String>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        assertEquals("billing-events", records.getAllValues().get(0).topic());
+        assertEquals("1", new String(records.getAllValues().get(0).headers()
+                .lastHeader(OutboxRelay.OUTBOX_ID_HEADER).value(), StandardCharsets.UTF_8));
+        verify(repository).deleteAllInBatch(batch);
+        assertEquals(2.0, meterRegistry.get("outbox.relay.published").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep unacknowledged events for the next run")
+    @SuppressWarnings("unchecked")
+    void relayBatch_SendFails_KeepsFailedEvents() {
+        // Given
+        OutboxEvent first = event(1L, "billing-events");
+        OutboxEvent second = event(2L, "billing-events");
+        when(repository.findNextBatch(2)).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(acknowledged())
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")));
+
+        // When
+        int sent = relay.relayBatch();
+
+        // Then
+        assertEquals(0, sent);
+        verify(repository).deleteAllInBatch(List.of(first));
+        assertEquals(1, second.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should keep the later events of a failed key even when the broker took them")
+    @SuppressWarnings("unchecked")
+    void relayBatch_KeyFails_KeepsLaterEventsOfKey() {
+        // Given
+        relay = new OutboxRelay(repository, kafkaTemplate, transactionTemplate, meterRegistry, 3, 10, 3,
+                Duration.ofSeconds(1));
+        OutboxEvent failed = event(1L, "billing-events", "7");
+        OutboxEvent otherKey = event(2L, "billing-events", "8");
+        OutboxEvent laterOfKey = event(3L, "billing-events", "7");
+        when(repository.findNextBatch(3)).thenReturn(List.of(failed, otherKey, laterOfKey));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")))
+                .thenReturn(acknowledged())
+                .thenReturn(acknowledged());
+
+        // When
+        int sent = relay.relayBatch();
+
+        // Then
+        assertEquals(0, sent);
+        verify(repository).deleteAllInBatch(List.of(otherKey));
+        assertEquals(1, failed.getAttempts());
+        assertEquals(0, laterOfKey.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter an event rejected as non-retriable at the attempt limit and let its key move on")
+    @SuppressWarnings("unchecked")
+    void relayBatch_PoisonEventAtLimit_MovesToDeadLetter() {
+        // Given
+        OutboxEvent poison = event(1L, "billing-events", "7");
+        poison.setAttempts(2);
+        OutboxEvent laterOfKey = event(2L, "billing-events", "7");
+        when(repository.findNextBatch(2)).thenReturn(List.of(poison, laterOfKey));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RecordTooLargeException("too large")))
+                .thenReturn(acknowledged());
+
+        // When
+        int sent = relay.relayBatch();
+
+        // Then
+        assertEquals(2, sent);
+        verify(repository).moveToDeadLetter(eq(1L), contains("too large"));
+        verify(repository).deleteAllInBatch(List.of(laterOfKey));
+        assertEquals(1.0, meterRegistry.get("outbox.relay.dead_lettered").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep retrying an event that keeps failing for a transient reason")
+    @SuppressWarnings("unchecked")
+    void relayBatch_RetriableFailureAtLimit_KeepsEvent() {
+        // Given
+        OutboxEvent event = event(1L, "billing-events", "7");
+        event.setAttempts(5);
+        when(repository.findNextBatch(2)).thenReturn(List.of(event));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new org.apache.kafka.common.errors.TimeoutException("down")));
+
+        // When
+        int sent = relay.relayBatch();
+
+        // Then
+        assertEquals(0, sent);
+        assertEquals(6, event.getAttempts());
+        verify(repository, never()).moveToDeadLetter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should leave the outbox alone while another node holds the relay lock")
+    void relayBatch_LockHeldElsewhere_SendsNothing() {
+        // Given
+        when(repository.tryLockRelay(OutboxRelay.RELAY_LOCK_ID)).thenReturn(false);
+
+        // When
+        int sent = relay.relayBatch();
+
+        // Then
+        assertEquals(0, sent);
+        verify(repository, never()).findNextBatch(anyInt());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("Should wait for late acknowledgements and keep sends still pending at the deadline")
+    @SuppressWarnings("unchecked")
+    void relayBatch_SlowSends_WaitsForEachSend() {
+        // Given
+        OutboxEvent late = event(1L, "billing-events");
+        OutboxEvent pending = event(2L, "notification-events");
+        when(repository.findNextBatch(2)).thenReturn(List.of(late, pending));
+        CompletableFuture<SendResult<String, String>> lateAck = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(() -> lateAck.complete(null));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(lateAck)
+                .thenReturn(new CompletableFuture<>());
+
+        // When
+        int sent = relay.relayBatch();
+
+        // Then
+        assertEquals(0, sent);
+        verify(repository).deleteAllInBatch(List.of(late));
+        assertEquals(1, pending.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should keep draining full batches and export the age of the oldest pending event")
+    @SuppressWarnings("unchecked")
+    void relay_FullBatches_DrainsUntilShortBatch() {
+        // Given
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        when(repository.findNextBatch(2))
+                .thenReturn(List.of(event(1L, "billing-events"), event(2L, "billing-events")))
+                .thenReturn(List.of(event(3L, "billing-events")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(acknowledged());
+        OutboxEvent pending = event(4L, "billing-events");
+        pending.setCreatedAt(LocalDateTime.now().minusSeconds(30));
+        when(repository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(pending));
+
+        // When
+        relay.relay();
+
+        // Then
+        verify(repository, times(2)).findNextBatch(2);
+        assertEquals(3.0, meterRegistry.get("outbox.relay.published").counter().count());
+        assertEquals(30.0, meterRegistry.get("outbox.relay.lag").gauge().value(), 1.0);
+    }
+
+    private static CompletableFuture<SendResult<String, String>> acknowledged() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static OutboxEvent event(Long id, String topic) {
+        return event(id, topic, null);
+    }
+
+    private static OutboxEvent event(Long id, String topic, String key) {
+        OutboxEvent event = OutboxEvent.builder()
+                .topic(topic)
+                .key(key)
+                .payload("payload " + id)
+                .build();
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,88 @@
+package code.with.vanilson.studentmanagement.modules.outbox;
+
+import code.with.vanilson.studentmanagement.modules.billing.BillingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxService Unit Tests")
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OutboxService outbox;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new OutboxService(repository, jdbcTemplate, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should store the event as JSON on its topic, keyed by student")
+    void publish_ShouldStoreKeyedJson() throws Exception {
+        // When
+        outbox.publish(BillingEvent.invoicePaid(42L, 7L, new BigDecimal("110.00")));
+
+        // Then
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(repository).save(saved.capture());
+        assertEquals(BillingEvent.TOPIC, saved.getValue().getTopic());
+        assertEquals("7", saved.getValue().getKey());
+        JsonNode payload = objectMapper.readTree(saved.getValue().getPayload());
+        assertEquals("INVOICE_PAID", payload.get("type").asText());
+        assertEquals(42L, payload.get("invoiceId").asLong());
+        assertEquals(BillingEvent.invoicePaid(42L, 7L, new BigDecimal("110.00")),
+                objectMapper.readValue(saved.getValue().getPayload(), BillingEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should record a batch of events with one JDBC batch, leaving events without a student unkeyed")
+    void publishAll_ShouldBatchInsert() {
+        // When
+        outbox.publishAll(List.of(
+                BillingEvent.penaltyApplied(11L, 4L, new BigDecimal("10.00")),
+                BillingEvent.penaltyApplied(12L, null, new BigDecimal("20.00"))));
+
+        // Then
+        ArgumentCaptor<SqlParameterSource[]> batch = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(2, batch.getValue().length);
+        assertEquals(BillingEvent.TOPIC, batch.getValue()[0].getValue("topic"));
+        assertEquals("4", batch.getValue()[0].getValue("key"));
+        assertNull(batch.getValue()[1].getValue("key"));
+    }
+
+    @Test
+    @DisplayName("Should not touch the database for an empty batch")
+    void publishAll_Empty_ShouldDoNothing() {
+        // When
+        outbox.publishAll(List.of());
+
+        // Then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+    }
+}
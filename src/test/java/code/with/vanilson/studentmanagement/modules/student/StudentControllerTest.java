@@ -1,6 +1,9 @@
 package code.with.vanilson.studentmanagement.modules.student;
 
+import code.with.vanilson.studentmanagement.common.dto.CursorPage;
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
+import code.with.vanilson.studentmanagement.common.utils.ExportFormat;
 import code.with.vanilson.studentmanagement.config.JwtUtils;
 import code.with.vanilson.studentmanagement.config.SecurityConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -9,29 +12,47 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest({ StudentController.class, SecurityConfig.class })
+@ActiveProfiles("test")
 class StudentControllerTest {
 
     @Autowired
@@ -40,6 +61,15 @@ class StudentControllerTest {
     @MockBean
     private StudentService studentService;
 
+    @MockBean
+    private EntityTags entityTags;
+
+    @MockBean
+    private StudentExportService studentExportService;
+
+    @MockBean
+    private StudentImportService studentImportService;
+
     @MockBean
     private JwtUtils jwtUtils;
 
@@ -69,11 +99,116 @@ class StudentControllerTest {
     @WithMockUser(username = "user", roles = "USER")
     void getAllStudents_Success() throws Exception {
         List<StudentDto> students = Collections.singletonList(createValidStudentDto());
-        when(studentService.getAllStudents()).thenReturn(students);
+        when(studentService.listStudents(any(StudentFilter.class), isNull(), isNull()))
+                .thenReturn(CursorPage.of(students, "next-token"));
 
         mockMvc.perform(get("/api/v1/students"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.data[0].firstName").value("John"));
+                .andExpect(jsonPath("$.data.items[0].firstName").value("John"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/students - Filters and cursor are passed through")
+    @WithMockUser(username = "user", roles = "USER")
+    void getAllStudents_WithFilters() throws Exception {
+        when(studentService.listStudents(any(StudentFilter.class), eq("abc"), eq(25)))
+                .thenReturn(CursorPage.of(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/api/v1/students")
+                .param("degreeId", "3")
+                .param("name", "Do")
+                .param("createdFrom", "2024-01-01T00:00:00")
+                .param("cursor", "abc")
+                .param("size", "25"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hasNext").value(false));
+
+        verify(studentService).listStudents(argThat(filter -> filter.getDegreeId() == 3L
+                && "Do".equals(filter.getName())
+                && filter.getCreatedFrom() != null
+                && filter.getCreatedTo() == null), eq("abc"), eq(25));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/students/export - Streams CSV (Admin)")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void exportStudents_Csv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("id,first_name\n1,John\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(studentExportService).export(any(StudentFilter.class),
+                eq(ExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/students/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string("id,first_name\n1,John\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/students/export - Bad Request (Unknown format)")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void exportStudents_UnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/students/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/students/export - Forbidden (User)")
+    @WithMockUser(username = "user", roles = "USER")
+    void exportStudents_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/v1/students/export"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/students/import - CSV body (Admin)")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void importStudents_CsvBody() throws Exception {
+        StudentImportResult importResult = StudentImportResult.builder().total(2).imported(1).failed(1).build();
+        when(studentImportService.importStudents(any(InputStream.class),
+                eq(StudentImportService.ImportFormat.CSV))).thenReturn(importResult);
+
+        mockMvc.perform(post("/api/v1/students/import")
+                .with(csrf())
+                .contentType("text/csv")
+                .content("first_name,last_name\nJohn,Doe\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.failed").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/students/import - JSON file upload (Admin)")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void importStudents_FileUpload() throws Exception {
+        when(studentImportService.importStudents(any(InputStream.class),
+                eq(StudentImportService.ImportFormat.JSON)))
+                .thenReturn(StudentImportResult.builder().total(1).imported(1).build());
+
+        mockMvc.perform(multipart("/api/v1/students/import")
+                .file(new MockMultipartFile("file", "students.json", "application/json", "[]".getBytes()))
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/students/import - Forbidden (User)")
+    @WithMockUser(username = "user", roles = "USER")
+    void importStudents_Forbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/students/import")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden());
     }
 
     @Test
@@ -88,6 +223,45 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.data.firstName").value("John"));
     }
 
+    @Test
+    @DisplayName("GET /api/v1/students/{id} - Returns ETag")
+    @WithMockUser(username = "user", roles = "USER")
+    void getStudent_ReturnsETag() throws Exception {
+        StudentDto student = createValidStudentDto();
+        when(studentService.getStudent(1L)).thenReturn(student);
+        when(entityTags.entityTag(eq(StudentService.ENTITY_TYPE), eq(1L), any(), any())).thenReturn("\"abc\"");
+
+        mockMvc.perform(get("/api/v1/students/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/students/{id} - Not Modified from cached ETag")
+    @WithMockUser(username = "user", roles = "USER")
+    void getStudent_NotModified() throws Exception {
+        when(entityTags.cachedEntityTag(StudentService.ENTITY_TYPE, 1L)).thenReturn("\"abc\"");
+
+        mockMvc.perform(get("/api/v1/students/1").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().string(""));
+
+        verify(studentService, never()).getStudent(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/students - Not Modified while the collection is unchanged")
+    @WithMockUser(username = "user", roles = "USER")
+    void getAllStudents_NotModified() throws Exception {
+        when(entityTags.collectionTag(eq(StudentService.ENTITY_TYPE), any(Object[].class))).thenReturn("\"v1\"");
+
+        mockMvc.perform(get("/api/v1/students").header(HttpHeaders.IF_NONE_MATCH, "W/\"v1\""))
+                .andExpect(status().isNotModified());
+
+        verify(studentService, never()).listStudents(any(), any(), any());
+    }
+
     @Test
     @DisplayName("GET /api/v1/students/{id} - Not Found")
     @WithMockUser(username = "user", roles = "USER")
@@ -0,0 +1,145 @@
+package code.with.vanilson.studentmanagement.modules.student;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
+import code.with.vanilson.studentmanagement.common.utils.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StudentExportService Unit Tests")
+class StudentExportServiceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private StudentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new StudentExportService(dataSource, transactionManager);
+    }
+
+    private void stubSingleRow() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+                .thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        when(resultSet.next()).thenReturn(true, false);
+        lenient().when(resultSet.getLong(1)).thenReturn(1L);
+        lenient().when(resultSet.getString(2)).thenReturn("John");
+        lenient().when(resultSet.getString(3)).thenReturn("Doe");
+        lenient().when(resultSet.getString(4)).thenReturn("john.doe@example.com");
+        lenient().when(resultSet.getString(6)).thenReturn("1 Main St, Lisbon");
+        lenient().when(resultSet.getString(7)).thenReturn(null);
+        lenient().when(resultSet.getLong(8)).thenReturn(0L);
+        lenient().when(resultSet.wasNull()).thenReturn(true);
+        lenient().when(resultSet.getObject(anyInt())).thenAnswer(invocation -> switch ((int) invocation.getArgument(0)) {
+            case 1 -> 1L;
+            case 2 -> "John";
+            case 3 -> "Doe";
+            case 4 -> "john.doe@example.com";
+            case 5 -> Date.valueOf(LocalDate.of(2000, 1, 1));
+            case 6 -> "1 Main St, Lisbon";
+            case 9 -> Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 10, 0));
+            default -> null;
+        });
+    }
+
+    @Test
+    @DisplayName("Should stream students as NDJSON with a fetch size")
+    void export_Ndjson() throws Exception {
+        stubSingleRow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(new StudentFilter(), ExportFormat.NDJSON, out);
+
+        assertEquals("{\"id\":1,\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john.doe@example.com\","
+                + "\"dateOfBirth\":\"2000-01-01\",\"address\":\"1 Main St, Lisbon\",\"phoneNumber\":null,"
+                + "\"degreeId\":null,\"createdAt\":\"2024-01-01T10:00\"}\n", out.toString(StandardCharsets.UTF_8));
+        verify(preparedStatement).setFetchSize(StudentExportService.FETCH_SIZE);
+        verify(transactionManager).commit(transactionStatus);
+    }
+
+    @Test
+    @DisplayName("Should stream students as CSV and quote values containing commas")
+    void export_Csv() throws Exception {
+        stubSingleRow();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(new StudentFilter(), ExportFormat.CSV, out);
+
+        assertEquals("id,first_name,last_name,email,date_of_birth,address,phone_number,degree_id,created_at\n"
+                + "1,John,Doe,john.doe@example.com,2000-01-01,\"1 Main St, Lisbon\",,,2024-01-01T10:00\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should bind filter values as statement parameters")
+    void export_WithFilter_BindsParameters() throws Exception {
+        stubSingleRow();
+        StudentFilter filter = StudentFilter.builder().degreeId(3L).name("Do_").build();
+
+        exportService.export(filter, ExportFormat.CSV, new ByteArrayOutputStream());
+
+        verify(connection).prepareStatement(contains("degree_id = ?"), eq(ResultSet.TYPE_FORWARD_ONLY),
+                eq(ResultSet.CONCUR_READ_ONLY));
+        verify(preparedStatement).setObject(1, 3L);
+        verify(preparedStatement).setObject(2, "do\\_%");
+        verify(preparedStatement).setObject(3, "do\\_%");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown export formats")
+    void exportFormat_Unknown_ThrowsException() {
+        ResourceBadRequestException exception = assertThrows(
+                ResourceBadRequestException.class,
+                () -> ExportFormat.from("xml")
+        );
+        assertEquals("export.invalid_format", exception.getMessage());
+    }
+}
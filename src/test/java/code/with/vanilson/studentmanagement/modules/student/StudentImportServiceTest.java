@@ -0,0 +1,261 @@
+package code.with.vanilson.studentmanagement.modules.student;
+
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StudentImportService Unit Tests")
+class StudentImportServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityTags entityTags;
+
+    private StudentImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        importService = new StudentImportService(jdbcTemplate, transactionTemplate, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), entityTags);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should import valid JSON rows and report invalid ones")
+    void importStudents_Json_ReportsInvalidRows() {
+        // Given
+        runTransactionsInline();
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenReturn(new int[] { 1 });
+        String json = "["
+                + "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john@example.com\","
+                + "\"dateOfBirth\":\"2000-01-01\",\"address\":\"1 Main St\"},"
+                + "{\"firstName\":\"\",\"lastName\":\"Doe\",\"email\":\"bad-email\","
+                + "\"dateOfBirth\":\"2000-01-01\",\"address\":\"1 Main St\"},"
+                + "{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"email\":\"jane@example.com\","
+                + "\"dateOfBirth\":\"not-a-date\",\"address\":\"1 Main St\"}"
+                + "]";
+
+        // When
+        StudentImportResult result = importService.importStudents(stream(json),
+                StudentImportService.ImportFormat.JSON);
+
+        // Then
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().contains("email"));
+        assertTrue(result.getErrors().get(0).getMessage().contains("firstName"));
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertEquals("jane@example.com", result.getErrors().get(1).getEmail());
+    }
+
+    @Test
+    @DisplayName("Should skip emails that already exist or repeat within the import")
+    void importStudents_Csv_SkipsDuplicateEmails() {
+        // Given
+        runTransactionsInline();
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of("taken@example.com"));
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenReturn(new int[] { 1 });
+        String csv = "first_name,last_name,email,date_of_birth,address,phone_number\n"
+                + "John,Doe,john@example.com,2000-01-01,\"1 Main St, Lisbon\",123\n"
+                + "Jane,Doe,taken@example.com,2000-01-01,2 Main St,\n"
+                + "Johnny,Doe,john@example.com,2000-01-01,3 Main St,\n";
+
+        // When
+        StudentImportResult result = importService.importStudents(stream(csv),
+                StudentImportService.ImportFormat.CSV);
+
+        // Then
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals("Duplicate email in import", result.getErrors().get(0).getMessage());
+        assertEquals(2, result.getErrors().get(1).getRow());
+        assertEquals("Student with this email already exists", result.getErrors().get(1).getMessage());
+
+        ArgumentCaptor<SqlParameterSource[]> batch = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(1, batch.getValue().length);
+        assertEquals("1 Main St, Lisbon", batch.getValue()[0].getValue("address"));
+    }
+
+    @Test
+    @DisplayName("Should treat rows ignored by ON CONFLICT as duplicates")
+    void importStudents_ConcurrentInsert_ReportedAsDuplicate() {
+        // Given
+        runTransactionsInline();
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenReturn(new int[] { 0 });
+        String csv = "firstName,lastName,email,dateOfBirth,address\n"
+                + "John,Doe,john@example.com,2000-01-01,1 Main St\n";
+
+        // When
+        StudentImportResult result = importService.importStudents(stream(csv),
+                StudentImportService.ImportFormat.CSV);
+
+        // Then
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getFailed());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed chunk in halves so only the row the database rejects fails")
+    void importStudents_ChunkFails_RejectsOnlyBadRow() {
+        // Given
+        runTransactionsInline();
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            SqlParameterSource[] batch = invocation.getArgument(1);
+            for (SqlParameterSource row : batch) {
+                if ("bad@example.com".equals(row.getValue("email"))) {
+                    throw new DataIntegrityViolationException("value too long");
+                }
+            }
+            int[] counts = new int[batch.length];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        String csv = "firstName,lastName,email,dateOfBirth,address\n"
+                + "John,Doe,john@example.com,2000-01-01,1 Main St\n"
+                + "Bad,Row,bad@example.com,2000-01-01,2 Main St\n"
+                + "Jane,Doe,jane@example.com,2000-01-01,3 Main St\n";
+
+        // When
+        StudentImportResult result = importService.importStudents(stream(csv),
+                StudentImportService.ImportFormat.CSV);
+
+        // Then
+        assertEquals(3, result.getTotal());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals("bad@example.com", result.getErrors().get(0).getEmail());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Insert failed"));
+    }
+
+    @Test
+    @DisplayName("Should reject values longer than their column before inserting")
+    void importStudents_ValueTooLong_RejectedByValidation() {
+        // Given
+        String csv = "firstName,lastName,email,dateOfBirth,address,phoneNumber\n"
+                + "John,Doe,john@example.com,2000-01-01,1 Main St," + "9".repeat(51) + "\n";
+
+        // When
+        StudentImportResult result = importService.importStudents(stream(csv),
+                StudentImportService.ImportFormat.CSV);
+
+        // Then
+        assertEquals(1, result.getFailed());
+        assertTrue(result.getErrors().get(0).getMessage().contains("phoneNumber"));
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should reject non-object JSON elements and keep reading the array")
+    void importStudents_JsonNonObjectElements_RejectedAsRows() {
+        // Given
+        runTransactionsInline();
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenReturn(new int[] { 1 });
+        String json = "[null, 42, [{\"email\":\"nested@example.com\"}],"
+                + "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john@example.com\","
+                + "\"dateOfBirth\":\"2000-01-01\",\"address\":\"1 Main St\"}]";
+
+        // When
+        StudentImportResult result = importService.importStudents(stream(json),
+                StudentImportService.ImportFormat.JSON);
+
+        // Then
+        assertEquals(4, result.getTotal());
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(1, 2, 3), result.getErrors().stream().map(StudentImportResult.RowError::getRow).toList());
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when every row is invalid")
+    void importStudents_AllInvalid_NoInsert() {
+        // When
+        StudentImportResult result = importService.importStudents(stream("[{\"firstName\":\"John\"}]"),
+                StudentImportService.ImportFormat.JSON);
+
+        // Then
+        assertEquals(1, result.getFailed());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a JSON body that is not an array")
+    void importStudents_NotAnArray_ThrowsException() {
+        ResourceBadRequestException exception = assertThrows(
+                ResourceBadRequestException.class,
+                () -> importService.importStudents(stream("{}"), StudentImportService.ImportFormat.JSON)
+        );
+        assertEquals("import.unreadable", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should parse quoted CSV fields with embedded quotes and line breaks")
+    void readCsvRecord_QuotedFields() throws Exception {
+        StringReader reader = new StringReader("a,\"b \"\"quoted\"\"\",\"multi\nline\"\r\nnext\n");
+
+        assertEquals(List.of("a", "b \"quoted\"", "multi\nline"), StudentImportService.readCsvRecord(reader));
+        assertEquals(List.of("next"), StudentImportService.readCsvRecord(reader));
+        assertNull(StudentImportService.readCsvRecord(reader));
+    }
+}
@@ -1,6 +1,12 @@
 package code.with.vanilson.studentmanagement.modules.student;
 
+import code.with.vanilson.studentmanagement.common.dto.CursorPage;
+import code.with.vanilson.studentmanagement.common.dto.SearchHit;
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
+import code.with.vanilson.studentmanagement.common.utils.KeysetCursor;
+import code.with.vanilson.studentmanagement.common.utils.SearchQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,14 +14,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +39,9 @@ class StudentServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private EntityTags entityTags;
+
     @InjectMocks
     private StudentService studentService;
 
@@ -143,35 +160,70 @@ class StudentServiceTest {
     }
 
     @Test
-    @DisplayName("Should get all students successfully")
-    void getAllStudents_Success() {
+    @DisplayName("Should return first page with next cursor when more students exist")
+    void listStudents_FirstPage_ReturnsNextCursor() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        testStudents.get(0).setId(1L);
+        testStudents.get(0).setCreatedAt(createdAt);
+        testStudents.get(1).setId(2L);
+        testStudents.get(1).setCreatedAt(createdAt.plusMinutes(1));
+        when(studentRepository.findBy(any(Specification.class), any())).thenReturn(testStudents);
+
+        // When
+        CursorPage<StudentDto> result = studentService.listStudents(new StudentFilter(), null, 1);
+
+        // Then
+        assertNotNull(result);
+        assertEquals(1, result.getItems().size());
+        assertEquals("John", result.getItems().get(0).getFirstName());
+        assertTrue(result.isHasNext());
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(createdAt, next.getPosition());
+        assertEquals(1L, next.getId());
+    }
+
+    @Test
+    @DisplayName("Should return last page without next cursor")
+    void listStudents_LastPage_NoNextCursor() {
         // Given
-        when(studentRepository.findAll()).thenReturn(testStudents);
+        when(studentRepository.findBy(any(Specification.class), any())).thenReturn(testStudents);
 
         // When
-        List<StudentDto> result = studentService.getAllStudents();
+        CursorPage<StudentDto> result = studentService.listStudents(new StudentFilter(), null, null);
 
         // Then
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(testStudents.get(0).getFirstName(), result.get(0).getFirstName());
-        assertEquals(testStudents.get(1).getFirstName(), result.get(1).getFirstName());
-        verify(studentRepository).findAll();
+        assertEquals(2, result.getItems().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
     }
 
     @Test
-    @DisplayName("Should return empty list when no students exist")
-    void getAllStudents_EmptyList() {
+    @DisplayName("Should return empty page when no students exist")
+    void listStudents_EmptyPage() {
         // Given
-        when(studentRepository.findAll()).thenReturn(Arrays.asList());
+        when(studentRepository.findBy(any(Specification.class), any())).thenReturn(Collections.emptyList());
 
         // When
-        List<StudentDto> result = studentService.getAllStudents();
+        CursorPage<StudentDto> result = studentService.listStudents(null, null, 20);
 
         // Then
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(studentRepository).findAll();
+        assertTrue(result.getItems().isEmpty());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void listStudents_InvalidCursor_ThrowsException() {
+        // When & Then
+        ResourceBadRequestException exception = assertThrows(
+                ResourceBadRequestException.class,
+                () -> studentService.listStudents(new StudentFilter(), "not-a-cursor", 20)
+        );
+        assertEquals("pagination.invalid_cursor", exception.getMessage());
+        verify(studentRepository, never()).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -214,6 +266,7 @@ class StudentServiceTest {
         assertEquals(testStudent.getDateOfBirth(), result.getDateOfBirth());
         verify(studentRepository).findById(studentId);
         verify(studentRepository).save(any(Student.class));
+        verify(entityTags).entityChanged(StudentService.ENTITY_TYPE, studentId, StudentService.CACHE);
     }
 
     @Test
@@ -251,6 +304,7 @@ class StudentServiceTest {
 
         // Then
         verify(studentRepository).deleteById(studentId);
+        verify(entityTags).entityChanged(StudentService.ENTITY_TYPE, studentId, StudentService.CACHE);
     }
 
     @Test
@@ -299,18 +353,17 @@ class StudentServiceTest {
     }
 
     @Test
-    @DisplayName("Should handle repository exception during getAllStudents")
-    void getAllStudents_RepositoryException_ThrowsException() {
+    @DisplayName("Should handle repository exception during listStudents")
+    void listStudents_RepositoryException_ThrowsException() {
         // Given
-        when(studentRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(studentRepository.findBy(any(Specification.class), any())).thenThrow(new RuntimeException("Database error"));
 
         // When & Then
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
-                () -> studentService.getAllStudents()
+                () -> studentService.listStudents(new StudentFilter(), null, null)
         );
         assertEquals("Database error", exception.getMessage());
-        verify(studentRepository).findAll();
     }
 
     @Test
@@ -383,4 +436,19 @@ class StudentServiceTest {
         verify(studentRepository).findById(studentId);
         verify(studentRepository).save(any(Student.class));
     }
+
+    @Test
+    @DisplayName("Should search students on the first page with the default size")
+    void searchStudents_DefaultPaging() {
+        // Given
+        SliceImpl<SearchHit> hits = new SliceImpl<>(Collections.emptyList());
+        when(studentRepository.search(anyString(), anyString(), any(Pageable.class))).thenReturn(hits);
+
+        // When
+        Slice<SearchHit> result = studentService.searchStudents("Smi", null, null);
+
+        // Then
+        assertSame(hits, result);
+        verify(studentRepository).search("smi", "smi:*", PageRequest.of(0, SearchQuery.DEFAULT_PAGE_SIZE));
+    }
 }
@@ -1,17 +1,21 @@
 package code.with.vanilson.studentmanagement.modules.teacher;
 
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -23,6 +27,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import code.with.vanilson.studentmanagement.common.dto.SearchHit;
 import code.with.vanilson.studentmanagement.config.JwtUtils;
 
 @WebMvcTest(TeacherController.class)
@@ -34,6 +39,9 @@ class TeacherControllerTest {
         @MockBean
         private TeacherService teacherService;
 
+        @MockBean
+        private EntityTags entityTags;
+
         @MockBean
         private JwtUtils jwtUtils;
 
@@ -106,4 +114,21 @@ class TeacherControllerTest {
                                 .andExpect(jsonPath("$.data.firstName").value("Jane"))
                                 .andExpect(jsonPath("$.message").value("Teacher retrieved successfully"));
         }
+
+        @Test
+        @DisplayName("GET /api/v1/teachers/search - Success")
+        @WithMockUser
+        void searchTeachers_Success() throws Exception {
+                SearchHit hit = new SpelAwareProxyProjectionFactory().createProjection(SearchHit.class, Map.of(
+                                "id", 1L, "firstName", "Jane", "lastName", "Smith",
+                                "email", "jane.smith@example.com", "rank", 0.8));
+
+                when(teacherService.searchTeachers("jane", null, null)).thenReturn(new SliceImpl<>(List.of(hit)));
+
+                mockMvc.perform(get("/api/v1/teachers/search").param("q", "jane"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.data.content[0].lastName").value("Smith"))
+                                .andExpect(jsonPath("$.data.content[0].rank").value(0.8))
+                                .andExpect(jsonPath("$.message").value("Teachers retrieved successfully"));
+        }
 }
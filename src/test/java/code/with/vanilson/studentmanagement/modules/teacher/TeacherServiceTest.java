@@ -2,8 +2,12 @@ package code.with.vanilson.studentmanagement.modules.teacher;
 
 
 
+import code.with.vanilson.studentmanagement.common.dto.SearchHit;
 import code.with.vanilson.studentmanagement.common.exception.ResourceAlreadyExistsException;
+import code.with.vanilson.studentmanagement.common.exception.ResourceBadRequestException;
 import code.with.vanilson.studentmanagement.common.exception.ResourceNotFoundException;
+import code.with.vanilson.studentmanagement.common.utils.EntityTags;
+import code.with.vanilson.studentmanagement.common.utils.SearchQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,6 +15,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -19,6 +27,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +37,9 @@ class TeacherServiceTest {
     @Mock
     private TeacherRepository teacherRepository;
 
+    @Mock
+    private EntityTags entityTags;
+
     @InjectMocks
     private TeacherService teacherService;
 
@@ -482,4 +494,28 @@ class TeacherServiceTest {
         verify(teacherRepository).existsByEmail(teacherWithDifferentCase.getEmail());
         verify(teacherRepository).save(any(Teacher.class));
     }
+
+    @Test
+    @DisplayName("Should search teachers with a prefix tsquery and clamped page size")
+    void searchTeachers_ShouldNormaliseQuery() {
+        // Given
+        SliceImpl<SearchHit> hits = new SliceImpl<>(Collections.emptyList());
+        when(teacherRepository.search(anyString(), anyString(), any(Pageable.class))).thenReturn(hits);
+
+        // When
+        Slice<SearchHit> result = teacherService.searchTeachers("  Jon  O'Neil ", 2, 500);
+
+        // Then
+        assertSame(hits, result);
+        verify(teacherRepository).search("jon o'neil", "jon:* & o:* & neil:*",
+                PageRequest.of(2, SearchQuery.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    @DisplayName("Should reject search queries without enough letters or digits")
+    void searchTeachers_QueryTooShort_ShouldThrow() {
+        assertThrows(ResourceBadRequestException.class, () -> teacherService.searchTeachers(" a ", null, null));
+        assertThrows(ResourceBadRequestException.class, () -> teacherService.searchTeachers("&|!", null, null));
+        verifyNoInteractions(teacherRepository);
+    }
 }